@@ -0,0 +1,119 @@
+package dev.javajunior.techstars_jobs_scraper.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import dev.javajunior.techstars_jobs_scraper.dto.JobExportRow;
+import dev.javajunior.techstars_jobs_scraper.dto.JobListingRow;
+import dev.javajunior.techstars_jobs_scraper.model.Job;
+import dev.javajunior.techstars_jobs_scraper.model.Organization;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Inputs shared by the benchmarks: the listing page from the test resources and synthetic
+ * detail pages, jobs and rows.
+ */
+final class BenchmarkFixtures {
+
+    private static final String PARAGRAPH = "<p>We are looking for an engineer who enjoys building reliable data " +
+            "pipelines, reviewing code and mentoring teammates. You will own services end to end.</p>\n";
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * The test listing page with its job cards repeated {@code copies} times.
+     */
+    static String listingPage(int copies) {
+        String listing;
+        try (InputStream in = BenchmarkFixtures.class.getResourceAsStream("/test-job-listing.html")) {
+            listing = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int bodyStart = listing.indexOf("<body>") + "<body>".length();
+        int bodyEnd = listing.indexOf("</body>");
+        String cards = listing.substring(bodyStart, bodyEnd);
+        return listing.substring(0, bodyStart) + cards.repeat(copies) + listing.substring(bodyEnd);
+    }
+
+    /**
+     * A Next.js job page whose {@code __NEXT_DATA__} description is about {@code descriptionKb} KB.
+     */
+    static String detailPage(int descriptionKb) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ObjectNode job = objectMapper.createObjectNode()
+                .put("title", "Senior Data Engineer")
+                .put("description", PARAGRAPH.repeat(Math.max(1, descriptionKb * 1024 / PARAGRAPH.length())))
+                .put("jobType", "Full-time")
+                .put("experienceLevel", "Senior")
+                .put("salary", "$150k - $180k")
+                .put("remote", true)
+                .put("applicationUrl", "https://acme.example.com/careers/42/apply");
+        job.putArray("tags").add("Java").add("Kafka").add("PostgreSQL").add("AWS");
+        job.putObject("organization").put("name", "Acme").put("logoUrl", "https://acme.example.com/logo.png");
+        ObjectNode root = objectMapper.createObjectNode();
+        root.putObject("props").putObject("pageProps").set("job", job);
+        root.put("page", "/companies/[slug]/jobs/[id]").put("buildId", "benchmark");
+
+        return "<!DOCTYPE html><html><head><title>Senior Data Engineer at Acme</title>" +
+                "<meta name=\"viewport\" content=\"width=device-width\"></head><body>" +
+                "<div id=\"__next\"><header><nav><a href=\"/jobs\">Jobs</a><a href=\"/companies\">Companies</a></nav></header>" +
+                "<main><h1>Senior Data Engineer</h1><div class=\"job-description\">" + job.path("description").asText() +
+                "</div><a class=\"apply-button\" href=\"https://acme.example.com/careers/42/apply\">Apply</a></main></div>" +
+                "<script id=\"__NEXT_DATA__\" type=\"application/json\">" + root + "</script></body></html>";
+    }
+
+    static List<Job> jobs(int count) {
+        Organization organization = Organization.builder().id(1L).name("Acme")
+                .url("https://acme.example.com").logoUrl("https://acme.example.com/logo.png").build();
+        List<Job> jobs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            jobs.add(Job.builder()
+                    .id((long) i)
+                    .positionName("Software Engineer " + i)
+                    .jobPageUrl("https://jobs.techstars.com/companies/acme/jobs/" + i)
+                    .organization(organization)
+                    .laborFunction("Software Engineering")
+                    .location("New York, NY")
+                    .postedDate(1_700_000_000_000L + i * 3_600_000L)
+                    .description(PARAGRAPH.repeat(8))
+                    .tags(Set.of("Java", "Kafka", "AWS"))
+                    .jobType("Full-time")
+                    .experienceLevel("Senior")
+                    .remote(i % 2 == 0)
+                    .applicationUrl("https://acme.example.com/careers/" + i)
+                    .build());
+        }
+        return jobs;
+    }
+
+    static List<JobListingRow> listingRows(int count) {
+        List<JobListingRow> rows = new ArrayList<>(count);
+        for (Job job : jobs(count)) {
+            rows.add(new JobListingRow(job.getId(), job.getPositionName(), job.getJobPageUrl(), "Acme",
+                    "https://acme.example.com", "https://acme.example.com/logo.png", job.getLaborFunction(),
+                    job.getLaborFunction(),
+                    job.getLocation(), job.getPostedDate(), String.join(JobListingRow.TAG_SEPARATOR, job.getTags()),
+                    job.getJobType(), job.getExperienceLevel(), null, job.getRemote(), job.getApplicationUrl()));
+        }
+        return rows;
+    }
+
+    static List<JobExportRow> exportRows(int count) {
+        List<JobExportRow> rows = new ArrayList<>(count);
+        for (Job job : jobs(count)) {
+            // Every tenth title needs quoting
+            String positionName = job.getId() % 10 == 0 ? job.getPositionName() + ", Platform" : job.getPositionName();
+            rows.add(new JobExportRow(positionName, "Acme", job.getLocation(), job.getPostedDate(), job.getJobType(),
+                    job.getExperienceLevel(), job.getRemote(), job.getApplicationUrl()));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,41 @@
+package dev.javajunior.techstars_jobs_scraper.benchmark;
+
+import dev.javajunior.techstars_jobs_scraper.dto.JobExportRow;
+import dev.javajunior.techstars_jobs_scraper.export.JobCsvWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing 1000 export rows through the same 64 KB buffered writer the CSV endpoint uses.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvExportBenchmark {
+
+    private List<JobExportRow> rows;
+
+    @Setup
+    public void setUp() {
+        rows = BenchmarkFixtures.exportRows(1000);
+    }
+
+    @Benchmark
+    public void writeCsv() throws IOException {
+        Writer writer = new BufferedWriter(Writer.nullWriter(), 64 * 1024);
+        JobCsvWriter csvWriter = new JobCsvWriter(writer);
+        csvWriter.writeHeader();
+        for (JobExportRow row : rows) {
+            csvWriter.writeRow(row);
+        }
+        writer.flush();
+    }
+}
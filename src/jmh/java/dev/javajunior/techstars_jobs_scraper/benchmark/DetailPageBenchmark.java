@@ -0,0 +1,52 @@
+package dev.javajunior.techstars_jobs_scraper.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.javajunior.techstars_jobs_scraper.component.NextDataExtractor;
+import dev.javajunior.techstars_jobs_scraper.dto.JobDetails;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading the job from a detail page. {@code domAndTree} is the former approach of building the
+ * DOM and a JSON tree of the whole {@code __NEXT_DATA__} script; {@code streaming} is the
+ * NextDataExtractor used by AsyncJobProcessor.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DetailPageBenchmark {
+
+    @Param({"4", "64", "512"})
+    private int descriptionKb;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final NextDataExtractor nextDataExtractor = new NextDataExtractor(objectMapper);
+    private String html;
+
+    @Setup
+    public void setUp() {
+        html = BenchmarkFixtures.detailPage(descriptionKb);
+    }
+
+    @Benchmark
+    public JsonNode domAndTree() throws IOException {
+        Document document = Jsoup.parse(html, "https://jobs.techstars.com/companies/acme/jobs/42");
+        Element script = document.selectFirst("script#__NEXT_DATA__");
+        return objectMapper.readTree(script.html()).path("props").path("pageProps").path("job");
+    }
+
+    @Benchmark
+    public Optional<JobDetails> streaming() {
+        return nextDataExtractor.extract(html);
+    }
+}
@@ -0,0 +1,50 @@
+package dev.javajunior.techstars_jobs_scraper.benchmark;
+
+import dev.javajunior.techstars_jobs_scraper.component.JobCardExtractor;
+import dev.javajunior.techstars_jobs_scraper.component.ListingCrawler;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing page work done for every crawled page: parsing and selecting the cards, then reading
+ * the fields of each card.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JobCardExtractionBenchmark {
+
+    // The fixture has 3 cards, so a page holds 3 * copies cards
+    @Param({"1", "10"})
+    private int copies;
+
+    private final JobCardExtractor extractor = new JobCardExtractor();
+    private String listingHtml;
+    private Elements cards;
+
+    @Setup
+    public void setUp() {
+        listingHtml = BenchmarkFixtures.listingPage(copies);
+        cards = ListingCrawler.selectJobCards(Jsoup.parse(listingHtml));
+    }
+
+    @Benchmark
+    public Elements parseAndSelectCards() {
+        return ListingCrawler.selectJobCards(Jsoup.parse(listingHtml));
+    }
+
+    @Benchmark
+    public void extractCards(Blackhole blackhole) {
+        for (Element card : cards) {
+            blackhole.consume(extractor.extract(card));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package dev.javajunior.techstars_jobs_scraper.benchmark;
+
+import dev.javajunior.techstars_jobs_scraper.dto.JobListingRow;
+import dev.javajunior.techstars_jobs_scraper.dto.JobResponse;
+import dev.javajunior.techstars_jobs_scraper.model.Job;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping a page of 100 jobs to responses, from entities and from listing rows.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JobResponseMappingBenchmark {
+
+    private List<Job> jobs;
+    private List<JobListingRow> rows;
+
+    @Setup
+    public void setUp() {
+        jobs = BenchmarkFixtures.jobs(100);
+        rows = BenchmarkFixtures.listingRows(100);
+    }
+
+    @Benchmark
+    public void fromJob(Blackhole blackhole) {
+        for (Job job : jobs) {
+            blackhole.consume(JobResponse.fromJob(job));
+        }
+    }
+
+    @Benchmark
+    public void fromRow(Blackhole blackhole) {
+        for (JobListingRow row : rows) {
+            blackhole.consume(JobResponse.fromRow(row));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package dev.javajunior.techstars_jobs_scraper.benchmark;
+
+import dev.javajunior.techstars_jobs_scraper.component.JobCardExtractor;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PostedDateParsingBenchmark {
+
+    @Param({"3 days ago", "2024-03-15", "Mar 15, 2024", "15 бер. 2024"})
+    private String postedDate;
+
+    private final JobCardExtractor extractor = new JobCardExtractor();
+
+    @Benchmark
+    public LocalDate parsePostedDate() {
+        return extractor.parsePostedDate(postedDate);
+    }
+}
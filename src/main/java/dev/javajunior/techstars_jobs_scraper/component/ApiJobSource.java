@@ -0,0 +1,207 @@
+package dev.javajunior.techstars_jobs_scraper.component;
+
+import dev.javajunior.techstars_jobs_scraper.connector.JobSearchApiClient;
+import dev.javajunior.techstars_jobs_scraper.connector.JobSearchApiClient.Hit;
+import dev.javajunior.techstars_jobs_scraper.connector.JobSearchApiClient.HitOrganization;
+import dev.javajunior.techstars_jobs_scraper.connector.JobSearchApiClient.Results;
+import dev.javajunior.techstars_jobs_scraper.dto.CrawlResult;
+import dev.javajunior.techstars_jobs_scraper.exception.ScrapingException;
+import dev.javajunior.techstars_jobs_scraper.model.Job;
+import dev.javajunior.techstars_jobs_scraper.model.Organization;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Ingests a job function from the board's JSON search API ({@code app.scraping.source=api}).
+ * Hits already carry the job and its organization, so each page of up to {@code hits-per-page}
+ * jobs costs one request and goes straight to the {@link JobBatchWriter}.
+ */
+@Component
+@Slf4j
+public class ApiJobSource {
+
+    private final JobSearchApiClient jobSearchApiClient;
+    private final OrganizationResolver organizationResolver;
+    private final JobUrlIndex jobUrlIndex;
+    private final JobBatchWriter jobBatchWriter;
+    private final ScrapingMetrics scrapingMetrics;
+
+    @Value("${app.scraping.api.board-url:https://jobs.techstars.com}")
+    private String boardUrl;
+
+    @Value("${app.scraping.api.hits-per-page:100}")
+    private int hitsPerPage;
+
+    @Value("${app.scraping.crawl.max-pages:100}")
+    private int maxPages;
+
+    public ApiJobSource(JobSearchApiClient jobSearchApiClient,
+                        OrganizationResolver organizationResolver,
+                        JobUrlIndex jobUrlIndex,
+                        JobBatchWriter jobBatchWriter,
+                        ScrapingMetrics scrapingMetrics) {
+        this.jobSearchApiClient = jobSearchApiClient;
+        this.organizationResolver = organizationResolver;
+        this.jobUrlIndex = jobUrlIndex;
+        this.jobBatchWriter = jobBatchWriter;
+        this.scrapingMetrics = scrapingMetrics;
+    }
+
+    /**
+     * Ingests every page of the function and returns the jobs that were stored.
+     */
+    public List<Job> scrape(String jobFunction) {
+        List<Job> saved = new ArrayList<>();
+        ingest(jobFunction, saved::add, () -> false);
+        return saved;
+    }
+
+    public CrawlResult crawl(String jobFunction) {
+        return crawl(jobFunction, job -> { }, () -> false);
+    }
+
+    /**
+     * Ingests page by page, reporting stored jobs to {@code onSaved}, until {@code cancelled}
+     * returns true or the results run out.
+     */
+    public CrawlResult crawl(String jobFunction, Consumer<Job> onSaved, BooleanSupplier cancelled) {
+        CrawlResult result = ingest(jobFunction, onSaved, cancelled);
+        log.info("API ingest finished: {}", result);
+        return result;
+    }
+
+    private CrawlResult ingest(String jobFunction, Consumer<Job> onSaved, BooleanSupplier cancelled) {
+        Set<String> seenUrls = new HashSet<>();
+        int pages = 0;
+        int hitsFound = 0;
+        int hitsSkipped = 0;
+        int jobsSaved = 0;
+        int jobsFailed = 0;
+
+        for (int page = 0; page < maxPages && !cancelled.getAsBoolean(); page++) {
+            Results results;
+            try {
+                int pageNumber = page;
+                results = scrapingMetrics.timeListingFetch(() -> jobSearchApiClient.search(jobFunction, pageNumber, hitsPerPage));
+            } catch (IOException | RestClientException e) {
+                scrapingMetrics.failure("listing", e);
+                if (page == 0) {
+                    throw new ScrapingException("Failed to query job search API: " + e.getMessage(), e);
+                }
+                log.warn("Stopping API ingest of {} at page {}: {}", jobFunction, page, e.getMessage());
+                break;
+            }
+            if (results.jobs().isEmpty()) {
+                break;
+            }
+            pages++;
+
+            Map<String, Hit> hitsByUrl = new LinkedHashMap<>();
+            for (Hit hit : results.jobs()) {
+                String jobUrl = jobPageUrl(hit);
+                if (jobUrl != null && seenUrls.add(jobUrl)) {
+                    hitsByUrl.put(jobUrl, hit);
+                }
+            }
+            Set<String> newUrls = hitsByUrl.isEmpty() ? new LinkedHashSet<>() : jobUrlIndex.filterUnknown(hitsByUrl.keySet());
+            hitsFound += hitsByUrl.size();
+            hitsSkipped += hitsByUrl.size() - newUrls.size();
+            scrapingMetrics.cardsSkipped(hitsByUrl.size() - newUrls.size());
+
+            List<Job> jobs = new ArrayList<>(newUrls.size());
+            for (String jobUrl : newUrls) {
+                try {
+                    jobs.add(toJob(hitsByUrl.get(jobUrl), jobUrl, jobFunction));
+                } catch (RuntimeException e) {
+                    scrapingMetrics.failure("detail", e);
+                    log.warn("Skipping API hit {}: {}", jobUrl, e.getMessage());
+                    jobsFailed++;
+                }
+            }
+            List<Job> written = jobBatchWriter.writeAll(jobs);
+            // Jobs stored from another function are now also listed under this one
+            Map<String, Set<String>> knownUrls = new HashMap<>();
+            hitsByUrl.keySet().stream().filter(url -> !newUrls.contains(url))
+                    .forEach(url -> knownUrls.put(url, Set.of(jobFunction)));
+            jobBatchWriter.recordFunctions(knownUrls);
+            jobsSaved += written.size();
+            written.forEach(onSaved);
+            log.debug("API page {} of {}: {} hits, {} new, {} saved", page, jobFunction, hitsByUrl.size(), newUrls.size(),
+                    written.size());
+
+            if ((long) (page + 1) * hitsPerPage >= results.count()) {
+                break;
+            }
+        }
+        return new CrawlResult(jobFunction, pages, hitsFound, hitsSkipped, jobsSaved, jobsFailed);
+    }
+
+    private Job toJob(Hit hit, String jobUrl, String jobFunction) {
+        HitOrganization hitOrganization = hit.organization();
+        if (hitOrganization == null || StringUtils.isBlank(hitOrganization.name())) {
+            throw new IllegalArgumentException("hit has no organization");
+        }
+        String organizationUrl = organizationUrl(hitOrganization);
+        if (organizationUrl == null) {
+            throw new IllegalArgumentException("hit has no organization URL");
+        }
+        Organization organization = organizationResolver.resolve(hitOrganization.name(),
+                organizationUrl, StringUtils.defaultString(hitOrganization.logoUrl()));
+
+        List<String> locations = hit.locations() != null ? hit.locations() : List.of();
+        boolean remote = "remote".equalsIgnoreCase(hit.workMode())
+                || locations.stream().anyMatch(location -> location.equalsIgnoreCase("remote"));
+
+        Job job = Job.builder()
+                .positionName(hit.title())
+                .jobPageUrl(jobUrl)
+                .organization(organization)
+                .laborFunction(jobFunction)
+                .jobFunctions(new HashSet<>(Set.of(jobFunction)))
+                .location(locations.isEmpty() ? "Remote" : String.join("; ", locations))
+                .postedDate(hit.createdAt() != null ? hit.createdAt() * 1000 : System.currentTimeMillis())
+                .description("")
+                .tags(hit.skills() != null ? new HashSet<>(hit.skills()) : new HashSet<>())
+                .jobType(hit.employmentTypes() != null && !hit.employmentTypes().isEmpty() ? hit.employmentTypes().get(0) : "")
+                .experienceLevel(StringUtils.defaultString(hit.seniority()))
+                .remote(remote)
+                .applicationUrl(StringUtils.defaultString(hit.url()))
+                .build();
+        job.setContentHash(JobFingerprint.ofContent(job));
+        return job;
+    }
+
+    // Same page URL the HTML listing links to, so both sources deduplicate against each other
+    private String jobPageUrl(Hit hit) {
+        if (hit.organization() == null || StringUtils.isAnyBlank(hit.organization().slug(), hit.slug())) {
+            return null;
+        }
+        return boardUrl + "/companies/" + hit.organization().slug() + "/jobs/" + hit.slug();
+    }
+
+    // Null without a slug or domain, so unrelated organizations are not merged under one URL
+    private String organizationUrl(HitOrganization organization) {
+        if (StringUtils.isNotBlank(organization.slug())) {
+            return boardUrl + "/companies/" + organization.slug();
+        }
+        if (StringUtils.isNotBlank(organization.domain())) {
+            return "https://" + organization.domain();
+        }
+        return null;
+    }
+}
@@ -1,298 +1,188 @@
 package dev.javajunior.techstars_jobs_scraper.component;
 
 import dev.javajunior.techstars_jobs_scraper.connector.JsoupWrapper;
+import dev.javajunior.techstars_jobs_scraper.dto.JobCard;
+import dev.javajunior.techstars_jobs_scraper.dto.JobDetails;
+import dev.javajunior.techstars_jobs_scraper.dto.ParsedJob;
 import dev.javajunior.techstars_jobs_scraper.model.Job;
 import dev.javajunior.techstars_jobs_scraper.model.Organization;
-import dev.javajunior.techstars_jobs_scraper.repository.JobRepository;
-import dev.javajunior.techstars_jobs_scraper.repository.OrganizationRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.dao.DataIntegrityViolationException;
 import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.time.LocalDate;
-import java.util.Map;
-import java.util.HashMap;
-import java.util.UUID;
 import java.io.IOException;
 
 @Component
 @Slf4j
 public class AsyncJobProcessor {
 
-    private final JobRepository jobRepository;
-    private final OrganizationRepository organizationRepository;
+    private static final Evaluator DESCRIPTION = QueryParser.parse(".job-description, [itemprop='description']");
+    private static final Evaluator JOB_TYPE = QueryParser.parse(".job-type, [data-testid='job-type']");
+    private static final Evaluator APPLY_LINK = QueryParser.parse("a[href*='apply'], .apply-button");
+
+    private final OrganizationResolver organizationResolver;
     private final JsoupWrapper jsoupWrapper;
-    private final ObjectMapper objectMapper;
+    private final JobUrlIndex jobUrlIndex;
+    private final JobCardExtractor jobCardExtractor;
+    private final NextDataExtractor nextDataExtractor;
+    private final ScrapingMetrics scrapingMetrics;
+    private final PageArchive pageArchive;
 
-    public AsyncJobProcessor(JobRepository jobRepository,
-                             OrganizationRepository organizationRepository,
+    public AsyncJobProcessor(OrganizationResolver organizationResolver,
                              JsoupWrapper jsoupWrapper,
-                             ObjectMapper objectMapper) {
-        this.jobRepository = jobRepository;
-        this.organizationRepository = organizationRepository;
+                             JobUrlIndex jobUrlIndex,
+                             JobCardExtractor jobCardExtractor,
+                             NextDataExtractor nextDataExtractor,
+                             ScrapingMetrics scrapingMetrics,
+                             PageArchive pageArchive) {
+        this.organizationResolver = organizationResolver;
         this.jsoupWrapper = jsoupWrapper;
-        this.objectMapper = objectMapper;
+        this.jobUrlIndex = jobUrlIndex;
+        this.jobCardExtractor = jobCardExtractor;
+        this.nextDataExtractor = nextDataExtractor;
+        this.scrapingMetrics = scrapingMetrics;
+        this.pageArchive = pageArchive;
     }
 
+    /**
+     * Fetches the detail page of the card and returns the parsed, not yet stored job.
+     * Persisting is left to {@link JobBatchWriter}.
+     */
     @Async
-    @Transactional(propagation = Propagation.REQUIRES_NEW, noRollbackFor = DataIntegrityViolationException.class)
-    public CompletableFuture<Job> processJobElement(Element jobElement, String jobFunction) throws IOException {
-        try {
-            // 1. Log the full element structure for debugging
-            log.debug("Processing job element:\n{}", jobElement.outerHtml());
-
-            // 2. Extract basic data
-            String orgName = extractOrganizationName(jobElement);
-            String orgUrl = extractOrganizationUrl(jobElement);
-            String orgLogo = extractOrganizationLogo(jobElement);
-            String jobUrl = extractJobUrl(jobElement);
-            String positionName = extractPositionName(jobElement);
-            String location = extractLocation(jobElement);
-            String postedDateStr = extractPostedDate(jobElement);
-
-            log.debug("Extracted details - Org: {} ({}), Position: {}, Location: {}, Date: {}",
-                    orgName, orgUrl, positionName, location, postedDateStr);
-
-            // 3. Check if job already exists
-            if (jobRepository.existsByJobPageUrl(jobUrl)) {
-                log.debug("Job already exists: {}", jobUrl);
-                return CompletableFuture.completedFuture(null);
-            }
-
-            // 4. Create or find organization
-            Organization organization = organizationRepository.findByName(orgName)
-                    .orElseGet(() -> {
-                        Organization newOrg = Organization.builder()
-                            .name(orgName)
-                            .url(orgUrl)
-                            .logoUrl(orgLogo)
-                            .build();
-                        return organizationRepository.save(newOrg);
-                    });
+    public CompletableFuture<Job> processJobCard(JobCard card, String jobFunction) throws IOException {
+        // Cards are pre-filtered per page, this catches repeats
+        if (jobUrlIndex.isKnown(card.jobUrl())) {
+            log.debug("Job already exists: {}", card.jobUrl());
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.completedFuture(parseJob(card, jobFunction));
+    }
 
-            // 5. Create job object
-            Job job = Job.builder()
-                    .positionName(positionName)
-                .jobPageUrl(jobUrl)
-                .organization(organization)
-                .laborFunction(jobFunction)
-                    .location(location)
-                    .postedDate(parsePostedDate(postedDateStr).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli())
-                .build();
+    /**
+     * Like {@link #processJobCard} but also for jobs that are already stored, so a card that
+     * changed can be read again and compared with the stored content.
+     */
+    @Async
+    public CompletableFuture<Job> refreshJobCard(JobCard card, String jobFunction) throws IOException {
+        return CompletableFuture.completedFuture(parseJob(card, jobFunction));
+    }
 
-            // 6. Get job details
-            Document jobDoc = jsoupWrapper.connect(jobUrl);
-            log.debug("Job page content:\n{}", jobDoc.html());
+    private Job parseJob(JobCard card, String jobFunction) throws IOException {
+        try {
+            log.debug("Processing job card: {}", card);
 
-            // 7. Process JSON data (if available)
-            processJobDetailsFromJson(job, jobDoc);
-            
-            // 8. Fallback to HTML if JSON didn't provide results
-            if (StringUtils.isBlank(job.getDescription())) {
-                processJobDetailsFromHtml(job, jobDoc);
-            }
+            // Get job details, the DOM is only built if the page has no usable __NEXT_DATA__
+            String jobPage = scrapingMetrics.timeDetailFetch(() -> jsoupWrapper.fetch(card.jobUrl()));
+            log.debug("Fetched job page {} ({} chars)", card.jobUrl(), jobPage.length());
+            pageArchive.store(PageArchive.DETAIL, card.jobUrl(), jobPage);
 
-            // Validate organization URL
-            if (StringUtils.isBlank(job.getOrganization().getUrl())) {
-                log.warn("Empty organization URL for {}", job.getPositionName());
-                return CompletableFuture.completedFuture(null);
+            Job job = extract(card, jobFunction, jobPage);
+            if (job != null) {
+                log.debug("Parsed job: {}", job.getPositionName());
             }
-
-            // 9. Save the job
-            Job savedJob = jobRepository.save(job);
-            log.info("Saved job: {} (ID: {})", savedJob.getPositionName(), savedJob.getId());
-            
-            return CompletableFuture.completedFuture(savedJob);
+            return job;
         } catch (DataIntegrityViolationException e) {
             log.warn("Duplicate entry detected, skipping: {}", e.getMessage());
-            return CompletableFuture.completedFuture(null);
+            return null;
         } catch (Exception e) {
-            log.error("Error processing job element", e);
+            scrapingMetrics.failure("detail", e);
+            log.error("Error processing job card", e);
             throw e; // Re-throw the exception
         }
     }
 
-    private void processJobDetailsFromJson(Job job, Document jobDoc) {
-        try {
-            Element nextDataScript = jobDoc.select("script#__NEXT_DATA__").first();
-            if (nextDataScript == null) {
-                log.debug("No __NEXT_DATA__ script found");
-                return;
-            }
+    // Resolves the organization, creating it if needed, and stores a logo found on the page
+    private Job extract(JobCard card, String jobFunction, String jobPage) {
+        Organization organization = scrapingMetrics.timeOrganizationResolve(() -> organizationResolver.resolve(
+                card.organizationName(), card.organizationUrl(), card.organizationLogo()));
+        ParsedJob parsed = parse(card, jobFunction, jobPage, organization);
+        if (parsed == null) {
+            return null;
+        }
+        organizationResolver.updateLogoIfMissing(organization, parsed.organizationLogoUrl());
+        return parsed.job();
+    }
 
-            String jsonData = nextDataScript.html();
-            JsonNode rootNode = objectMapper.readTree(jsonData);
+    /**
+     * Builds the job of {@code organization} from the card and its already fetched detail page,
+     * without any network I/O or writes, so it is safe to call from many threads. Returns null
+     * when the job has no organization URL.
+     */
+    public ParsedJob parse(JobCard card, String jobFunction, String jobPage, Organization organization) {
+        Job job = Job.builder()
+                .positionName(card.positionName())
+                .jobPageUrl(card.jobUrl())
+                .organization(organization)
+                .laborFunction(jobFunction)
+                .jobFunctions(new HashSet<>(Set.of(jobFunction)))
+                .location(card.location())
+                .postedDate(jobCardExtractor.parsePostedDate(card.postedDate())
+                        .atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                .build();
 
-            // Main paths to data in JSON
-            JsonNode jobNode = rootNode.path("props").path("pageProps").path("job");
-            if (jobNode.isMissingNode()) {
-                jobNode = rootNode.path("initialState").path("jobs").path("currentJob");
-            }
+        JobDetails details = scrapingMetrics.timeNextDataParse(() -> nextDataExtractor.extract(jobPage)).orElse(null);
+        if (details != null) {
+            applyDetails(job, details);
+        }
 
-            if (!jobNode.isMissingNode()) {
-                job.setDescription(jobNode.path("description").asText());
-                job.setJobType(jobNode.path("jobType").asText());
-                job.setExperienceLevel(jobNode.path("experienceLevel").asText());
-                job.setSalary(jobNode.path("salary").asText());
-                job.setRemote(jobNode.path("remote").asBoolean());
-                job.setApplicationUrl(jobNode.path("applicationUrl").asText());
+        if (StringUtils.isBlank(job.getDescription())) {
+            scrapingMetrics.timeHtmlParse(() -> {
+                processJobDetailsFromHtml(job, Jsoup.parse(jobPage, card.jobUrl()));
+                return job;
+            });
+        }
 
-                // Process tags
-                JsonNode tagsNode = jobNode.path("tags");
-                if (tagsNode.isArray()) {
-                    Set<String> tags = new HashSet<>();
-                    tagsNode.forEach(tag -> tags.add(tag.asText()));
-                    job.setTags(tags);
-                }
+        // Validate organization URL
+        if (StringUtils.isBlank(job.getOrganization().getUrl())) {
+            log.warn("Empty organization URL for {}", job.getPositionName());
+            scrapingMetrics.failure("detail", "missing_organization_url");
+            return null;
+        }
 
-                // Update organization logo
-                JsonNode orgNode = jobNode.path("organization");
-                if (!orgNode.isMissingNode() && StringUtils.isBlank(job.getOrganization().getLogoUrl())) {
-                    job.getOrganization().setLogoUrl(orgNode.path("logoUrl").asText());
-                    organizationRepository.save(job.getOrganization());
-                }
-            }
-        } catch (Exception e) {
-            log.warn("Failed to parse JSON data", e);
+        job.setCardHash(JobFingerprint.ofCard(card));
+        job.setContentHash(JobFingerprint.ofContent(job));
+        return new ParsedJob(job, details != null ? details.organizationLogoUrl() : null);
+    }
+
+    private void applyDetails(Job job, JobDetails details) {
+        job.setDescription(details.description());
+        job.setJobType(details.jobType());
+        job.setExperienceLevel(details.experienceLevel());
+        job.setSalary(details.salary());
+        job.setRemote(details.remote());
+        job.setApplicationUrl(details.applicationUrl());
+        if (details.tags() != null) {
+            job.setTags(details.tags());
         }
     }
 
     private void processJobDetailsFromHtml(Job job, Document jobDoc) {
         // Description
-        Element descElement = jobDoc.selectFirst(".job-description, [itemprop='description']");
+        Element descElement = jobDoc.selectFirst(DESCRIPTION);
         if (descElement != null) {
             job.setDescription(descElement.text());
         }
 
         // Job type
-        Element jobTypeElement = jobDoc.selectFirst(".job-type, [data-testid='job-type']");
+        Element jobTypeElement = jobDoc.selectFirst(JOB_TYPE);
         if (jobTypeElement != null) {
             job.setJobType(jobTypeElement.text());
         }
 
         // Application URL
-        Element applyElement = jobDoc.selectFirst("a[href*='apply'], .apply-button");
+        Element applyElement = jobDoc.selectFirst(APPLY_LINK);
         if (applyElement != null) {
             job.setApplicationUrl(applyElement.attr("href"));
         }
     }
-
-    private String extractOrganizationName(Element jobElement) {
-        // First try to find by company-specific classes
-        Element orgElement = jobElement.selectFirst(".company-info, .company-name, [itemprop='hiringOrganization']");
-        
-        // If not found, exclude elements containing job titles
-        if (orgElement == null) {
-            orgElement = jobElement.selectFirst("a:not(:contains('Engineer')):not(:contains('Developer')):not(:contains('Manager')):not(:contains('Lead')):not(:contains('Architect')):not(:contains('Designer')):not(:contains('Analyst')):not(:contains('Consultant')):not(:contains('Specialist'))");
-        }
-        
-        return orgElement != null ? orgElement.text().trim() : "Unknown Company";
-    }
-
-    private String extractOrganizationUrl(Element jobElement) {
-        Element orgLink = jobElement.selectFirst("a[href*='company'], .company-link");
-        if (orgLink != null) {
-            String url = orgLink.attr("href");
-        if (StringUtils.isNotBlank(url)) {
-                return url.startsWith("http") ? url : "https://jobs.techstars.com" + url;
-            }
-        }
-        // Generate unique URL if not found
-        return "https://jobs.techstars.com/company/unknown_" + UUID.randomUUID();
-    }
-
-    private String extractOrganizationLogo(Element jobElement) {
-        Element logo = jobElement.selectFirst("img[src*='logo'], .company-logo");
-        return logo != null ? logo.attr("src") : "";
-    }
-
-    private String extractJobUrl(Element jobElement) {
-        Element link = jobElement.selectFirst("a[href*='jobs'], a[href*='apply']");
-        if (link != null) {
-            String url = link.attr("href");
-            return url.startsWith("http") ? url : "https://jobs.techstars.com" + url;
-        }
-        return "";
-    }
-
-    private String extractPositionName(Element jobElement) {
-        Element title = jobElement.selectFirst("[itemprop='title'], .job-title, h3");
-        return title != null ? title.text() : "";
-    }
-
-    private String extractLocation(Element jobElement) {
-        Element location = jobElement.selectFirst("[itemprop='jobLocation'], .location");
-        return location != null ? location.text() : "Remote";
-    }
-
-    private String extractPostedDate(Element jobElement) {
-        Element date = jobElement.selectFirst("[itemprop='datePosted'], .post-date");
-        return date != null ? date.text() : "";
-    }
-
-    private LocalDate parsePostedDate(String dateStr) {
-        if (StringUtils.isBlank(dateStr)) {
-            return LocalDate.now();
-        }
-
-        Map<String, String> ukrainianMonths = new HashMap<>();
-        ukrainianMonths.put("січ.", "Jan");
-        ukrainianMonths.put("лют.", "Feb");
-        ukrainianMonths.put("бер.", "Mar");
-        ukrainianMonths.put("квіт.", "Apr");
-        ukrainianMonths.put("трав.", "May");
-        ukrainianMonths.put("черв.", "Jun");
-        ukrainianMonths.put("лип.", "Jul");
-        ukrainianMonths.put("серп.", "Aug");
-        ukrainianMonths.put("вер.", "Sep");
-        ukrainianMonths.put("жовт.", "Oct");
-        ukrainianMonths.put("лист.", "Nov");
-        ukrainianMonths.put("груд.", "Dec");
-
-        // Try to parse relative dates first
-        if (dateStr.contains("day ago") || dateStr.contains("days ago")) {
-            int days = Integer.parseInt(dateStr.split("\\s+")[0]);
-            return LocalDate.now().minusDays(days);
-        }
-
-        // Replace Ukrainian month names with English ones
-        for (Map.Entry<String, String> entry : ukrainianMonths.entrySet()) {
-            if (dateStr.contains(entry.getKey())) {
-                dateStr = dateStr.replace(entry.getKey(), entry.getValue());
-                break;
-            }
-        }
-
-        // Try different date formats
-        DateTimeFormatter[] formatters = {
-                DateTimeFormatter.ofPattern("MMM dd, yyyy"),
-                DateTimeFormatter.ofPattern("MMM d, yyyy"),
-                DateTimeFormatter.ofPattern("yyyy-MM-dd"),
-                DateTimeFormatter.ofPattern("dd MMM yyyy")
-        };
-
-        for (DateTimeFormatter formatter : formatters) {
-            try {
-                return LocalDate.parse(dateStr, formatter);
-            } catch (Exception e) {
-                // Continue to next formatter
-            }
-        }
-
-        // If all parsing attempts fail, return current date
-        log.warn("Failed to parse date: {}, using current date", dateStr);
-        return LocalDate.now();
-    }
 }
@@ -0,0 +1,340 @@
+package dev.javajunior.techstars_jobs_scraper.component;
+
+import dev.javajunior.techstars_jobs_scraper.dto.FacetValue;
+import dev.javajunior.techstars_jobs_scraper.dto.JobFacets;
+import dev.javajunior.techstars_jobs_scraper.dto.JobFunctionRef;
+import dev.javajunior.techstars_jobs_scraper.dto.ParsedJob;
+import dev.javajunior.techstars_jobs_scraper.model.Job;
+import dev.javajunior.techstars_jobs_scraper.model.Organization;
+import dev.javajunior.techstars_jobs_scraper.repository.JobFacetRepository;
+import dev.javajunior.techstars_jobs_scraper.repository.JobRepository;
+import dev.javajunior.techstars_jobs_scraper.repository.JobSearchRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Write stage of the scraper. Parsed jobs are collected and written in batches, one short
+ * transaction per batch, so {@code jobs} and {@code job_tags} rows go out as JDBC batches and
+ * no connection is held while pages are fetched. Each batch moves the facet counts by what it
+ * changed, in the same transaction.
+ */
+@Component
+@Slf4j
+public class JobBatchWriter {
+
+    private final JobRepository jobRepository;
+    private final JobUrlIndex jobUrlIndex;
+    private final JobSearchRepository jobSearchRepository;
+    private final JobFacetRepository jobFacetRepository;
+    private final OrganizationResolver organizationResolver;
+    private final ScrapingMetrics scrapingMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.scraping.persist.batch-size:50}")
+    private int batchSize;
+
+    public JobBatchWriter(JobRepository jobRepository,
+                          JobUrlIndex jobUrlIndex,
+                          JobSearchRepository jobSearchRepository,
+                          JobFacetRepository jobFacetRepository,
+                          OrganizationResolver organizationResolver,
+                          ScrapingMetrics scrapingMetrics,
+                          ApplicationEventPublisher eventPublisher,
+                          PlatformTransactionManager transactionManager) {
+        this.jobRepository = jobRepository;
+        this.jobUrlIndex = jobUrlIndex;
+        this.jobSearchRepository = jobSearchRepository;
+        this.jobFacetRepository = jobFacetRepository;
+        this.organizationResolver = organizationResolver;
+        this.scrapingMetrics = scrapingMetrics;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Writes the jobs in batches of {@code batch-size} and returns the ones that were stored.
+     */
+    public List<Job> writeAll(Collection<Job> jobs) {
+        List<Job> saved = new ArrayList<>(jobs.size());
+        List<Job> batch = new ArrayList<>(Math.min(jobs.size(), batchSize));
+        for (Job job : jobs) {
+            batch.add(job);
+            if (batch.size() == batchSize) {
+                saved.addAll(writeBatch(batch));
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            saved.addAll(writeBatch(batch));
+        }
+        return saved;
+    }
+
+    /**
+     * Copies re-scraped content onto the stored jobs with the given ids, one transaction per
+     * batch, and reindexes them for search. Returns the number of jobs rewritten.
+     */
+    public int rewriteAll(Map<Long, Job> changes) {
+        List<Map.Entry<Long, Job>> entries = new ArrayList<>(changes.entrySet());
+        int rewritten = 0;
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            List<Map.Entry<Long, Job>> batch = entries.subList(from, Math.min(from + batchSize, entries.size()));
+            List<Long> ids = transactionTemplate.execute(status -> rewrite(batch, true));
+            rewritten += ids.size();
+            publish(ids);
+        }
+        return rewritten;
+    }
+
+    /**
+     * Like {@link #rewriteAll} for jobs re-parsed offline by {@link AsyncJobProcessor#parse}:
+     * organizations the parse did not find are created and logos found on the pages are stored
+     * first, and {@code last_seen_at} and {@code closed} are left alone, since the jobs were not
+     * seen on the board.
+     */
+    public int replaceContentAll(Map<Long, ParsedJob> changes) {
+        List<Map.Entry<Long, ParsedJob>> entries = new ArrayList<>(changes.entrySet());
+        int rewritten = 0;
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            List<Map.Entry<Long, Job>> batch = entries.subList(from, Math.min(from + batchSize, entries.size())).stream()
+                    .map(change -> Map.entry(change.getKey(), withOrganization(change.getValue())))
+                    .toList();
+            List<Long> ids = transactionTemplate.execute(status -> rewrite(batch, false));
+            rewritten += ids.size();
+            publish(ids);
+        }
+        return rewritten;
+    }
+
+    /**
+     * Adds the functions each stored job was listed under, keyed by job page URL, to its
+     * {@code job_functions} rows. URLs without a stored job are ignored. Returns the number of rows added.
+     */
+    public int recordFunctions(Map<String, ? extends Collection<String>> functionsByUrl) {
+        List<String> urls = new ArrayList<>(functionsByUrl.keySet());
+        int added = 0;
+        for (int from = 0; from < urls.size(); from += batchSize) {
+            List<String> batch = urls.subList(from, Math.min(from + batchSize, urls.size()));
+            try {
+                added += transactionTemplate.execute(status -> addMissingFunctions(batch, functionsByUrl));
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent scrape recorded the same function first
+                log.warn("Failed to record job functions for {} jobs: {}", batch.size(), e.getMessage());
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Removes {@code jobFunction} from the jobs with the given ids, which are no longer listed
+     * under it, and closes the ones no function lists any more. Returns the number of jobs closed.
+     */
+    public int delistAll(List<Long> ids, String jobFunction) {
+        int closed = 0;
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            closed += transactionTemplate.execute(status -> delist(batch, jobFunction));
+        }
+        return closed;
+    }
+
+    /**
+     * Opens a buffer that writes a batch each time {@code batch-size} jobs have been added.
+     * Stored jobs are reported to {@code onSaved}; call {@link Buffer#flush()} at the end.
+     */
+    public Buffer openBuffer(Consumer<Job> onSaved) {
+        return new Buffer(onSaved);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    private List<Job> writeBatch(List<Job> batch) {
+        try {
+            List<Job> saved = scrapingMetrics.timeJobPersist(() -> transactionTemplate.execute(status -> persist(batch)));
+            log.debug("Saved batch of {} jobs", batch.size());
+            return published(saved);
+        } catch (DataIntegrityViolationException e) {
+            // Usually a job stored by a concurrent scrape; find it by writing the batch row by row
+            log.warn("Batch of {} jobs hit a constraint violation, retrying one by one", batch.size());
+            List<Job> saved = new ArrayList<>(batch.size());
+            for (Job job : batch) {
+                // Undo what the rolled back persist left on the entity
+                job.setId(null);
+                job.setTags(new HashSet<>(job.getTags()));
+                job.setJobFunctions(new HashSet<>(job.getJobFunctions()));
+                try {
+                    saved.addAll(transactionTemplate.execute(status -> persist(List.of(job))));
+                } catch (DataIntegrityViolationException ex) {
+                    scrapingMetrics.duplicate();
+                    log.warn("Duplicate entry detected, skipping: {}", job.getJobPageUrl());
+                }
+            }
+            return published(saved);
+        }
+    }
+
+    private List<Job> published(List<Job> saved) {
+        publish(saved.stream().map(Job::getId).toList());
+        return saved;
+    }
+
+    // Called after the commit, so listeners read the new rows
+    private void publish(List<Long> ids) {
+        if (!ids.isEmpty()) {
+            eventPublisher.publishEvent(new JobsPersistedEvent(ids));
+        }
+    }
+
+    private List<Job> persist(List<Job> batch) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        List<Job> saved = jobRepository.saveAll(batch);
+        jobRepository.flush();
+        jobSearchRepository.index(saved.stream().map(Job::getId).toList());
+        Map<FacetValue, Long> facetDeltas = new HashMap<>();
+        saved.forEach(job -> count(facetDeltas, job, 1));
+        jobFacetRepository.apply(facetDeltas);
+        entityManager.clear();
+        saved.forEach(job -> jobUrlIndex.markKnown(job.getJobPageUrl()));
+        return saved;
+    }
+
+    private List<Long> rewrite(List<Map.Entry<Long, Job>> batch, boolean seen) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        Map<Long, Job> changes = new HashMap<>();
+        batch.forEach(change -> changes.put(change.getKey(), change.getValue()));
+        List<Long> ids = new ArrayList<>(batch.size());
+        Map<FacetValue, Long> facetDeltas = new HashMap<>();
+        for (Job stored : jobRepository.findAllById(changes.keySet())) {
+            Job fresh = changes.get(stored.getId());
+            count(facetDeltas, stored, -1);
+            stored.setPositionName(fresh.getPositionName());
+            stored.setOrganization(fresh.getOrganization());
+            stored.setLocation(fresh.getLocation());
+            stored.setDescription(fresh.getDescription());
+            stored.setTags(new HashSet<>(fresh.getTags()));
+            stored.setJobType(fresh.getJobType());
+            stored.setExperienceLevel(fresh.getExperienceLevel());
+            stored.setSalary(fresh.getSalary());
+            stored.setRemote(fresh.getRemote());
+            stored.setApplicationUrl(fresh.getApplicationUrl());
+            stored.setCardHash(fresh.getCardHash());
+            stored.setContentHash(fresh.getContentHash());
+            if (seen) {
+                stored.setLastSeenAt(System.currentTimeMillis());
+                stored.setClosed(false);
+            }
+            count(facetDeltas, stored, 1);
+            ids.add(stored.getId());
+        }
+        jobRepository.flush();
+        jobSearchRepository.index(ids);
+        jobFacetRepository.apply(facetDeltas);
+        entityManager.clear();
+        return ids;
+    }
+
+    // One job at a time, so each organization is created once
+    private Job withOrganization(ParsedJob parsed) {
+        Job job = parsed.job();
+        Organization organization = job.getOrganization();
+        if (organization.getId() == null) {
+            organization = organizationResolver.resolve(organization.getName(), organization.getUrl(),
+                    organization.getLogoUrl());
+            job.setOrganization(organization);
+        }
+        organizationResolver.updateLogoIfMissing(organization, parsed.organizationLogoUrl());
+        return job;
+    }
+
+    private int addMissingFunctions(List<String> urls, Map<String, ? extends Collection<String>> functionsByUrl) {
+        Map<String, Long> ids = new HashMap<>();
+        Map<Long, Set<String>> stored = new HashMap<>();
+        for (JobFunctionRef ref : jobRepository.findFunctionRefs(urls)) {
+            ids.put(ref.jobPageUrl(), ref.jobId());
+            Set<String> functions = stored.computeIfAbsent(ref.jobId(), id -> new HashSet<>());
+            if (ref.jobFunction() != null) {
+                functions.add(ref.jobFunction());
+            }
+        }
+        int added = 0;
+        Map<FacetValue, Long> facetDeltas = new HashMap<>();
+        for (Map.Entry<String, Long> job : ids.entrySet()) {
+            for (String function : functionsByUrl.get(job.getKey())) {
+                if (stored.get(job.getValue()).add(function)) {
+                    added += jobRepository.addFunction(job.getValue(), function);
+                    facetDeltas.merge(new FacetValue(JobFacets.LABOR_FUNCTION, function), 1L, Long::sum);
+                }
+            }
+        }
+        jobFacetRepository.apply(facetDeltas);
+        return added;
+    }
+
+    private int delist(List<Long> ids, String jobFunction) {
+        int removed = jobRepository.removeFunction(ids, jobFunction);
+        jobFacetRepository.apply(Map.of(new FacetValue(JobFacets.LABOR_FUNCTION, jobFunction), (long) -removed));
+        List<Long> unlisted = jobRepository.findOpenIdsWithoutFunctions(ids);
+        return unlisted.isEmpty() ? 0 : jobRepository.markClosed(unlisted);
+    }
+
+    private static void count(Map<FacetValue, Long> facetDeltas, Job job, long sign) {
+        FacetValue.of(job).forEach(value -> facetDeltas.merge(value, sign, Long::sum));
+    }
+
+    public class Buffer {
+        private final Consumer<Job> onSaved;
+        private List<Job> pending = new ArrayList<>();
+
+        private Buffer(Consumer<Job> onSaved) {
+            this.onSaved = onSaved;
+        }
+
+        public void add(Job job) {
+            List<Job> full = null;
+            synchronized (this) {
+                pending.add(job);
+                if (pending.size() >= batchSize) {
+                    full = pending;
+                    pending = new ArrayList<>(batchSize);
+                }
+            }
+            if (full != null) {
+                writeBatch(full).forEach(onSaved);
+            }
+        }
+
+        public void flush() {
+            List<Job> rest;
+            synchronized (this) {
+                rest = pending;
+                pending = new ArrayList<>();
+            }
+            if (!rest.isEmpty()) {
+                writeBatch(rest).forEach(onSaved);
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package dev.javajunior.techstars_jobs_scraper.component;
+
+import dev.javajunior.techstars_jobs_scraper.dto.JobCard;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+import org.springframework.stereotype.Component;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads job cards and their posted dates. Selectors, date formatters and the month table are
+ * compiled once, and a card is read in a single walk over its elements.
+ */
+@Component
+@Slf4j
+public class JobCardExtractor {
+
+    private static final String SITE_URL = "https://jobs.techstars.com";
+
+    private static final Evaluator ORGANIZATION_NAME = QueryParser.parse(".company-info, .company-name, [itemprop='hiringOrganization']");
+    private static final Evaluator ORGANIZATION_URL = QueryParser.parse("a[href*='company'], .company-link");
+    private static final Evaluator ORGANIZATION_LOGO = QueryParser.parse("img[src*='logo'], .company-logo");
+    private static final Evaluator JOB_URL = QueryParser.parse("a[href*='jobs'], a[href*='apply']");
+    private static final Evaluator POSITION_NAME = QueryParser.parse("[itemprop='title'], .job-title, h3");
+    private static final Evaluator LOCATION = QueryParser.parse("[itemprop='jobLocation'], .location");
+    private static final Evaluator POSTED_DATE = QueryParser.parse("[itemprop='datePosted'], .post-date");
+
+    // Without a company element the first link that does not read like a job title is the company
+    private static final List<String> TITLE_WORDS = List.of("engineer", "developer", "manager", "lead", "architect",
+            "designer", "analyst", "consultant", "specialist");
+
+    private static final DateTimeFormatter MONTH_FIRST = DateTimeFormatter.ofPattern("MMM d, yyyy", Locale.ENGLISH);
+    private static final DateTimeFormatter DAY_FIRST = DateTimeFormatter.ofPattern("d MMM yyyy", Locale.ENGLISH);
+
+    private static final Map<String, String> UKRAINIAN_MONTHS = Map.ofEntries(
+            Map.entry("січ.", "Jan"),
+            Map.entry("лют.", "Feb"),
+            Map.entry("бер.", "Mar"),
+            Map.entry("квіт.", "Apr"),
+            Map.entry("трав.", "May"),
+            Map.entry("черв.", "Jun"),
+            Map.entry("лип.", "Jul"),
+            Map.entry("серп.", "Aug"),
+            Map.entry("вер.", "Sep"),
+            Map.entry("жовт.", "Oct"),
+            Map.entry("лист.", "Nov"),
+            Map.entry("груд.", "Dec"));
+
+    public JobCard extract(Element jobElement) {
+        Element organizationName = null;
+        Element organizationUrl = null;
+        Element organizationLogo = null;
+        Element jobUrl = null;
+        Element positionName = null;
+        Element location = null;
+        Element postedDate = null;
+        List<Element> links = new ArrayList<>();
+
+        for (Element element : jobElement.getAllElements()) {
+            if (organizationName == null && ORGANIZATION_NAME.matches(jobElement, element)) {
+                organizationName = element;
+            }
+            if (organizationUrl == null && ORGANIZATION_URL.matches(jobElement, element)) {
+                organizationUrl = element;
+            }
+            if (organizationLogo == null && ORGANIZATION_LOGO.matches(jobElement, element)) {
+                organizationLogo = element;
+            }
+            if (jobUrl == null && JOB_URL.matches(jobElement, element)) {
+                jobUrl = element;
+            }
+            if (positionName == null && POSITION_NAME.matches(jobElement, element)) {
+                positionName = element;
+            }
+            if (location == null && LOCATION.matches(jobElement, element)) {
+                location = element;
+            }
+            if (postedDate == null && POSTED_DATE.matches(jobElement, element)) {
+                postedDate = element;
+            }
+            if (element.normalName().equals("a")) {
+                links.add(element);
+            }
+        }
+
+        if (organizationName == null) {
+            organizationName = links.stream().filter(JobCardExtractor::isNotJobTitle).findFirst().orElse(null);
+        }
+
+        String name = organizationName != null ? organizationName.text().trim() : "Unknown Company";
+        return new JobCard(
+                jobUrl != null ? absoluteUrl(jobUrl.attr("href")) : "",
+                positionName != null ? positionName.text() : "",
+                location != null ? location.text() : "Remote",
+                postedDate != null ? postedDate.text() : "",
+                name,
+                organizationUrlOf(organizationUrl, name),
+                organizationLogo != null ? organizationLogo.attr("src") : "");
+    }
+
+    /**
+     * Parses the date shown on a card, falling back to today when it cannot be read. Relative
+     * ("3 days ago") and ISO dates are handled without a formatter.
+     */
+    public LocalDate parsePostedDate(String text) {
+        if (StringUtils.isBlank(text)) {
+            return LocalDate.now();
+        }
+        String dateStr = text.trim();
+
+        if (dateStr.endsWith("day ago") || dateStr.endsWith("days ago")) {
+            int digits = 0;
+            while (digits < dateStr.length() && Character.isDigit(dateStr.charAt(digits))) {
+                digits++;
+            }
+            // "a day ago" has no number
+            int days = digits > 0 ? Integer.parseInt(dateStr.substring(0, digits)) : 1;
+            return LocalDate.now().minusDays(days);
+        }
+
+        try {
+            if (dateStr.length() == 10 && dateStr.charAt(4) == '-' && dateStr.charAt(7) == '-') {
+                return LocalDate.parse(dateStr);
+            }
+
+            if (!StringUtils.isAsciiPrintable(dateStr)) {
+                for (Map.Entry<String, String> entry : UKRAINIAN_MONTHS.entrySet()) {
+                    if (dateStr.contains(entry.getKey())) {
+                        dateStr = dateStr.replace(entry.getKey(), entry.getValue());
+                        break;
+                    }
+                }
+            }
+            return LocalDate.parse(dateStr, Character.isDigit(dateStr.charAt(0)) ? DAY_FIRST : MONTH_FIRST);
+        } catch (DateTimeParseException e) {
+            log.warn("Failed to parse date: {}, using current date", text);
+            return LocalDate.now();
+        }
+    }
+
+    private static boolean isNotJobTitle(Element link) {
+        String text = link.text().toLowerCase(Locale.ROOT);
+        for (String word : TITLE_WORDS) {
+            if (text.contains(word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String organizationUrlOf(Element organizationLink, String organizationName) {
+        if (organizationLink != null) {
+            String url = organizationLink.attr("href");
+            if (StringUtils.isNotBlank(url)) {
+                return absoluteUrl(url);
+            }
+        }
+        // Placeholder derived from the name, so the card hashes the same on every crawl
+        return SITE_URL + "/company/unknown_" + URLEncoder.encode(organizationName, StandardCharsets.UTF_8);
+    }
+
+    private static String absoluteUrl(String url) {
+        return url.startsWith("http") ? url : SITE_URL + url;
+    }
+}
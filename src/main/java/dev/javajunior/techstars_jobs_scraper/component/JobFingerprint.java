@@ -0,0 +1,62 @@
+package dev.javajunior.techstars_jobs_scraper.component;
+
+import dev.javajunior.techstars_jobs_scraper.dto.JobCard;
+import dev.javajunior.techstars_jobs_scraper.model.Job;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * Hashes that tell incremental scraping whether a listing card or a job's content changed
+ * since it was stored.
+ */
+public final class JobFingerprint {
+
+    private static final byte NULL_FIELD = 1;
+    private static final byte FIELD_END = 0;
+
+    private JobFingerprint() {
+    }
+
+    /**
+     * Hash of the card fields. The posted date is left out: cards show it relative to today
+     * ("3 days ago"), so it would change the hash every day.
+     */
+    public static String ofCard(JobCard card) {
+        return sha256(card.positionName(), card.location(), card.organizationName(), card.organizationUrl(),
+                card.organizationLogo());
+    }
+
+    /**
+     * Hash of the content a re-scrape can change. Tags are hashed in sorted order.
+     */
+    public static String ofContent(Job job) {
+        Set<String> tags = job.getTags();
+        String sortedTags = tags == null ? null : String.join("\u001F", tags.stream().sorted().toList());
+        return sha256(job.getPositionName(), job.getLocation(),
+                job.getOrganization() != null ? job.getOrganization().getName() : null,
+                job.getDescription(), job.getJobType(), job.getExperienceLevel(), job.getSalary(),
+                job.getRemote() != null ? job.getRemote().toString() : null, job.getApplicationUrl(), sortedTags);
+    }
+
+    private static String sha256(String... fields) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        for (String field : fields) {
+            if (field == null) {
+                digest.update(NULL_FIELD);
+            } else {
+                digest.update(field.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update(FIELD_END);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,159 @@
+package dev.javajunior.techstars_jobs_scraper.component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Serialized {@code GET /api/jobs} responses with a strong ETag each. Entries expire after
+ * {@code app.jobs-cache.ttl}, the least recently used go once {@code max-entries} is reached, and
+ * the whole cache is dropped whenever the ingest path commits jobs or changes an organization. A client that sends the ETag
+ * of a cached response gets a 304 without any query being run.
+ */
+@Component
+public class JobResponseCache {
+
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Bumped on every invalidation, so a response read before a write is not stored after it
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+
+    @Value("${app.jobs-cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.jobs-cache.max-entries:1000}")
+    private int maxEntries = 1000;
+
+    @Value("${app.jobs-cache.ttl:PT10M}")
+    private Duration ttl = Duration.ofMinutes(10);
+
+    public record Entry(byte[] body, String etag, long expiresAtNanos) {
+
+        /**
+         * True if the {@code If-None-Match} header lists this entry's ETag.
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            return Arrays.stream(ifNoneMatch.split(","))
+                    .map(String::trim)
+                    .anyMatch(tag -> tag.equals("*") || tag.equals(etag));
+        }
+    }
+
+    public JobResponseCache(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("api.jobs.cache.requests", hits, AtomicLong::get).tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("api.jobs.cache.requests", misses, AtomicLong::get).tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("api.jobs.cache.not.modified", notModified, AtomicLong::get)
+                .description("Requests answered with 304").register(meterRegistry);
+        Gauge.builder("api.jobs.cache.hit.ratio", this, JobResponseCache::hitRatio).register(meterRegistry);
+        Gauge.builder("api.jobs.cache.size", this, JobResponseCache::size).register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached response for {@code key}, or serializes one with {@code loader} and
+     * caches it. With the cache disabled every call loads.
+     */
+    public Entry get(Object key, Supplier<String> loader) {
+        if (enabled) {
+            Entry cached = lookup(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+        misses.incrementAndGet();
+
+        long loadedGeneration = generation.get();
+        byte[] body = loader.get().getBytes(StandardCharsets.UTF_8);
+        Entry entry = new Entry(body, etagOf(body), System.nanoTime() + ttl.toNanos());
+        if (enabled) {
+            store(key, entry, loadedGeneration);
+        }
+        return entry;
+    }
+
+    public void recordNotModified() {
+        notModified.incrementAndGet();
+    }
+
+    @EventListener
+    public void onJobsPersisted(JobsPersistedEvent event) {
+        invalidate();
+    }
+
+    // The organization's name, URL and logo are part of the cached rows
+    @EventListener
+    public void onOrganizationUpdated(OrganizationUpdatedEvent event) {
+        invalidate();
+    }
+
+    public synchronized void invalidate() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public double hitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    private synchronized Entry lookup(Object key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAtNanos() - System.nanoTime() <= 0) {
+            entries.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    private synchronized void store(Object key, Entry entry, long loadedGeneration) {
+        if (generation.get() != loadedGeneration) {
+            return;
+        }
+        entries.put(key, entry);
+        if (entries.size() > maxEntries) {
+            Map.Entry<Object, Entry> eldest = entries.entrySet().iterator().next();
+            entries.remove(eldest.getKey());
+        }
+    }
+
+    private static String etagOf(byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return "\"" + HexFormat.of().formatHex(digest.digest(body), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package dev.javajunior.techstars_jobs_scraper.component;
+
+import dev.javajunior.techstars_jobs_scraper.repository.JobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of job page URLs that are already stored, so listing pages can be
+ * de-duplicated without one database round trip per card.
+ */
+@Component
+@Slf4j
+public class JobUrlIndex {
+
+    private static final int CONFIRM_CHUNK_SIZE = 1000;
+
+    private final JobRepository jobRepository;
+    private final Set<String> knownUrls = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded;
+
+    @Value("${app.scraping.url-index.verify-hits:true}")
+    private boolean verifyHits;
+
+    public JobUrlIndex(JobRepository jobRepository) {
+        this.jobRepository = jobRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        knownUrls.addAll(jobRepository.findAllJobPageUrls());
+        loaded = true;
+        log.info("Loaded {} known job URLs in {} ms", knownUrls.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Returns the URLs that are not stored yet, preserving the input order.
+     * Index hits are confirmed against the database in chunked queries, so rows
+     * removed outside the application are picked up again.
+     */
+    public Set<String> filterUnknown(Collection<String> urls) {
+        Set<String> unknown = new LinkedHashSet<>(urls);
+        if (unknown.isEmpty()) {
+            return unknown;
+        }
+
+        // Until the index is loaded every URL is a candidate and the database decides
+        Set<String> hits = new HashSet<>();
+        for (String url : unknown) {
+            if (!loaded || knownUrls.contains(url)) {
+                hits.add(url);
+            }
+        }
+        if (hits.isEmpty()) {
+            return unknown;
+        }
+
+        Set<String> confirmed = (verifyHits || !loaded) ? confirm(hits) : hits;
+        for (String url : hits) {
+            if (confirmed.contains(url)) {
+                knownUrls.add(url);
+            } else {
+                knownUrls.remove(url);
+            }
+        }
+        unknown.removeAll(confirmed);
+        return unknown;
+    }
+
+    public boolean isKnown(String url) {
+        return knownUrls.contains(url);
+    }
+
+    /**
+     * Records a stored URL. Inside a transaction the URL only becomes known once it commits.
+     */
+    public void markKnown(String url) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    knownUrls.add(url);
+                }
+            });
+        } else {
+            knownUrls.add(url);
+        }
+    }
+
+    public int size() {
+        return knownUrls.size();
+    }
+
+    private Set<String> confirm(Set<String> hits) {
+        Set<String> confirmed = new HashSet<>();
+        List<String> chunk = new ArrayList<>(Math.min(hits.size(), CONFIRM_CHUNK_SIZE));
+        for (String url : hits) {
+            chunk.add(url);
+            if (chunk.size() == CONFIRM_CHUNK_SIZE) {
+                confirmed.addAll(jobRepository.findExistingJobUrls(new HashSet<>(chunk)));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            confirmed.addAll(jobRepository.findExistingJobUrls(new HashSet<>(chunk)));
+        }
+        return confirmed;
+    }
+}
@@ -0,0 +1,9 @@
+package dev.javajunior.techstars_jobs_scraper.component;
+
+import java.util.List;
+
+/**
+ * Published by {@link JobBatchWriter} once a batch of stored or rewritten jobs is committed.
+ */
+public record JobsPersistedEvent(List<Long> jobIds) {
+}
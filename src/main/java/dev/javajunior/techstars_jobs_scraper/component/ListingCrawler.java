@@ -0,0 +1,158 @@
+package dev.javajunior.techstars_jobs_scraper.component;
+
+import dev.javajunior.techstars_jobs_scraper.connector.JsoupWrapper;
+import dev.javajunior.techstars_jobs_scraper.exception.ScrapingException;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.nodes.Document;
+import org.jsoup.select.Elements;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Walks the result pages of a job function listing. At most {@code page-concurrency} pages
+ * are fetched ahead of the page being handled, and the next fetch only starts once the
+ * handler returns, so a slow consumer holds back the crawl instead of buffering pages.
+ */
+@Component
+@Slf4j
+public class ListingCrawler {
+
+    private final JsoupWrapper jsoupWrapper;
+    private final TaskExecutor taskExecutor;
+    private final ScrapingMetrics scrapingMetrics;
+    private final PageArchive pageArchive;
+
+    @Value("${app.scraping.base-url}")
+    private String baseUrl;
+
+    @Value("${app.scraping.crawl.max-pages:100}")
+    private int maxPages;
+
+    @Value("${app.scraping.crawl.page-concurrency:2}")
+    private int pageConcurrency;
+
+    public ListingCrawler(JsoupWrapper jsoupWrapper,
+                          @Qualifier("taskExecutor") TaskExecutor taskExecutor,
+                          ScrapingMetrics scrapingMetrics,
+                          PageArchive pageArchive) {
+        this.jsoupWrapper = jsoupWrapper;
+        this.taskExecutor = taskExecutor;
+        this.scrapingMetrics = scrapingMetrics;
+        this.pageArchive = pageArchive;
+    }
+
+    @FunctionalInterface
+    public interface PageHandler {
+        /**
+         * Handles the cards of one page, in page order. Returns {@code false} to stop the crawl.
+         */
+        boolean onPage(int pageNumber, Elements jobCards);
+    }
+
+    /**
+     * Outcome of a crawl. {@code complete} is set when the listing was read to its end, i.e. an
+     * empty page was reached or the handler stopped the crawl, not a failed fetch or the page limit.
+     */
+    public record Walk(int pages, boolean complete) {
+    }
+
+    /**
+     * Crawls pages until one comes back empty, the handler stops the crawl or {@code max-pages}
+     * is reached. Returns the number of pages handed to the handler.
+     */
+    public int crawl(String jobFunction, PageHandler handler) {
+        return walk(jobFunction, handler).pages();
+    }
+
+    /**
+     * Same as {@link #crawl} but also reports whether the whole listing was read.
+     */
+    public Walk walk(String jobFunction, PageHandler handler) {
+        Deque<CompletableFuture<Elements>> window = new ArrayDeque<>();
+        int nextPage = 1;
+        int handledPages = 0;
+        boolean complete = false;
+
+        try {
+            while (true) {
+                while (window.size() < pageConcurrency && nextPage <= maxPages) {
+                    window.add(fetchPage(jobFunction, nextPage++));
+                }
+                if (window.isEmpty()) {
+                    break;
+                }
+
+                int pageNumber = handledPages + 1;
+                Elements jobCards;
+                try {
+                    jobCards = window.poll().join();
+                } catch (CompletionException e) {
+                    scrapingMetrics.failure("listing", e.getCause());
+                    if (pageNumber == 1) {
+                        throw new ScrapingException("Failed to fetch listing: " + e.getCause().getMessage(), e.getCause());
+                    }
+                    log.warn("Stopping crawl of {} at page {}: {}", jobFunction, pageNumber, e.getCause().getMessage());
+                    break;
+                }
+
+                if (jobCards.isEmpty()) {
+                    log.debug("Page {} of {} has no job cards, crawl finished", pageNumber, jobFunction);
+                    complete = true;
+                    break;
+                }
+                handledPages++;
+                if (!handler.onPage(pageNumber, jobCards)) {
+                    complete = true;
+                    break;
+                }
+            }
+        } finally {
+            window.forEach(future -> future.cancel(true));
+        }
+
+        if (handledPages == maxPages) {
+            log.warn("Crawl of {} stopped at the {} page limit", jobFunction, maxPages);
+        }
+        return new Walk(handledPages, complete);
+    }
+
+    public String listingUrl(String jobFunction, int pageNumber) {
+        String url = baseUrl + "?q=" + jobFunction.replace(" ", "+");
+        return pageNumber > 1 ? url + "&page=" + pageNumber : url;
+    }
+
+    public static Elements selectJobCards(Document doc) {
+        Elements jobElements = doc.select("div[data-testid='job-card'], div.job-card, article.job-card");
+        if (jobElements.isEmpty()) {
+            // Try alternative selectors
+            jobElements = doc.select("div[class*='job-listing'], div[class*='job-item'], article[class*='job']");
+        }
+        return jobElements;
+    }
+
+    private CompletableFuture<Elements> fetchPage(String jobFunction, int pageNumber) {
+        String url = listingUrl(jobFunction, pageNumber);
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                log.debug("Fetching listing page {}: {}", pageNumber, url);
+                Document doc = scrapingMetrics.timeListingFetch(() -> jsoupWrapper.connect(url));
+                if (pageArchive.isEnabled()) {
+                    // The parsed page re-serialized; the raw listing body is not kept by connect
+                    pageArchive.store(PageArchive.LISTING, url, doc.outerHtml());
+                }
+                return selectJobCards(doc);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, taskExecutor);
+    }
+}
@@ -0,0 +1,185 @@
+package dev.javajunior.techstars_jobs_scraper.component;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.javajunior.techstars_jobs_scraper.dto.JobDetails;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Reads the job from the {@code __NEXT_DATA__} script of a detail page without building a DOM or
+ * a JSON tree. The script is located with a plain text scan and only the fields of the job object
+ * are read with Jackson's streaming parser; everything else is skipped.
+ */
+@Component
+@Slf4j
+public class NextDataExtractor {
+
+    private static final String[] SCRIPT_IDS = {"id=\"__NEXT_DATA__\"", "id='__NEXT_DATA__'", "id=__NEXT_DATA__"};
+    private static final String SCRIPT_END = "</script>";
+
+    private final JsonFactory jsonFactory;
+
+    public NextDataExtractor(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Returns the job of the page, or empty when the page has no {@code __NEXT_DATA__} script, the
+     * script holds no job or its JSON cannot be read.
+     */
+    public Optional<JobDetails> extract(String html) {
+        int idAt = -1;
+        for (String scriptId : SCRIPT_IDS) {
+            idAt = html.indexOf(scriptId);
+            if (idAt >= 0) {
+                break;
+            }
+        }
+        if (idAt < 0) {
+            log.debug("No __NEXT_DATA__ script found");
+            return Optional.empty();
+        }
+        int start = html.indexOf('>', idAt) + 1;
+        int end = html.indexOf(SCRIPT_END, start);
+        if (start == 0 || end < 0) {
+            return Optional.empty();
+        }
+
+        try (JsonParser parser = jsonFactory.createParser(html.substring(start, end))) {
+            return Optional.ofNullable(readRoot(parser));
+        } catch (IOException e) {
+            log.warn("Failed to parse JSON data: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    // Next.js pages keep the job under props.pageProps.job, older ones under initialState.jobs.currentJob
+    private JobDetails readRoot(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return null;
+        }
+        JobDetails fallback = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            if (name.equals("props")) {
+                JobDetails details = readAt(parser, "pageProps", "job");
+                if (details != null) {
+                    return details;
+                }
+            } else if (name.equals("initialState") && fallback == null) {
+                fallback = readAt(parser, "jobs", "currentJob");
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return fallback;
+    }
+
+    /**
+     * Descends through the named objects from the current object value and reads the job at the
+     * end of the path. Leaves the parser at the end of the current object.
+     */
+    private JobDetails readAt(JsonParser parser, String... path) throws IOException {
+        return readAt(parser, path, 0);
+    }
+
+    private JobDetails readAt(JsonParser parser, String[] path, int depth) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        if (depth == path.length) {
+            return readJob(parser);
+        }
+        JobDetails details = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            if (details == null && name.equals(path[depth])) {
+                details = readAt(parser, path, depth + 1);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return details;
+    }
+
+    private JobDetails readJob(JsonParser parser) throws IOException {
+        String description = "";
+        String jobType = "";
+        String experienceLevel = "";
+        String salary = "";
+        boolean remote = false;
+        String applicationUrl = "";
+        Set<String> tags = null;
+        String organizationLogoUrl = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (name) {
+                case "description" -> description = text(parser);
+                case "jobType" -> jobType = text(parser);
+                case "experienceLevel" -> experienceLevel = text(parser);
+                case "salary" -> salary = text(parser);
+                case "remote" -> remote = value == JsonToken.VALUE_TRUE
+                        || (value == JsonToken.VALUE_STRING && Boolean.parseBoolean(parser.getText().trim()))
+                        || (value.isNumeric() && parser.getValueAsInt() != 0);
+                case "applicationUrl" -> applicationUrl = text(parser);
+                case "tags" -> {
+                    if (value == JsonToken.START_ARRAY) {
+                        tags = new HashSet<>();
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            if (parser.currentToken().isScalarValue()) {
+                                tags.add(parser.getValueAsString(""));
+                            } else {
+                                parser.skipChildren();
+                            }
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                case "organization" -> organizationLogoUrl = readLogoUrl(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        return new JobDetails(description, jobType, experienceLevel, salary, remote, applicationUrl, tags,
+                organizationLogoUrl);
+    }
+
+    private String readLogoUrl(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        String logoUrl = "";
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            if (name.equals("logoUrl")) {
+                logoUrl = text(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return logoUrl;
+    }
+
+    private static String text(JsonParser parser) throws IOException {
+        if (parser.currentToken().isScalarValue()) {
+            return parser.getValueAsString("");
+        }
+        parser.skipChildren();
+        return "";
+    }
+}
@@ -0,0 +1,113 @@
+package dev.javajunior.techstars_jobs_scraper.component;
+
+import dev.javajunior.techstars_jobs_scraper.exception.ScrapingException;
+import dev.javajunior.techstars_jobs_scraper.model.Organization;
+import dev.javajunior.techstars_jobs_scraper.repository.OrganizationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves organizations once per process. Concurrent callers for the same company wait for
+ * a single lookup, and new rows are created with an insert that ignores conflicts, so other
+ * instances racing on the same company cannot trip the unique constraints either.
+ */
+@Component
+@Slf4j
+public class OrganizationResolver {
+
+    private final OrganizationRepository organizationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<String, CompletableFuture<Organization>> byName = new ConcurrentHashMap<>();
+    private final Map<String, Organization> byUrl = new ConcurrentHashMap<>();
+
+    public OrganizationResolver(OrganizationRepository organizationRepository, ApplicationEventPublisher eventPublisher) {
+        this.organizationRepository = organizationRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public Organization resolve(String name, String url, String logoUrl) {
+        Organization cached = byUrl.get(url);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<Organization> pending = new CompletableFuture<>();
+        CompletableFuture<Organization> existing = byName.putIfAbsent(name, pending);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw new ScrapingException("Failed to resolve organization " + name, e.getCause());
+            }
+        }
+
+        try {
+            Organization organization = load(name, url, logoUrl);
+            byUrl.put(organization.getUrl(), organization);
+            pending.complete(organization);
+            return organization;
+        } catch (RuntimeException e) {
+            // Let the next caller try again instead of caching the failure
+            byName.remove(name, pending);
+            pending.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Looks the organization up by name, then by URL, without creating it.
+     */
+    public Optional<Organization> find(String name, String url) {
+        Organization cached = byUrl.get(url);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return organizationRepository.findByName(name).or(() -> organizationRepository.findByUrl(url));
+    }
+
+    /**
+     * Stores the logo if the organization does not have one yet, and publishes an
+     * {@link OrganizationUpdatedEvent} when it did.
+     */
+    public void updateLogoIfMissing(Organization organization, String logoUrl) {
+        if (StringUtils.isBlank(logoUrl)) {
+            return;
+        }
+        boolean updated = false;
+        synchronized (organization) {
+            if (StringUtils.isBlank(organization.getLogoUrl())) {
+                organization.setLogoUrl(logoUrl);
+                organizationRepository.save(organization);
+                updated = true;
+            }
+        }
+        if (updated) {
+            eventPublisher.publishEvent(new OrganizationUpdatedEvent(organization.getId()));
+        }
+    }
+
+    public void clear() {
+        byName.clear();
+        byUrl.clear();
+    }
+
+    private Organization load(String name, String url, String logoUrl) {
+        return organizationRepository.findByName(name)
+                .orElseGet(() -> {
+                    if (organizationRepository.insertIfAbsent(name, url, logoUrl) > 0) {
+                        log.debug("Created organization {}", name);
+                    }
+                    return organizationRepository.findByName(name)
+                            .or(() -> organizationRepository.findByUrl(url))
+                            .orElseThrow(() -> new ScrapingException("Organization " + name + " could not be stored"));
+                });
+    }
+}
@@ -0,0 +1,8 @@
+package dev.javajunior.techstars_jobs_scraper.component;
+
+/**
+ * Published by {@link OrganizationResolver} when it changes a stored organization, whose fields
+ * are part of every listing row of its jobs.
+ */
+public record OrganizationUpdatedEvent(Long organizationId) {
+}
@@ -0,0 +1,132 @@
+package dev.javajunior.techstars_jobs_scraper.component;
+
+import dev.javajunior.techstars_jobs_scraper.dto.ArchivedPage;
+import dev.javajunior.techstars_jobs_scraper.repository.PageArchiveRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps every fetched page when {@code app.scraping.archive.enabled} is set, so extraction can be
+ * re-run later without the network. Bodies are gzipped into files named by the SHA-256 of the
+ * content, so a page that did not change between fetches is stored once; {@code page_archive}
+ * maps each URL and fetch time to its file. Unlike the HTTP cache, the archive is the only copy of
+ * the pages, so it lives under the user's home directory by default rather than the temp directory.
+ */
+@Component
+@Slf4j
+public class PageArchive {
+
+    public static final String LISTING = "LISTING";
+    public static final String DETAIL = "DETAIL";
+
+    private static final String BLOB_SUFFIX = ".html.gz";
+
+    private final PageArchiveRepository pageArchiveRepository;
+    private final boolean enabled;
+    private final Path directory;
+
+    public PageArchive(PageArchiveRepository pageArchiveRepository,
+                       @Value("${app.scraping.archive.enabled:false}") boolean enabled,
+                       @Value("${app.scraping.archive.directory:${user.home}/.techstars-jobs-scraper/page-archive}") Path directory) {
+        this.pageArchiveRepository = pageArchiveRepository;
+        this.enabled = enabled;
+        this.directory = directory;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Archives the page as fetched now. Failures are logged, a scrape never fails because of the archive.
+     */
+    public void store(String kind, String url, String content) {
+        if (!enabled) {
+            return;
+        }
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        String hash = sha256(bytes);
+        try {
+            Path blob = blobPath(hash);
+            if (!Files.exists(blob)) {
+                writeBlob(blob, bytes);
+            }
+            pageArchiveRepository.add(new ArchivedPage(url, kind, System.currentTimeMillis(), hash, bytes.length));
+        } catch (IOException | DataAccessException e) {
+            log.warn("Failed to archive {}: {}", url, e.getMessage());
+        }
+    }
+
+    /**
+     * The page as last fetched at or before {@code at}, if it was archived and its body is still there.
+     */
+    public Optional<String> find(String url, long at) throws IOException {
+        Optional<ArchivedPage> page = pageArchiveRepository.findAt(url, at);
+        if (page.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<String> content = read(page.get().contentHash());
+        if (content.isEmpty()) {
+            log.warn("Archived body of {} is missing from {}", url, directory);
+        }
+        return content;
+    }
+
+    /**
+     * The body with the given hash, empty when its file is gone, e.g. because the directory was
+     * cleared while {@code page_archive} kept its rows.
+     */
+    public Optional<String> read(String contentHash) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(blobPath(contentHash)))) {
+            return Optional.of(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    private void writeBlob(Path blob, byte[] bytes) throws IOException {
+        Files.createDirectories(blob.getParent());
+        Path tmp = Files.createTempFile(blob.getParent(), blob.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp))) {
+                out.write(bytes);
+            }
+            Files.move(tmp, blob, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Same content archived by another thread, identical by construction
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // Two-character fan-out keeps directories small
+    private Path blobPath(String hash) {
+        return directory.resolve(hash.substring(0, 2)).resolve(hash + BLOB_SUFFIX);
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package dev.javajunior.techstars_jobs_scraper.component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.jsoup.HttpStatusException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers for the stages a job passes through and counters for what is skipped or lost, so the
+ * stage that limits throughput shows up under {@code /actuator/metrics} and
+ * {@code /actuator/prometheus}. Histogram buckets are switched on in configuration.
+ */
+@Component
+public class ScrapingMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Timer listingFetch;
+    private final Timer detailFetch;
+    private final Timer nextDataParse;
+    private final Timer htmlParse;
+    private final Timer organizationResolve;
+    private final Timer jobPersist;
+    private final Counter cardsSkipped;
+    private final Counter duplicates;
+
+    @FunctionalInterface
+    public interface Stage<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    public ScrapingMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.listingFetch = stageTimer("listing.fetch", "Download of one listing page");
+        this.detailFetch = stageTimer("detail.fetch", "Download of one job detail page");
+        this.nextDataParse = Timer.builder("scraper.stage.parse").tag("source", "next-data")
+                .description("Parse of the __NEXT_DATA__ JSON of a detail page").register(meterRegistry);
+        this.htmlParse = Timer.builder("scraper.stage.parse").tag("source", "html")
+                .description("HTML fallback parse of a detail page").register(meterRegistry);
+        this.organizationResolve = stageTimer("organization.resolve", "Lookup or creation of the organization");
+        this.jobPersist = stageTimer("job.persist", "Write of one batch of jobs");
+        this.cardsSkipped = Counter.builder("scraper.cards.skipped")
+                .description("Cards dropped because the job is already stored").register(meterRegistry);
+        this.duplicates = Counter.builder("scraper.jobs.duplicates")
+                .description("Jobs rejected by the unique job page URL on write").register(meterRegistry);
+    }
+
+    public <T, E extends Exception> T timeListingFetch(Stage<T, E> stage) throws E {
+        return time(listingFetch, stage);
+    }
+
+    public <T, E extends Exception> T timeDetailFetch(Stage<T, E> stage) throws E {
+        return time(detailFetch, stage);
+    }
+
+    public <T, E extends Exception> T timeNextDataParse(Stage<T, E> stage) throws E {
+        return time(nextDataParse, stage);
+    }
+
+    public <T, E extends Exception> T timeHtmlParse(Stage<T, E> stage) throws E {
+        return time(htmlParse, stage);
+    }
+
+    public <T, E extends Exception> T timeOrganizationResolve(Stage<T, E> stage) throws E {
+        return time(organizationResolve, stage);
+    }
+
+    public <T, E extends Exception> T timeJobPersist(Stage<T, E> stage) throws E {
+        return time(jobPersist, stage);
+    }
+
+    public void cardsSkipped(int count) {
+        cardsSkipped.increment(count);
+    }
+
+    public void duplicate() {
+        duplicates.increment();
+    }
+
+    /**
+     * Counts a job or page lost at {@code stage}. The cause is the HTTP status for HTTP errors
+     * and the exception class otherwise.
+     */
+    public void failure(String stage, Throwable cause) {
+        failure(stage, cause instanceof HttpStatusException http ? "http_" + http.getStatusCode()
+                : cause.getClass().getSimpleName());
+    }
+
+    public void failure(String stage, String cause) {
+        meterRegistry.counter("scraper.failures", "stage", stage, "cause", cause).increment();
+    }
+
+    private Timer stageTimer(String stage, String description) {
+        return Timer.builder("scraper.stage." + stage).description(description).register(meterRegistry);
+    }
+
+    private static <T, E extends Exception> T time(Timer timer, Stage<T, E> stage) throws E {
+        long start = System.nanoTime();
+        try {
+            return stage.run();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package dev.javajunior.techstars_jobs_scraper.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -12,8 +13,27 @@ public class AsyncConfig {
     @Value("${app.scraping.thread-pool-size:5}")
     private int threadPoolSize;
 
+    /**
+     * {@code platform} uses a fixed thread pool, {@code virtual} starts one virtual thread per
+     * task and leaves concurrency to the per-host limit in the connector.
+     */
+    @Value("${app.scraping.executor.mode:platform}")
+    private String executorMode;
+
+    @Value("${app.scraping.runs.max-concurrent:2}")
+    private int maxConcurrentRuns;
+
+    @Value("${app.scraping.runs.queue-capacity:10}")
+    private int runQueueCapacity;
+
     @Bean
     public TaskExecutor taskExecutor() {
+        if ("virtual".equalsIgnoreCase(executorMode)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("JobScraper-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(threadPoolSize);
         executor.setMaxPoolSize(threadPoolSize);
@@ -22,4 +42,19 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
-} 
\ No newline at end of file
+
+    /**
+     * Drives background scrape runs. Kept apart from {@link #taskExecutor()} because a run
+     * blocks while its pages and cards are processed there.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor scrapeRunExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentRuns);
+        executor.setMaxPoolSize(maxConcurrentRuns);
+        executor.setQueueCapacity(runQueueCapacity);
+        executor.setThreadNamePrefix("ScrapeRun-");
+        executor.initialize();
+        return executor;
+    }
+}
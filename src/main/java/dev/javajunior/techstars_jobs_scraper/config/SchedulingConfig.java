@@ -0,0 +1,14 @@
+package dev.javajunior.techstars_jobs_scraper.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the scheduled tasks. Each one checks its own switch, so the refresh of
+ * {@code app.scraping.schedule.job-functions} ({@code app.scraping.schedule.enabled}) and the
+ * Google Sheets sync ({@code app.sheets.enabled}) are turned on independently.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
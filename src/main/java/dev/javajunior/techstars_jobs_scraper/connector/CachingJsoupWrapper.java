@@ -0,0 +1,284 @@
+package dev.javajunior.techstars_jobs_scraper.connector;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Connection;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Keeps response bodies on local disk and revalidates them with conditional GETs. A 304 answer
+ * is served from disk without downloading the body again. Entries are evicted least recently
+ * used first once the cache grows past {@code app.scraping.http-cache.max-size-mb}.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "app.scraping.http-cache.enabled", havingValue = "true")
+@Slf4j
+public class CachingJsoupWrapper implements JsoupWrapper {
+
+    private static final String BODY_SUFFIX = ".body";
+    private static final String META_SUFFIX = ".meta";
+
+    private final DefaultJsoupWrapper delegate;
+    private final Path directory;
+    private final long maxSizeBytes;
+
+    // Access-ordered, so iteration starts with the least recently used entry
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+
+    record CacheEntry(String url, String etag, String lastModified, String charset, long size) {
+    }
+
+    private record Body(byte[] content, String charset) {
+    }
+
+    public CachingJsoupWrapper(DefaultJsoupWrapper delegate,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.scraping.http-cache.directory:${java.io.tmpdir}/techstars-http-cache}") Path directory,
+                               @Value("${app.scraping.http-cache.max-size-mb:256}") long maxSizeMb) throws IOException {
+        this.delegate = delegate;
+        this.directory = directory;
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+        Files.createDirectories(directory);
+        loadEntries();
+
+        FunctionCounter.builder("scraper.http.cache.requests", hits, AtomicLong::get).tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("scraper.http.cache.requests", misses, AtomicLong::get).tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("scraper.http.cache.revalidations", revalidations, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("scraper.http.cache.bytes.saved", bytesSaved, AtomicLong::get).baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("scraper.http.cache.size", this, CachingJsoupWrapper::sizeBytes).baseUnit("bytes").register(meterRegistry);
+    }
+
+    @Override
+    public Document connect(String url) throws IOException {
+        Body body = load(url);
+        return Jsoup.parse(new ByteArrayInputStream(body.content()), body.charset(), url);
+    }
+
+    @Override
+    public String fetch(String url) throws IOException {
+        Body body = load(url);
+        Charset charset = body.charset() != null ? Charset.forName(body.charset()) : StandardCharsets.UTF_8;
+        return new String(body.content(), charset);
+    }
+
+    private Body load(String url) throws IOException {
+        String key = keyOf(url);
+        CacheEntry cached = get(key);
+
+        Map<String, String> headers = new HashMap<>();
+        if (cached != null) {
+            if (cached.etag() != null) {
+                headers.put("If-None-Match", cached.etag());
+            }
+            if (cached.lastModified() != null) {
+                headers.put("If-Modified-Since", cached.lastModified());
+            }
+            revalidations.incrementAndGet();
+        }
+
+        Connection.Response response = delegate.execute(url, headers);
+        if (cached != null && response.statusCode() == 304) {
+            try {
+                byte[] content = Files.readAllBytes(bodyPath(key));
+                hits.incrementAndGet();
+                bytesSaved.addAndGet(cached.size());
+                return new Body(content, cached.charset());
+            } catch (IOException e) {
+                log.warn("Cached body for {} is unreadable, fetching it again", url);
+                remove(key);
+                return load(url);
+            }
+        }
+
+        misses.incrementAndGet();
+        DefaultJsoupWrapper.requireSuccess(response, url);
+        byte[] body = response.bodyAsBytes();
+        String etag = response.header("ETag");
+        String lastModified = response.header("Last-Modified");
+        if (response.statusCode() == 200 && (etag != null || lastModified != null)) {
+            store(key, new CacheEntry(url, etag, lastModified, response.charset(), body.length), body);
+        }
+        return new Body(body, response.charset());
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    public long revalidationCount() {
+        return revalidations.get();
+    }
+
+    public synchronized long sizeBytes() {
+        return totalBytes;
+    }
+
+    private synchronized CacheEntry get(String key) {
+        return entries.get(key);
+    }
+
+    private void store(String key, CacheEntry entry, byte[] body) {
+        try {
+            writeAtomically(bodyPath(key), body);
+            Properties meta = new Properties();
+            meta.setProperty("url", entry.url());
+            putIfNotNull(meta, "etag", entry.etag());
+            putIfNotNull(meta, "lastModified", entry.lastModified());
+            putIfNotNull(meta, "charset", entry.charset());
+            meta.setProperty("size", String.valueOf(entry.size()));
+            Path metaTmp = Files.createTempFile(directory, key, ".tmp");
+            try (OutputStream out = Files.newOutputStream(metaTmp)) {
+                meta.store(out, null);
+            }
+            Files.move(metaTmp, metaPath(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to cache response for {}: {}", entry.url(), e.getMessage());
+            return;
+        }
+
+        List<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            CacheEntry previous = entries.put(key, entry);
+            totalBytes += entry.size() - (previous != null ? previous.size() : 0);
+            Iterator<Map.Entry<String, CacheEntry>> eldest = entries.entrySet().iterator();
+            while (totalBytes > maxSizeBytes && eldest.hasNext()) {
+                Map.Entry<String, CacheEntry> candidate = eldest.next();
+                if (candidate.getKey().equals(key)) {
+                    continue;
+                }
+                totalBytes -= candidate.getValue().size();
+                evicted.add(candidate.getKey());
+                eldest.remove();
+            }
+        }
+        evicted.forEach(this::deleteFiles);
+    }
+
+    private void remove(String key) {
+        synchronized (this) {
+            CacheEntry removed = entries.remove(key);
+            if (removed != null) {
+                totalBytes -= removed.size();
+            }
+        }
+        deleteFiles(key);
+    }
+
+    private void loadEntries() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.getFileName().toString().endsWith(META_SUFFIX))
+                    .sorted(Comparator.comparingLong(this::lastModifiedMillis))
+                    .forEach(this::loadEntry);
+        }
+        log.info("HTTP cache in {} holds {} entries ({} bytes)", directory, entries.size(), totalBytes);
+    }
+
+    private void loadEntry(Path metaPath) {
+        String fileName = metaPath.getFileName().toString();
+        String key = fileName.substring(0, fileName.length() - META_SUFFIX.length());
+        Properties meta = new Properties();
+        try (InputStream in = Files.newInputStream(metaPath)) {
+            meta.load(in);
+            if (!Files.exists(bodyPath(key))) {
+                Files.deleteIfExists(metaPath);
+                return;
+            }
+            CacheEntry entry = new CacheEntry(meta.getProperty("url"), meta.getProperty("etag"),
+                    meta.getProperty("lastModified"), meta.getProperty("charset"),
+                    Long.parseLong(meta.getProperty("size", "0")));
+            entries.put(key, entry);
+            totalBytes += entry.size();
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Dropping unreadable cache entry {}", metaPath);
+            deleteFiles(key);
+        }
+    }
+
+    private void writeAtomically(Path target, byte[] content) throws IOException {
+        Path tmp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        Files.write(tmp, content);
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void deleteFiles(String key) {
+        try {
+            Files.deleteIfExists(metaPath(key));
+            Files.deleteIfExists(bodyPath(key));
+        } catch (IOException e) {
+            log.warn("Failed to delete cache entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    private long lastModifiedMillis(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path bodyPath(String key) {
+        return directory.resolve(key + BODY_SUFFIX);
+    }
+
+    private Path metaPath(String key) {
+        return directory.resolve(key + META_SUFFIX);
+    }
+
+    private static void putIfNotNull(Properties properties, String name, String value) {
+        if (value != null) {
+            properties.setProperty(name, value);
+        }
+    }
+
+    private static String keyOf(String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(url.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,16 +1,118 @@
 package dev.javajunior.techstars_jobs_scraper.connector;
 
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Connection;
+import org.jsoup.HttpStatusException;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Requests go through the {@link HostConcurrencyLimiter}. A 429, a 5xx or a failed connection
+ * is retried up to {@code max-attempts} times with jittered exponential backoff; a
+ * {@code Retry-After} header replaces the backoff and pauses the whole host.
+ */
 @Service
+@Slf4j
 public class DefaultJsoupWrapper implements JsoupWrapper {
 
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(429, 500, 502, 503, 504);
+    private static final Set<Integer> THROTTLING_STATUSES = Set.of(429, 503, 504);
+
+    private final HostConcurrencyLimiter hostConcurrencyLimiter;
+
+    @Value("${app.scraping.retry.max-attempts:4}")
+    private int maxAttempts = 4;
+
+    @Value("${app.scraping.retry.initial-backoff:PT0.5S}")
+    private Duration initialBackoff = Duration.ofMillis(500);
+
+    @Value("${app.scraping.retry.max-backoff:PT30S}")
+    private Duration maxBackoff = Duration.ofSeconds(30);
+
+    // A longer Retry-After is not waited for, the request fails instead
+    @Value("${app.scraping.retry.max-retry-after:PT2M}")
+    private Duration maxRetryAfter = Duration.ofMinutes(2);
+
+    public DefaultJsoupWrapper(HostConcurrencyLimiter hostConcurrencyLimiter) {
+        this.hostConcurrencyLimiter = hostConcurrencyLimiter;
+    }
+
     @Override
     public Document connect(String url) throws IOException {
+        return requireSuccess(execute(url, Map.of()), url).parse();
+    }
+
+    @Override
+    public String fetch(String url) throws IOException {
+        return requireSuccess(execute(url, Map.of()), url).body();
+    }
+
+    /**
+     * Performs the request with the given extra headers and returns the raw response, with the
+     * body already downloaded. Retryable failures are retried; an HTTP error status that is
+     * left afterwards is returned rather than thrown.
+     */
+    public Connection.Response execute(String url, Map<String, String> headers) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            Connection.Response response;
+            try {
+                response = hostConcurrencyLimiter.execute(url, () -> request(url, headers),
+                        result -> THROTTLING_STATUSES.contains(result.statusCode()));
+            } catch (SocketTimeoutException | ConnectException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                Duration delay = backoff(attempt);
+                log.debug("Attempt {} for {} failed ({}), retrying in {} ms", attempt, url, e.getMessage(), delay.toMillis());
+                sleep(delay);
+                continue;
+            }
+
+            int status = response.statusCode();
+            if (!RETRYABLE_STATUSES.contains(status) || attempt >= maxAttempts) {
+                return response;
+            }
+            Duration retryAfter = parseRetryAfter(response.header("Retry-After"));
+            if (retryAfter == null) {
+                Duration delay = backoff(attempt);
+                log.debug("Attempt {} for {} answered {}, retrying in {} ms", attempt, url, status, delay.toMillis());
+                sleep(delay);
+            } else if (retryAfter.compareTo(maxRetryAfter) <= 0) {
+                // The next attempt waits in the limiter, together with every other request to the host
+                log.debug("Attempt {} for {} answered {}, host paused for {} ms", attempt, url, status, retryAfter.toMillis());
+                hostConcurrencyLimiter.pause(url, retryAfter);
+            } else {
+                log.warn("{} asked to retry after {} s, giving up", url, retryAfter.toSeconds());
+                return response;
+            }
+        }
+    }
+
+    /**
+     * Throws for an HTTP error status, so an error page is never parsed as a listing or a job.
+     */
+    static Connection.Response requireSuccess(Connection.Response response, String url) throws HttpStatusException {
+        if (response.statusCode() >= 400) {
+            throw new HttpStatusException("HTTP error fetching URL", response.statusCode(), url);
+        }
+        return response;
+    }
+
+    private Connection.Response request(String url, Map<String, String> headers) throws IOException {
         return Jsoup.connect(url)
                 .timeout(10000)
                 .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/91.0.4472.124 Safari/537.36")
@@ -19,8 +121,43 @@ public class DefaultJsoupWrapper implements JsoupWrapper {
                 .header("Accept-Language", "en-US,en;q=0.9,uk;q=0.8")
                 .header("Connection", "keep-alive")
                 .header("DNT", "1")
+                .headers(headers)
                 .referrer("https://www.google.com/")
                 .ignoreHttpErrors(true)
-                .get();
+                .execute()
+                .bufferUp();
+    }
+
+    // Full jitter: a random delay up to the exponential bound, so retrying clients spread out
+    private Duration backoff(int attempt) {
+        long bound = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempt - 1, 20));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(bound + 1));
+    }
+
+    static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(trimmed)));
+        } catch (NumberFormatException e) {
+            try {
+                Duration until = Duration.between(ZonedDateTime.now(),
+                        ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME));
+                return until.isNegative() ? Duration.ZERO : until;
+            } catch (DateTimeParseException ex) {
+                return null;
+            }
+        }
+    }
+
+    private static void sleep(Duration delay) throws InterruptedIOException {
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while backing off");
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,141 @@
+package dev.javajunior.techstars_jobs_scraper.connector;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleCredential;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.services.sheets.v4.Sheets;
+import com.google.api.services.sheets.v4.SheetsScopes;
+import com.google.api.services.sheets.v4.model.AppendValuesResponse;
+import com.google.api.services.sheets.v4.model.ValueRange;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Appends rows to a Google Sheet through the Sheets REST API. Quota errors (a 429 or a 403
+ * with a rate limit reason), 5xx answers and failed connections are retried up to
+ * {@code max-attempts} times with jittered exponential backoff.
+ */
+@Component
+@Slf4j
+public class GoogleSheetsClient {
+
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(429, 500, 502, 503, 504);
+    private static final Set<String> RATE_LIMIT_REASONS = Set.of("rateLimitExceeded", "userRateLimitExceeded");
+
+    // Points at a local stub of the API in tests
+    @Value("${app.sheets.root-url:https://sheets.googleapis.com/}")
+    private String rootUrl;
+
+    // Service account key; requests are sent without credentials when unset
+    @Value("${app.sheets.credentials-file:}")
+    private String credentialsFile;
+
+    @Value("${app.sheets.retry.max-attempts:6}")
+    private int maxAttempts = 6;
+
+    @Value("${app.sheets.retry.initial-backoff:PT1S}")
+    private Duration initialBackoff = Duration.ofSeconds(1);
+
+    @Value("${app.sheets.retry.max-backoff:PT64S}")
+    private Duration maxBackoff = Duration.ofSeconds(64);
+
+    private volatile Sheets sheets;
+
+    /**
+     * Appends the rows after the last row of the table in {@code range}, in one request.
+     * Returns the number of rows the API reports as appended.
+     */
+    public int append(String spreadsheetId, String range, List<List<Object>> rows) throws IOException {
+        ValueRange body = new ValueRange().setValues(rows);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                AppendValuesResponse response = sheets().spreadsheets().values()
+                        .append(spreadsheetId, range, body)
+                        .setValueInputOption("RAW")
+                        .setInsertDataOption("INSERT_ROWS")
+                        .execute();
+                return response.getUpdates() != null && response.getUpdates().getUpdatedRows() != null
+                        ? response.getUpdates().getUpdatedRows() : rows.size();
+            } catch (GoogleJsonResponseException e) {
+                if (!isRetryable(e) || attempt >= maxAttempts) {
+                    throw e;
+                }
+                Duration delay = backoff(attempt);
+                log.debug("Append to {} answered {}, retrying in {} ms", spreadsheetId, e.getStatusCode(), delay.toMillis());
+                sleep(delay);
+            } catch (SocketTimeoutException | ConnectException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                Duration delay = backoff(attempt);
+                log.debug("Append to {} failed ({}), retrying in {} ms", spreadsheetId, e.getMessage(), delay.toMillis());
+                sleep(delay);
+            }
+        }
+    }
+
+    static boolean isRetryable(GoogleJsonResponseException e) {
+        if (RETRYABLE_STATUSES.contains(e.getStatusCode())) {
+            return true;
+        }
+        GoogleJsonError details = e.getDetails();
+        return e.getStatusCode() == 403 && details != null && details.getErrors() != null
+                && details.getErrors().stream().anyMatch(error -> RATE_LIMIT_REASONS.contains(error.getReason()));
+    }
+
+    private Sheets sheets() throws IOException {
+        Sheets client = sheets;
+        if (client == null) {
+            synchronized (this) {
+                if (sheets == null) {
+                    sheets = new Sheets.Builder(new NetHttpTransport(), GsonFactory.getDefaultInstance(), credentials())
+                            .setRootUrl(rootUrl)
+                            .setApplicationName("techstars-jobs-scraper")
+                            .build();
+                }
+                client = sheets;
+            }
+        }
+        return client;
+    }
+
+    @SuppressWarnings("deprecation")
+    private HttpRequestInitializer credentials() throws IOException {
+        if (credentialsFile.isBlank()) {
+            return null;
+        }
+        try (InputStream in = new FileInputStream(credentialsFile)) {
+            return GoogleCredential.fromStream(in).createScoped(List.of(SheetsScopes.SPREADSHEETS));
+        }
+    }
+
+    // Full jitter, as Google recommends for its quota errors
+    private Duration backoff(int attempt) {
+        long bound = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempt - 1, 20));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(bound + 1));
+    }
+
+    private static void sleep(Duration delay) throws InterruptedIOException {
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while backing off");
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package dev.javajunior.techstars_jobs_scraper.connector;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Caps the number of concurrent requests per host, independently of how many threads
+ * the executor runs. The cap adapts AIMD-style: an answer that is not much slower than the
+ * fastest one seen raises it by 1/limit, so by about one per round of requests, a clearly
+ * slower answer trims it by 10%, and a throttling answer or a timeout halves it. It stays
+ * between 1 and {@code max-requests-per-host}.
+ */
+@Component
+public class HostConcurrencyLimiter {
+
+    private static final double SLOW_DECREASE = 0.9;
+    private static final double THROTTLED_DECREASE = 0.5;
+    // Differences below this are noise, not load
+    private static final long MIN_SLOWDOWN_NANOS = 5_000_000;
+
+    private final Map<String, HostLimit> limitsByHost = new ConcurrentHashMap<>();
+
+    @Value("${app.scraping.max-requests-per-host:8}")
+    private int maxRequestsPerHost = 8;
+
+    @Value("${app.scraping.rate-limit.initial-requests-per-host:4}")
+    private int initialRequestsPerHost = 4;
+
+    // An answer slower than this multiple of the fastest one counts as a sign of load
+    @Value("${app.scraping.rate-limit.latency-tolerance:2.0}")
+    private double latencyTolerance = 2.0;
+
+    @FunctionalInterface
+    public interface Request<T> {
+        T execute() throws IOException;
+    }
+
+    private enum Outcome {
+        SUCCESS,
+        THROTTLED,
+        ERROR
+    }
+
+    public <T> T execute(String url, Request<T> request) throws IOException {
+        return execute(url, request, result -> false);
+    }
+
+    /**
+     * Runs the request once a slot for its host is free. Results matching {@code throttled}
+     * (e.g. a 429) shrink the host's limit; other results feed their latency into it.
+     */
+    public <T> T execute(String url, Request<T> request, Predicate<T> throttled) throws IOException {
+        HostLimit hostLimit = limitsByHost.computeIfAbsent(hostOf(url), host -> new HostLimit());
+        try {
+            hostLimit.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a connection slot to " + url);
+        }
+
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.ERROR;
+        try {
+            T result = request.execute();
+            outcome = throttled.test(result) ? Outcome.THROTTLED : Outcome.SUCCESS;
+            return result;
+        } catch (SocketTimeoutException e) {
+            outcome = Outcome.THROTTLED;
+            throw e;
+        } finally {
+            hostLimit.release(outcome, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Holds back every new request to the host of {@code url} for the given time, e.g. for
+     * the duration of a {@code Retry-After} answer.
+     */
+    public void pause(String url, Duration duration) {
+        limitsByHost.computeIfAbsent(hostOf(url), host -> new HostLimit()).pause(duration);
+    }
+
+    public double currentLimit(String url) {
+        HostLimit hostLimit = limitsByHost.get(hostOf(url));
+        return hostLimit != null ? hostLimit.limit() : Math.min(initialRequestsPerHost, maxRequestsPerHost);
+    }
+
+    private String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host : "";
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    private final class HostLimit {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private double limit = Math.max(1, Math.min(initialRequestsPerHost, maxRequestsPerHost));
+        private int inFlight;
+        private long fastestNanos;
+        private long pausedUntilNanos = System.nanoTime();
+
+        private void acquire() throws InterruptedException {
+            lock.lockInterruptibly();
+            try {
+                while (true) {
+                    long pause = pausedUntilNanos - System.nanoTime();
+                    if (pause > 0) {
+                        changed.awaitNanos(pause);
+                    } else if (inFlight >= (int) limit) {
+                        changed.await();
+                    } else {
+                        break;
+                    }
+                }
+                inFlight++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void release(Outcome outcome, long latencyNanos) {
+            lock.lock();
+            try {
+                inFlight--;
+                if (outcome == Outcome.THROTTLED) {
+                    limit = Math.max(1, limit * THROTTLED_DECREASE);
+                } else if (outcome == Outcome.SUCCESS) {
+                    // The baseline creeps up slowly, so a host that got slower for good is re-learned
+                    fastestNanos = fastestNanos == 0 ? latencyNanos
+                            : Math.min(latencyNanos, fastestNanos + (fastestNanos >> 8));
+                    if (latencyNanos > fastestNanos * latencyTolerance
+                            && latencyNanos - fastestNanos > MIN_SLOWDOWN_NANOS) {
+                        limit = Math.max(1, limit * SLOW_DECREASE);
+                    } else {
+                        limit = Math.min(maxRequestsPerHost, limit + 1 / limit);
+                    }
+                }
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void pause(Duration duration) {
+            lock.lock();
+            try {
+                pausedUntilNanos = Math.max(pausedUntilNanos, System.nanoTime() + duration.toNanos());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private double limit() {
+            lock.lock();
+            try {
+                return limit;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
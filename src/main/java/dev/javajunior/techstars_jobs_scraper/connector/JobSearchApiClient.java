@@ -0,0 +1,86 @@
+package dev.javajunior.techstars_jobs_scraper.connector;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Client for the JSON search endpoint the job board is rendered from (a Getro collection). One
+ * request returns a page of jobs with their organizations, so no listing or detail HTML is needed.
+ */
+@Component
+public class JobSearchApiClient {
+
+    private final RestTemplate restTemplate;
+    private final HostConcurrencyLimiter hostConcurrencyLimiter;
+
+    @Value("${app.scraping.api.base-url:https://api.getro.com/api/v2}")
+    private String baseUrl;
+
+    @Value("${app.scraping.api.collection-id:}")
+    private String collectionId;
+
+    public JobSearchApiClient(RestTemplate restTemplate, HostConcurrencyLimiter hostConcurrencyLimiter) {
+        this.restTemplate = restTemplate;
+        this.hostConcurrencyLimiter = hostConcurrencyLimiter;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record SearchResponse(Results results) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Results(List<Hit> jobs, long count) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Hit(Long id,
+                      String title,
+                      String slug,
+                      String url,
+                      @JsonProperty("created_at") Long createdAt,
+                      List<String> locations,
+                      @JsonProperty("work_mode") String workMode,
+                      String seniority,
+                      @JsonProperty("employment_types") List<String> employmentTypes,
+                      List<String> skills,
+                      HitOrganization organization) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record HitOrganization(Long id,
+                                  String name,
+                                  String slug,
+                                  @JsonProperty("logo_url") String logoUrl,
+                                  String domain) {
+    }
+
+    /**
+     * Returns one page (zero based) of the jobs filed under {@code jobFunction}.
+     */
+    public Results search(String jobFunction, int page, int hitsPerPage) throws IOException {
+        if (collectionId.isBlank()) {
+            throw new IllegalStateException("app.scraping.api.collection-id is not set");
+        }
+        String url = baseUrl + "/collections/" + collectionId + "/search/jobs";
+        Map<String, Object> body = Map.of(
+                "hitsPerPage", hitsPerPage,
+                "page", page,
+                "query", "",
+                "filters", Map.of("job_functions", List.of(jobFunction)));
+
+        SearchResponse response = hostConcurrencyLimiter.execute(url,
+                () -> restTemplate.postForObject(url, body, SearchResponse.class));
+        if (response == null || response.results() == null) {
+            return new Results(List.of(), 0);
+        }
+        Results results = response.results();
+        return results.jobs() != null ? results : new Results(List.of(), results.count());
+    }
+}
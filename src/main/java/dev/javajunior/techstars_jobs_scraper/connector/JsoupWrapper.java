@@ -6,4 +6,9 @@ import java.io.IOException;
 
 public interface JsoupWrapper {
     Document connect(String url) throws IOException;
+
+    /**
+     * Returns the response body as text, for callers that scan the page without a DOM.
+     */
+    String fetch(String url) throws IOException;
 } 
\ No newline at end of file
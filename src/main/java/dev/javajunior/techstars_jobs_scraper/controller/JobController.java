@@ -1,114 +1,233 @@
 package dev.javajunior.techstars_jobs_scraper.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.javajunior.techstars_jobs_scraper.component.JobResponseCache;
+import dev.javajunior.techstars_jobs_scraper.dto.CursorPage;
+import dev.javajunior.techstars_jobs_scraper.dto.FacetFilter;
+import dev.javajunior.techstars_jobs_scraper.dto.JobCursor;
+import dev.javajunior.techstars_jobs_scraper.dto.JobFacets;
 import dev.javajunior.techstars_jobs_scraper.dto.JobFilter;
+import dev.javajunior.techstars_jobs_scraper.dto.JobListingRow;
 import dev.javajunior.techstars_jobs_scraper.dto.JobResponse;
-import dev.javajunior.techstars_jobs_scraper.model.Job;
+import dev.javajunior.techstars_jobs_scraper.dto.SheetsSyncResult;
+import dev.javajunior.techstars_jobs_scraper.export.JobCsvWriter;
+import dev.javajunior.techstars_jobs_scraper.export.JobParquetWriter;
 import dev.javajunior.techstars_jobs_scraper.service.JobService;
+import dev.javajunior.techstars_jobs_scraper.service.SheetsSyncService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
-import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/jobs")
 @RequiredArgsConstructor
 public class JobController {
+    private static final int CSV_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int MAX_FACET_SIZE = 100;
+
     private final JobService jobService;
+    private final JobResponseCache jobResponseCache;
+    private final ObjectMapper objectMapper;
+    private final SheetsSyncService sheetsSyncService;
 
+    /**
+     * Answers from {@link JobResponseCache} when it can; a request whose {@code If-None-Match}
+     * holds the ETag of the cached response gets a 304.
+     */
     @GetMapping
-    public ResponseEntity<Page<JobResponse>> getJobs(
+    public ResponseEntity<byte[]> getJobs(
             @RequestParam(required = false) String location,
             @RequestParam(required = false) String sortBy,
             @RequestParam(required = false) String sortDirection,
-            @PageableDefault(size = 10) Pageable pageable) {
-        
+            @PageableDefault(size = 10) Pageable pageable,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
         JobFilter filter = new JobFilter(location, sortBy, sortDirection);
-        Page<Job> jobsPage = jobService.getJobs(filter, pageable);
+        JobResponseCache.Entry response = jobResponseCache.get(new ListingKey(filter, pageable),
+                () -> serialize(listJobs(filter, pageable)));
+
+        if (response.matches(ifNoneMatch)) {
+            jobResponseCache.recordNotModified();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(response.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(response.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response.body());
+    }
+
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<JobResponse>> getJobsByCursor(
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        JobCursor after;
+        try {
+            after = cursor != null ? JobCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(jobService.getJobsAfter(location, after, size, includeTotal).map(JobResponse::fromRow));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Slice<JobResponse>> searchJobs(
+            @RequestParam("q") String query,
+            @PageableDefault(size = 10) Pageable pageable) {
+        if (query.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(jobService.searchJobs(query, pageable).map(JobResponse::fromRow));
+    }
+
+    /**
+     * Job counts per facet value for the jobs having every given value.
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<JobFacets> getFacets(
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String jobType,
+            @RequestParam(required = false) String experienceLevel,
+            @RequestParam(required = false) Boolean remote,
+            @RequestParam(required = false) String organization,
+            @RequestParam(required = false) String laborFunction,
+            @RequestParam(required = false) String tag,
+            @RequestParam(defaultValue = "10") int size) {
+        if (size < 1 || size > MAX_FACET_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        FacetFilter filter = new FacetFilter(location, jobType, experienceLevel, remote, organization, laborFunction, tag);
+        return ResponseEntity.ok(jobService.getFacets(filter, size));
+    }
+
+    private Page<JobResponse> listJobs(JobFilter filter, Pageable pageable) {
+        Page<JobListingRow> jobsPage = jobService.getJobs(filter, pageable);
         
         List<JobResponse> jobResponses = jobsPage.getContent().stream()
-                .map(JobResponse::fromJob)
+                .map(JobResponse::fromRow)
                 .collect(Collectors.toList());
         
-        Page<JobResponse> responsePage = new PageImpl<>(
+        return new PageImpl<>(
                 jobResponses,
                 pageable,
                 jobsPage.getTotalElements()
         );
-        
-        return ResponseEntity.ok(responsePage);
+    }
+
+    private String serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize jobs page", e);
+        }
+    }
+
+    private record ListingKey(JobFilter filter, Pageable pageable) {
     }
 
     @GetMapping("/export/csv")
-    public ResponseEntity<byte[]> exportJobsToCsv(
+    public ResponseEntity<StreamingResponseBody> exportJobsToCsv(
             @RequestParam(required = false) String location,
-            @RequestParam(defaultValue = "100") int limit) {
-        try {
-            List<Job> jobs = jobService.getJobsForExport(location, limit);
-            byte[] csvBytes = generateCsv(jobs);
-            
-            HttpHeaders headers = new HttpHeaders();
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = gzip ? new GZIPOutputStream(outputStream, CSV_BUFFER_SIZE) : outputStream;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), CSV_BUFFER_SIZE);
+            JobCsvWriter csvWriter = new JobCsvWriter(writer);
+
+            // Send the header right away so the client sees the first byte before the query runs
+            csvWriter.writeHeader();
+            writer.flush();
+            try {
+                jobService.streamJobsForExport(location, limit, csvWriter::writeRowUnchecked);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+            if (out instanceof GZIPOutputStream gzipOut) {
+                gzipOut.finish();
+            }
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        if (gzip) {
+            headers.setContentType(MediaType.parseMediaType("application/gzip"));
+            headers.setContentDispositionFormData("attachment", "techstars_jobs.csv.gz");
+        } else {
             headers.setContentType(MediaType.TEXT_PLAIN);
             headers.setContentDispositionFormData("attachment", "techstars_jobs.csv");
-            
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(csvBytes);
-        } catch (IOException e) {
-            return ResponseEntity.internalServerError().build();
         }
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
     }
 
-    private byte[] generateCsv(List<Job> jobs) throws IOException {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        OutputStreamWriter writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
-        
-        // Write CSV header
-        writer.write("Position Name,Organization,Location,Posted Date,Job Type,Experience Level,Remote,Application URL\n");
-        
-        // Write data rows
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        for (Job job : jobs) {
-            String postedDate = job.getPostedDate() != null 
-                ? LocalDateTime.ofInstant(Instant.ofEpochMilli(job.getPostedDate()), ZoneId.systemDefault()).format(formatter)
-                : "";
-            
-            writer.write(String.format("%s,%s,%s,%s,%s,%s,%s,%s\n",
-                escapeCsvField(job.getPositionName()),
-                escapeCsvField(job.getOrganization() != null ? job.getOrganization().getName() : ""),
-                escapeCsvField(job.getLocation()),
-                postedDate,
-                escapeCsvField(job.getJobType()),
-                escapeCsvField(job.getExperienceLevel()),
-                job.getRemote() != null ? job.getRemote() : "",
-                escapeCsvField(job.getApplicationUrl())
-            ));
-        }
-        
-        writer.flush();
-        return outputStream.toByteArray();
+    /**
+     * Same rows as the listings, organization and tags included, as a Parquet file. Row groups
+     * are written out as the cursor is read, so memory stays bounded whatever the {@code limit}.
+     */
+    @GetMapping("/export/parquet")
+    public ResponseEntity<StreamingResponseBody> exportJobsToParquet(
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) Integer limit) {
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream, CSV_BUFFER_SIZE);
+            try (JobParquetWriter parquetWriter = new JobParquetWriter(out)) {
+                jobService.streamListingsForExport(location, limit, parquetWriter::writeUnchecked);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentDispositionFormData("attachment", "techstars_jobs.parquet");
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
     }
 
-    private String escapeCsvField(String field) {
-        if (field == null) return "";
-        if (field.contains(",") || field.contains("\"") || field.contains("\n")) {
-            return "\"" + field.replace("\"", "\"\"") + "\"";
+    /**
+     * Appends the jobs stored since the last sync to the configured Google Sheet.
+     */
+    @PostMapping("/export/sheets")
+    public ResponseEntity<SheetsSyncResult> syncToSheets() {
+        try {
+            return ResponseEntity.ok(sheetsSyncService.sync());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
         }
-        return field;
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -1,23 +1,142 @@
 package dev.javajunior.techstars_jobs_scraper.controller;
 
+import dev.javajunior.techstars_jobs_scraper.component.PageArchive;
+import dev.javajunior.techstars_jobs_scraper.dto.CrawlResult;
+import dev.javajunior.techstars_jobs_scraper.dto.EnqueueResult;
+import dev.javajunior.techstars_jobs_scraper.dto.RefreshResult;
+import dev.javajunior.techstars_jobs_scraper.dto.ReplayResult;
+import dev.javajunior.techstars_jobs_scraper.dto.ScrapeQueueStats;
+import dev.javajunior.techstars_jobs_scraper.dto.ScrapeRunStatus;
+import dev.javajunior.techstars_jobs_scraper.exception.ScrapingException;
+import dev.javajunior.techstars_jobs_scraper.service.ArchiveReplayService;
+import dev.javajunior.techstars_jobs_scraper.service.IncrementalScrapeService;
 import dev.javajunior.techstars_jobs_scraper.service.JobScraperService;
+import dev.javajunior.techstars_jobs_scraper.service.ScrapeQueueService;
+import dev.javajunior.techstars_jobs_scraper.service.ScrapeRunService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/jobs")
 @RequiredArgsConstructor
 public class JobScraperController {
     private final JobScraperService jobScraperService;
+    private final IncrementalScrapeService incrementalScrapeService;
+    private final ScrapeRunService scrapeRunService;
+    private final ScrapeQueueService scrapeQueueService;
+    private final ArchiveReplayService archiveReplayService;
+    private final PageArchive pageArchive;
 
+    /**
+     * Starts a background run and answers 202 with its id; progress is read from
+     * {@code /scrape/{runId}} or streamed from {@code /scrape/{runId}/events}.
+     */
     @PostMapping("/scrape")
-    public ResponseEntity<String> scrapeJobs(@RequestParam String jobFunction) {
+    public ResponseEntity<ScrapeRunStatus> scrapeJobs(@RequestParam String jobFunction) {
+        try {
+            ScrapeRunStatus run = scrapeRunService.start(jobFunction);
+            return ResponseEntity.accepted().location(URI.create("/api/jobs/scrape/" + run.runId())).body(run);
+        } catch (ScrapingException e) {
+            return ResponseEntity.status(503).build();
+        }
+    }
+
+    @GetMapping("/scrape/{runId}")
+    public ResponseEntity<ScrapeRunStatus> getScrapeRun(@PathVariable String runId) {
+        return ResponseEntity.of(scrapeRunService.getStatus(runId));
+    }
+
+    @GetMapping(value = "/scrape/{runId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamScrapeRun(@PathVariable String runId) {
+        return ResponseEntity.of(scrapeRunService.subscribe(runId));
+    }
+
+    @DeleteMapping("/scrape/{runId}")
+    public ResponseEntity<ScrapeRunStatus> cancelScrapeRun(@PathVariable String runId) {
+        return scrapeRunService.cancel(runId)
+                .map(status -> ResponseEntity.accepted().body(status))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/crawl")
+    public ResponseEntity<CrawlResult> crawlJobs(@RequestParam String jobFunction) {
+        try {
+            return ResponseEntity.ok(jobScraperService.crawlJobsByFunction(jobFunction));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Crawls several functions in one go, e.g. {@code ?jobFunctions=Design,Data Science}. Jobs
+     * listed under more than one of them are fetched once.
+     */
+    @PostMapping("/crawl/batch")
+    public ResponseEntity<List<CrawlResult>> crawlJobFunctions(@RequestParam List<String> jobFunctions) {
+        try {
+            return ResponseEntity.ok(jobScraperService.crawlJobsByFunctions(jobFunctions));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Queues the new cards of the function in {@code scrape_tasks}; queue workers on any instance
+     * fetch and store them.
+     */
+    @PostMapping("/queue")
+    public ResponseEntity<EnqueueResult> enqueueJobs(@RequestParam String jobFunction) {
+        try {
+            return ResponseEntity.accepted().body(scrapeQueueService.enqueue(jobFunction));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping("/queue")
+    public ResponseEntity<ScrapeQueueStats> getQueueStats() {
+        return ResponseEntity.ok(scrapeQueueService.stats());
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<RefreshResult> refreshJobs(@RequestParam String jobFunction) {
         try {
-            jobScraperService.scrapeJobsByFunction(jobFunction);
-            return ResponseEntity.ok("Job scraping completed successfully");
+            return ResponseEntity.ok(incrementalScrapeService.refresh(jobFunction));
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Error during job scraping: " + e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * Re-extracts the stored jobs from the page archive, without fetching anything.
+     */
+    @PostMapping("/replay")
+    public ResponseEntity<ReplayResult> replayArchive() {
+        try {
+            return ResponseEntity.ok(archiveReplayService.replay());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).build();
+        }
+    }
+
+    /**
+     * The archived page as fetched at or before {@code at} (epoch millis), the latest by default.
+     */
+    @GetMapping(value = "/archive", produces = MediaType.TEXT_HTML_VALUE)
+    public ResponseEntity<String> getArchivedPage(@RequestParam String url, @RequestParam(required = false) Long at) {
+        try {
+            return ResponseEntity.of(pageArchive.find(url, at != null ? at : Long.MAX_VALUE));
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().build();
         }
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
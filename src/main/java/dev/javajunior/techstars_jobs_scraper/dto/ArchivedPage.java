@@ -0,0 +1,12 @@
+package dev.javajunior.techstars_jobs_scraper.dto;
+
+/**
+ * Index entry of the page archive: {@code url} as fetched at {@code fetchedAt}, stored in the
+ * blob named {@code contentHash}. {@code sizeBytes} is the uncompressed size.
+ */
+public record ArchivedPage(String url,
+                           String kind,
+                           long fetchedAt,
+                           String contentHash,
+                           int sizeBytes) {
+}
@@ -0,0 +1,11 @@
+package dev.javajunior.techstars_jobs_scraper.dto;
+
+public record CrawlResult(
+    String jobFunction,
+    int pagesProcessed,
+    int cardsFound,
+    int cardsSkipped,
+    int jobsSaved,
+    int jobsFailed
+) {
+}
@@ -0,0 +1,15 @@
+package dev.javajunior.techstars_jobs_scraper.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is {@code null} on the last page and
+ * {@code totalElements} is only set when the caller asked for it.
+ */
+public record CursorPage<T>(List<T> content, String nextCursor, Long totalElements) {
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorPage<>(content.stream().<R>map(mapper).toList(), nextCursor, totalElements);
+    }
+}
@@ -0,0 +1,9 @@
+package dev.javajunior.techstars_jobs_scraper.dto;
+
+public record EnqueueResult(
+    String jobFunction,
+    int pagesProcessed,
+    int cardsFound,
+    int tasksEnqueued
+) {
+}
@@ -0,0 +1,4 @@
+package dev.javajunior.techstars_jobs_scraper.dto;
+
+public record FacetCount(String value, long count) {
+}
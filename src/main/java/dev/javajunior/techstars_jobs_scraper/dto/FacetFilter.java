@@ -0,0 +1,21 @@
+package dev.javajunior.techstars_jobs_scraper.dto;
+
+import java.util.stream.Stream;
+
+/**
+ * Facet values the counted jobs must have; null fields do not filter.
+ */
+public record FacetFilter(
+    String location,
+    String jobType,
+    String experienceLevel,
+    Boolean remote,
+    String organization,
+    String laborFunction,
+    String tag
+) {
+    public boolean isEmpty() {
+        return Stream.of(location, jobType, experienceLevel, remote, organization, laborFunction, tag)
+                .allMatch(value -> value == null);
+    }
+}
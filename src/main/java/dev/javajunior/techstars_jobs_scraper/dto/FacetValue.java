@@ -0,0 +1,40 @@
+package dev.javajunior.techstars_jobs_scraper.dto;
+
+import dev.javajunior.techstars_jobs_scraper.model.Job;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * One row of {@code job_facet_counts}. {@link #TOTAL} counts every job.
+ */
+public record FacetValue(String facet, String value) {
+
+    public static final FacetValue TOTAL = new FacetValue("total", "");
+
+    public static final Comparator<FacetValue> ORDER = Comparator.comparing(FacetValue::facet)
+            .thenComparing(FacetValue::value);
+
+    /**
+     * Every facet value the job counts towards, {@link #TOTAL} included. Unset fields count towards none.
+     */
+    public static List<FacetValue> of(Job job) {
+        List<FacetValue> values = new ArrayList<>();
+        values.add(TOTAL);
+        add(values, JobFacets.LOCATION, job.getLocation());
+        add(values, JobFacets.JOB_TYPE, job.getJobType());
+        add(values, JobFacets.EXPERIENCE_LEVEL, job.getExperienceLevel());
+        add(values, JobFacets.REMOTE, job.getRemote() != null ? job.getRemote().toString() : null);
+        add(values, JobFacets.ORGANIZATION, job.getOrganization() != null ? job.getOrganization().getName() : null);
+        job.getJobFunctions().forEach(function -> add(values, JobFacets.LABOR_FUNCTION, function));
+        job.getTags().forEach(tag -> add(values, JobFacets.TAG, tag));
+        return values;
+    }
+
+    private static void add(List<FacetValue> values, String facet, String value) {
+        if (value != null) {
+            values.add(new FacetValue(facet, value));
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package dev.javajunior.techstars_jobs_scraper.dto;
+
+/**
+ * Fields read from a job card on a listing page. {@code postedDate} is the raw text shown on the card.
+ */
+public record JobCard(String jobUrl,
+                      String positionName,
+                      String location,
+                      String postedDate,
+                      String organizationName,
+                      String organizationUrl,
+                      String organizationLogo) {
+}
@@ -0,0 +1,18 @@
+package dev.javajunior.techstars_jobs_scraper.dto;
+
+import java.util.Set;
+
+/**
+ * Job fields read from the {@code __NEXT_DATA__} block of a detail page. Text fields that are
+ * absent are empty strings; {@code tags} and {@code organizationLogoUrl} are {@code null} when the
+ * page has no such node.
+ */
+public record JobDetails(String description,
+                         String jobType,
+                         String experienceLevel,
+                         String salary,
+                         boolean remote,
+                         String applicationUrl,
+                         Set<String> tags,
+                         String organizationLogoUrl) {
+}
@@ -0,0 +1,13 @@
+package dev.javajunior.techstars_jobs_scraper.dto;
+
+public record JobExportRow(
+    String positionName,
+    String organizationName,
+    String location,
+    Long postedDate,
+    String jobType,
+    String experienceLevel,
+    Boolean remote,
+    String applicationUrl
+) {
+}
@@ -0,0 +1,21 @@
+package dev.javajunior.techstars_jobs_scraper.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Number of matching jobs, and per facet the values with the most jobs, most first.
+ */
+public record JobFacets(long total, Map<String, List<FacetCount>> facets) {
+
+    public static final String LOCATION = "location";
+    public static final String JOB_TYPE = "jobType";
+    public static final String EXPERIENCE_LEVEL = "experienceLevel";
+    public static final String REMOTE = "remote";
+    public static final String ORGANIZATION = "organization";
+    public static final String LABOR_FUNCTION = "laborFunction";
+    public static final String TAG = "tag";
+
+    public static final List<String> NAMES = List.of(LOCATION, JOB_TYPE, EXPERIENCE_LEVEL, REMOTE, ORGANIZATION,
+            LABOR_FUNCTION, TAG);
+}
@@ -0,0 +1,7 @@
+package dev.javajunior.techstars_jobs_scraper.dto;
+
+/**
+ * A function a stored job is listed under. {@code jobFunction} is null for a job without any.
+ */
+public record JobFunctionRef(Long jobId, String jobPageUrl, String jobFunction) {
+}
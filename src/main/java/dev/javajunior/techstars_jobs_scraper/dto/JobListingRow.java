@@ -0,0 +1,27 @@
+package dev.javajunior.techstars_jobs_scraper.dto;
+
+/**
+ * Columns shown in job listings, read in one statement with the organization joined and the tags
+ * and functions aggregated into {@code tags} and {@code laborFunctions}, separated by
+ * {@link #TAG_SEPARATOR}. The description is left out.
+ */
+public record JobListingRow(Long id,
+                            String positionName,
+                            String jobPageUrl,
+                            String organizationName,
+                            String organizationUrl,
+                            String organizationLogo,
+                            String laborFunction,
+                            String laborFunctions,
+                            String location,
+                            Long postedDate,
+                            String tags,
+                            String jobType,
+                            String experienceLevel,
+                            String salary,
+                            Boolean remote,
+                            String applicationUrl) {
+
+    // ASCII unit separator, which never shows up in scraped tags
+    public static final String TAG_SEPARATOR = "\u001F";
+}
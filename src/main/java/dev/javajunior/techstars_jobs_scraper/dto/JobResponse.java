@@ -8,11 +8,16 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 @Data
 @Builder
 public class JobResponse {
+    private static final DateTimeFormatter POSTED_DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+
     private Long id;
     private String positionName;
     private String jobPageUrl;
@@ -31,11 +36,6 @@ public class JobResponse {
     private String applicationUrl;
 
     public static JobResponse fromJob(Job job) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy");
-        String formattedDate = job.getPostedDate() != null 
-            ? LocalDateTime.ofInstant(Instant.ofEpochMilli(job.getPostedDate()), ZoneId.systemDefault()).format(formatter)
-            : null;
-
         return JobResponse.builder()
                 .id(job.getId())
                 .positionName(job.getPositionName())
@@ -45,7 +45,7 @@ public class JobResponse {
                 .organizationLogo(job.getOrganization() != null ? job.getOrganization().getLogoUrl() : null)
                 .laborFunction(job.getLaborFunction())
                 .location(job.getLocation())
-                .postedDate(formattedDate)
+                .postedDate(formatPostedDate(job.getPostedDate()))
                 .description(job.getDescription())
                 .tags(job.getTags())
                 .jobType(job.getJobType())
@@ -55,4 +55,37 @@ public class JobResponse {
                 .applicationUrl(job.getApplicationUrl())
                 .build();
     }
-} 
\ No newline at end of file
+
+    /**
+     * Maps a listing row. Listings leave the description out, so it stays {@code null}.
+     */
+    public static JobResponse fromRow(JobListingRow row) {
+        Set<String> tags = row.tags() != null
+                ? new LinkedHashSet<>(Arrays.asList(row.tags().split(JobListingRow.TAG_SEPARATOR)))
+                : Collections.emptySet();
+
+        return JobResponse.builder()
+                .id(row.id())
+                .positionName(row.positionName())
+                .jobPageUrl(row.jobPageUrl())
+                .organizationName(row.organizationName())
+                .organizationUrl(row.organizationUrl())
+                .organizationLogo(row.organizationLogo())
+                .laborFunction(row.laborFunction())
+                .location(row.location())
+                .postedDate(formatPostedDate(row.postedDate()))
+                .tags(tags)
+                .jobType(row.jobType())
+                .experienceLevel(row.experienceLevel())
+                .salary(row.salary())
+                .remote(row.remote())
+                .applicationUrl(row.applicationUrl())
+                .build();
+    }
+
+    private static String formatPostedDate(Long postedDate) {
+        return postedDate != null
+                ? LocalDateTime.ofInstant(Instant.ofEpochMilli(postedDate), ZoneId.systemDefault()).format(POSTED_DATE_FORMATTER)
+                : null;
+    }
+}
@@ -0,0 +1,12 @@
+package dev.javajunior.techstars_jobs_scraper.dto;
+
+/**
+ * What incremental scraping needs to know about a stored job to decide whether it changed.
+ */
+public record JobSyncState(Long id,
+                           String jobPageUrl,
+                           String cardHash,
+                           String contentHash,
+                           Long lastSeenAt,
+                           boolean closed) {
+}
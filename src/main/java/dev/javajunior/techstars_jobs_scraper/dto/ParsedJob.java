@@ -0,0 +1,10 @@
+package dev.javajunior.techstars_jobs_scraper.dto;
+
+import dev.javajunior.techstars_jobs_scraper.model.Job;
+
+/**
+ * A job parsed from its card and detail page, not yet stored. {@code organizationLogoUrl} is the
+ * logo found on the detail page, left for the caller to store; {@code null} when there is none.
+ */
+public record ParsedJob(Job job, String organizationLogoUrl) {
+}
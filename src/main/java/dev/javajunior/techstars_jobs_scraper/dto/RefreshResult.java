@@ -0,0 +1,13 @@
+package dev.javajunior.techstars_jobs_scraper.dto;
+
+public record RefreshResult(
+    String jobFunction,
+    int pagesProcessed,
+    int cardsFound,
+    int jobsAdded,
+    int jobsUpdated,
+    int jobsUnchanged,
+    int jobsClosed,
+    int jobsFailed
+) {
+}
@@ -0,0 +1,16 @@
+package dev.javajunior.techstars_jobs_scraper.dto;
+
+/**
+ * Outcome of an archive replay. {@code pagesMissing} counts archived pages whose body file is
+ * gone from the archive directory; they are skipped rather than counted as failures.
+ */
+public record ReplayResult(
+    int listingPages,
+    int detailPages,
+    int pagesMissing,
+    int jobsReplayed,
+    int jobsUpdated,
+    int jobsFailed,
+    long elapsedMillis
+) {
+}
@@ -0,0 +1,7 @@
+package dev.javajunior.techstars_jobs_scraper.dto;
+
+/**
+ * Number of queued tasks per state. Finished tasks are removed from the queue.
+ */
+public record ScrapeQueueStats(long pending, long leased, long failed) {
+}
@@ -0,0 +1,30 @@
+package dev.javajunior.techstars_jobs_scraper.dto;
+
+import java.time.Instant;
+
+/**
+ * Snapshot of a background scrape run. {@code result} is set once the run has finished.
+ */
+public record ScrapeRunStatus(
+    String runId,
+    String jobFunction,
+    State state,
+    int jobsSaved,
+    Instant submittedAt,
+    Instant startedAt,
+    Instant finishedAt,
+    CrawlResult result,
+    String error
+) {
+    public enum State {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED,
+        CANCELLED;
+
+        public boolean isFinished() {
+            return this != QUEUED && this != RUNNING;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package dev.javajunior.techstars_jobs_scraper.dto;
+
+/**
+ * A queued detail page fetch. {@code postedAt} is the posted date of the card as parsed when it
+ * was queued, {@code null} for tasks queued before it was stored. {@code attempts} counts the
+ * claims so far, including the current one.
+ */
+public record ScrapeTask(Long id, String jobFunction, JobCard card, Long postedAt, int attempts) {
+}
@@ -0,0 +1,13 @@
+package dev.javajunior.techstars_jobs_scraper.dto;
+
+/**
+ * Outcome of one Google Sheets sync. {@code lastJobId} is the highest job id synced so far, null
+ * while nothing was ever synced.
+ */
+public record SheetsSyncResult(
+    String target,
+    int rowsAppended,
+    int appendRequests,
+    Long lastJobId
+) {
+}
@@ -0,0 +1,78 @@
+package dev.javajunior.techstars_jobs_scraper.export;
+
+import dev.javajunior.techstars_jobs_scraper.dto.JobExportRow;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes export rows as CSV one at a time, so an export never has to be held in memory.
+ */
+public class JobCsvWriter {
+
+    public static final String HEADER = "Position Name,Organization,Location,Posted Date,Job Type,Experience Level,Remote,Application URL\n";
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd")
+            .withZone(ZoneId.systemDefault());
+
+    private final Writer writer;
+
+    public JobCsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public void writeHeader() throws IOException {
+        writer.write(HEADER);
+    }
+
+    public void writeRow(JobExportRow row) throws IOException {
+        writeField(row.positionName());
+        writer.write(',');
+        writeField(row.organizationName());
+        writer.write(',');
+        writeField(row.location());
+        writer.write(',');
+        if (row.postedDate() != null) {
+            DATE_FORMATTER.formatTo(Instant.ofEpochMilli(row.postedDate()), writer);
+        }
+        writer.write(',');
+        writeField(row.jobType());
+        writer.write(',');
+        writeField(row.experienceLevel());
+        writer.write(',');
+        if (row.remote() != null) {
+            writer.write(row.remote() ? "true" : "false");
+        }
+        writer.write(',');
+        writeField(row.applicationUrl());
+        writer.write('\n');
+    }
+
+    /**
+     * Variant of {@link #writeRow} for use as a {@code Consumer}.
+     */
+    public void writeRowUnchecked(JobExportRow row) {
+        try {
+            writeRow(row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeField(String field) throws IOException {
+        if (field == null) {
+            return;
+        }
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0) {
+            writer.write(field);
+            return;
+        }
+        writer.write('"');
+        writer.write(field.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
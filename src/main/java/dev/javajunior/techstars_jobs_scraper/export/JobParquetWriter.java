@@ -0,0 +1,273 @@
+package dev.javajunior.techstars_jobs_scraper.export;
+
+import dev.javajunior.techstars_jobs_scraper.dto.JobListingRow;
+import org.apache.parquet.conf.ParquetConfiguration;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Writes listing rows as a Parquet file, one row at a time. Rows are buffered until a row group
+ * of {@link #ROW_GROUP_SIZE} bytes is full and then written out, so an export holds at most one
+ * row group in memory. Only the low-cardinality columns are dictionary encoded.
+ */
+public class JobParquetWriter implements Closeable {
+
+    public static final MessageType SCHEMA = Types.buildMessage()
+            .required(PrimitiveTypeName.INT64).named("id")
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("position_name")
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("job_page_url")
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("organization_name")
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("organization_url")
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("organization_logo")
+            .optionalList()
+                    .requiredElement(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType())
+                    .named("labor_functions")
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("location")
+            .optional(PrimitiveTypeName.INT64)
+                    .as(LogicalTypeAnnotation.timestampType(true, LogicalTypeAnnotation.TimeUnit.MILLIS))
+                    .named("posted_date")
+            .optionalList()
+                    .requiredElement(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType())
+                    .named("tags")
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("job_type")
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("experience_level")
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("salary")
+            .optional(PrimitiveTypeName.BOOLEAN).named("remote")
+            .optional(PrimitiveTypeName.BINARY).as(LogicalTypeAnnotation.stringType()).named("application_url")
+            .named("job");
+
+    // Repeat across most rows; the other string columns are close to unique per job
+    public static final List<String> DICTIONARY_COLUMNS = List.of("organization_name", "organization_url",
+            "organization_logo", "labor_functions.list.element", "location", "tags.list.element", "job_type",
+            "experience_level");
+
+    static final int ROW_GROUP_SIZE = 8 * 1024 * 1024;
+    private static final int PAGE_SIZE = 256 * 1024;
+
+    private final ParquetWriter<JobListingRow> writer;
+
+    public JobParquetWriter(OutputStream out) throws IOException {
+        Builder builder = new Builder(new StreamOutputFile(out))
+                .withConf(new PlainParquetConfiguration())
+                .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .withCompressionCodec(CompressionCodecName.SNAPPY)
+                .withRowGroupSize((long) ROW_GROUP_SIZE)
+                .withPageSize(PAGE_SIZE)
+                .withDictionaryEncoding(false);
+        for (String column : DICTIONARY_COLUMNS) {
+            builder = builder.withDictionaryEncoding(column, true);
+        }
+        this.writer = builder.build();
+    }
+
+    public void write(JobListingRow row) throws IOException {
+        writer.write(row);
+    }
+
+    /**
+     * Variant of {@link #write} for use as a {@code Consumer}.
+     */
+    public void writeUnchecked(JobListingRow row) {
+        try {
+            write(row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the last row group and the footer. The underlying stream is left open.
+     */
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private static class Builder extends ParquetWriter.Builder<JobListingRow, Builder> {
+
+        private Builder(OutputFile file) {
+            super(file);
+        }
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+
+        @Override
+        protected WriteSupport<JobListingRow> getWriteSupport(ParquetConfiguration conf) {
+            return new JobWriteSupport();
+        }
+
+        // Still abstract in parquet-hadoop, never called since the writer gets a ParquetConfiguration
+        @Deprecated
+        @Override
+        protected WriteSupport<JobListingRow> getWriteSupport(org.apache.hadoop.conf.Configuration conf) {
+            throw new UnsupportedOperationException("Configured through ParquetConfiguration");
+        }
+    }
+
+    private static class JobWriteSupport extends WriteSupport<JobListingRow> {
+
+        private RecordConsumer consumer;
+
+        @Override
+        public WriteContext init(ParquetConfiguration configuration) {
+            return new WriteContext(SCHEMA, new HashMap<>());
+        }
+
+        @Deprecated
+        @Override
+        public WriteContext init(org.apache.hadoop.conf.Configuration configuration) {
+            throw new UnsupportedOperationException("Configured through ParquetConfiguration");
+        }
+
+        @Override
+        public void prepareForWrite(RecordConsumer recordConsumer) {
+            this.consumer = recordConsumer;
+        }
+
+        @Override
+        public void write(JobListingRow row) {
+            consumer.startMessage();
+            consumer.startField("id", 0);
+            consumer.addLong(row.id());
+            consumer.endField("id", 0);
+            writeString(1, row.positionName());
+            writeString(2, row.jobPageUrl());
+            writeString(3, row.organizationName());
+            writeString(4, row.organizationUrl());
+            writeString(5, row.organizationLogo());
+            writeList(6, row.laborFunctions());
+            writeString(7, row.location());
+            if (row.postedDate() != null) {
+                consumer.startField("posted_date", 8);
+                consumer.addLong(row.postedDate());
+                consumer.endField("posted_date", 8);
+            }
+            writeList(9, row.tags());
+            writeString(10, row.jobType());
+            writeString(11, row.experienceLevel());
+            writeString(12, row.salary());
+            if (row.remote() != null) {
+                consumer.startField("remote", 13);
+                consumer.addBoolean(row.remote());
+                consumer.endField("remote", 13);
+            }
+            writeString(14, row.applicationUrl());
+            consumer.endMessage();
+        }
+
+        private void writeString(int index, String value) {
+            if (value == null) {
+                return;
+            }
+            String field = SCHEMA.getFieldName(index);
+            consumer.startField(field, index);
+            consumer.addBinary(Binary.fromString(value));
+            consumer.endField(field, index);
+        }
+
+        // Three-level LIST layout, e.g. tags.list[].element, from values joined by TAG_SEPARATOR
+        private void writeList(int index, String values) {
+            if (values == null) {
+                return;
+            }
+            String field = SCHEMA.getFieldName(index);
+            consumer.startField(field, index);
+            consumer.startGroup();
+            consumer.startField("list", 0);
+            for (String value : values.split(JobListingRow.TAG_SEPARATOR)) {
+                consumer.startGroup();
+                consumer.startField("element", 0);
+                consumer.addBinary(Binary.fromString(value));
+                consumer.endField("element", 0);
+                consumer.endGroup();
+            }
+            consumer.endField("list", 0);
+            consumer.endGroup();
+            consumer.endField(field, index);
+        }
+    }
+
+    /**
+     * Writes the file front to back into a stream, e.g. a response body, instead of a seekable
+     * file. Parquet never seeks back, it only needs the current position for the footer offsets.
+     */
+    private static class StreamOutputFile implements OutputFile {
+
+        private final OutputStream out;
+
+        private StreamOutputFile(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public PositionOutputStream create(long blockSizeHint) {
+            return new PositionOutputStream() {
+                private long position;
+
+                @Override
+                public long getPos() {
+                    return position;
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    position++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                    position += len;
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    out.flush();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    // Owned by the caller
+                    out.flush();
+                }
+            };
+        }
+
+        @Override
+        public PositionOutputStream createOrOverwrite(long blockSizeHint) {
+            return create(blockSizeHint);
+        }
+
+        @Override
+        public boolean supportsBlockSize() {
+            return false;
+        }
+
+        @Override
+        public long defaultBlockSize() {
+            return ROW_GROUP_SIZE;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import lombok.Builder;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -17,11 +18,15 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "jobs")
+@Table(name = "jobs", indexes = {
+        // Keyset pagination seeks on (posted_date, id) in descending order
+        @Index(name = "idx_jobs_posted_date_id", columnList = "posted_date DESC, id DESC")
+})
 @Builder
 public class Job {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "jobs_seq")
+    @SequenceGenerator(name = "jobs_seq", sequenceName = "jobs_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -34,9 +39,16 @@ public class Job {
     @JoinColumn(name = "organization_id", nullable = false)
     private Organization organization;
 
+    // Function the job was first found under; jobFunctions holds every function it is listed under
     @Column(nullable = false)
     private String laborFunction;
 
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "job_functions", joinColumns = @JoinColumn(name = "job_id"))
+    @Column(name = "job_function")
+    @Builder.Default
+    private Set<String> jobFunctions = new HashSet<>();
+
     @Column(nullable = false)
     private String location;
 
@@ -66,4 +78,26 @@ public class Job {
 
     @Column
     private String applicationUrl;
+
+    // SHA-256 of the listing card and of the stored content, compared by incremental scraping
+    @Column(length = 64)
+    private String cardHash;
+
+    @Column(length = 64)
+    private String contentHash;
+
+    @Column
+    private Long lastSeenAt;
+
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    @Builder.Default
+    private boolean closed = false;
+
+    @PrePersist
+    void onCreate() {
+        if (lastSeenAt == null) {
+            lastSeenAt = System.currentTimeMillis();
+        }
+    }
 } 
\ No newline at end of file
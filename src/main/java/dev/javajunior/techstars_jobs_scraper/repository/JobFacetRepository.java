@@ -0,0 +1,195 @@
+package dev.javajunior.techstars_jobs_scraper.repository;
+
+import dev.javajunior.techstars_jobs_scraper.dto.FacetCount;
+import dev.javajunior.techstars_jobs_scraper.dto.FacetFilter;
+import dev.javajunior.techstars_jobs_scraper.dto.FacetValue;
+import dev.javajunior.techstars_jobs_scraper.dto.JobFacets;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Facet counts of the jobs. Counts over all jobs are kept in {@code job_facet_counts}, which the
+ * ingest path moves by the difference each batch makes, so reading them costs the same whatever
+ * the number of jobs. Filtered counts are grouped from the matching jobs, found through the
+ * indexes on the filtered columns.
+ */
+@Repository
+// The jobs tables are created by Hibernate, and the counts are built from them
+@DependsOn("entityManagerFactory")
+@Slf4j
+public class JobFacetRepository {
+
+    private static final String UPDATE_COUNT = "UPDATE job_facet_counts SET job_count = job_count + :delta " +
+            "WHERE facet = :facet AND facet_value = :value";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    public JobFacetRepository(NamedParameterJdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/job-facets.sql")).execute(dataSource);
+        if (findCount(FacetValue.TOTAL) == null) {
+            log.info("Built {} facet counts", rebuild());
+        }
+    }
+
+    /**
+     * Adds {@code deltas} to the stored counts, creating missing rows. Rows are locked in a fixed
+     * order, so concurrent batches wait for each other instead of deadlocking.
+     */
+    public void apply(Map<FacetValue, Long> deltas) {
+        List<SqlParameterSource> changes = deltas.entrySet().stream()
+                .filter(delta -> delta.getValue() != 0)
+                .sorted(Map.Entry.comparingByKey(FacetValue.ORDER))
+                .<SqlParameterSource>map(delta -> new MapSqlParameterSource()
+                        .addValue("facet", delta.getKey().facet())
+                        .addValue("value", delta.getKey().value())
+                        .addValue("delta", delta.getValue()))
+                .toList();
+        List<SqlParameterSource> missing = notUpdated(changes, UPDATE_COUNT);
+        List<SqlParameterSource> raced = notUpdated(missing, "INSERT INTO job_facet_counts (facet, facet_value, job_count) " +
+                "VALUES (:facet, :value, :delta) ON CONFLICT DO NOTHING");
+        // Inserted by a concurrent batch in the meantime
+        notUpdated(raced, UPDATE_COUNT);
+    }
+
+    /**
+     * Recounts every facet from the jobs tables. Counts moved by batches committed while it runs
+     * can be lost, so run it while no scrape is writing.
+     */
+    @Transactional
+    public int rebuild() {
+        jdbcTemplate.update("DELETE FROM job_facet_counts", new MapSqlParameterSource());
+        return jdbcTemplate.update("INSERT INTO job_facet_counts (facet, facet_value, job_count) " +
+                countsOf("jobs"), new MapSqlParameterSource());
+    }
+
+    /**
+     * Counts over all jobs, read from {@code job_facet_counts}.
+     */
+    public JobFacets findAll(int size) {
+        return top("", "job_facet_counts", size, new MapSqlParameterSource());
+    }
+
+    /**
+     * Counts over the jobs matching {@code filter}, grouped from the jobs tables.
+     */
+    public JobFacets findMatching(FacetFilter filter, int size) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder where = new StringBuilder("WHERE 1 = 1");
+        if (filter.location() != null) {
+            where.append(" AND j.location = :location");
+            params.addValue("location", filter.location());
+        }
+        if (filter.jobType() != null) {
+            where.append(" AND j.job_type = :jobType");
+            params.addValue("jobType", filter.jobType());
+        }
+        if (filter.experienceLevel() != null) {
+            where.append(" AND j.experience_level = :experienceLevel");
+            params.addValue("experienceLevel", filter.experienceLevel());
+        }
+        if (filter.remote() != null) {
+            where.append(" AND j.remote = :remote");
+            params.addValue("remote", filter.remote());
+        }
+        if (filter.organization() != null) {
+            where.append(" AND j.organization_id IN (SELECT o.id FROM organizations o WHERE o.name = :organization)");
+            params.addValue("organization", filter.organization());
+        }
+        if (filter.laborFunction() != null) {
+            where.append(" AND EXISTS (SELECT 1 FROM job_functions f WHERE f.job_id = j.id AND f.job_function = :laborFunction)");
+            params.addValue("laborFunction", filter.laborFunction());
+        }
+        if (filter.tag() != null) {
+            where.append(" AND EXISTS (SELECT 1 FROM job_tags t WHERE t.job_id = j.id AND t.tag = :tag)");
+            params.addValue("tag", filter.tag());
+        }
+        // Selected once, then grouped by every facet
+        String matched = "WITH matched AS (SELECT j.id, j.location, j.job_type, j.experience_level, j.remote, " +
+                "j.organization_id FROM jobs j " + where + ") ";
+        return top(matched, "(" + countsOf("matched") + ")", size, params);
+    }
+
+    private Long findCount(FacetValue value) {
+        List<Long> counts = jdbcTemplate.queryForList("SELECT job_count FROM job_facet_counts " +
+                "WHERE facet = :facet AND facet_value = :value", new MapSqlParameterSource()
+                .addValue("facet", value.facet())
+                .addValue("value", value.value()), Long.class);
+        return counts.isEmpty() ? null : counts.get(0);
+    }
+
+    // The size values with the most jobs of each facet
+    private JobFacets top(String with, String counts, int size, MapSqlParameterSource params) {
+        Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+        JobFacets.NAMES.forEach(name -> facets.put(name, new ArrayList<>()));
+        long[] total = {0};
+        jdbcTemplate.query(with + "SELECT facet, facet_value, job_count FROM (" +
+                        "SELECT facet, facet_value, job_count, " +
+                        "ROW_NUMBER() OVER (PARTITION BY facet ORDER BY job_count DESC, facet_value) AS facet_rank " +
+                        "FROM " + counts + " c WHERE job_count > 0) ranked " +
+                        "WHERE facet_rank <= :size ORDER BY facet, facet_rank",
+                params.addValue("size", size), rs -> {
+                    String facet = rs.getString("facet");
+                    if (facet.equals(FacetValue.TOTAL.facet())) {
+                        total[0] = rs.getLong("job_count");
+                    } else if (facets.containsKey(facet)) {
+                        facets.get(facet).add(new FacetCount(rs.getString("facet_value"), rs.getLong("job_count")));
+                    }
+                });
+        return new JobFacets(total[0], facets);
+    }
+
+    // One row per facet value with its number of jobs in source, the same values as FacetValue.of
+    private static String countsOf(String source) {
+        return "SELECT '" + FacetValue.TOTAL.facet() + "' AS facet, '' AS facet_value, COUNT(*) AS job_count FROM " + source + " m " +
+                "UNION ALL SELECT '" + JobFacets.LOCATION + "', m.location, COUNT(*) FROM " + source + " m " +
+                "GROUP BY m.location " +
+                "UNION ALL SELECT '" + JobFacets.JOB_TYPE + "', m.job_type, COUNT(*) FROM " + source + " m " +
+                "WHERE m.job_type IS NOT NULL GROUP BY m.job_type " +
+                "UNION ALL SELECT '" + JobFacets.EXPERIENCE_LEVEL + "', m.experience_level, COUNT(*) FROM " + source + " m " +
+                "WHERE m.experience_level IS NOT NULL GROUP BY m.experience_level " +
+                "UNION ALL SELECT '" + JobFacets.REMOTE + "', CASE WHEN m.remote THEN 'true' ELSE 'false' END, COUNT(*) " +
+                "FROM " + source + " m WHERE m.remote IS NOT NULL GROUP BY m.remote " +
+                "UNION ALL SELECT '" + JobFacets.ORGANIZATION + "', o.name, COUNT(*) FROM " + source + " m " +
+                "JOIN organizations o ON o.id = m.organization_id GROUP BY o.name " +
+                "UNION ALL SELECT '" + JobFacets.LABOR_FUNCTION + "', f.job_function, COUNT(*) FROM " + source + " m " +
+                "JOIN job_functions f ON f.job_id = m.id GROUP BY f.job_function " +
+                "UNION ALL SELECT '" + JobFacets.TAG + "', t.tag, COUNT(*) FROM " + source + " m " +
+                "JOIN job_tags t ON t.job_id = m.id GROUP BY t.tag";
+    }
+
+    // Runs the statement for each change and returns the ones that matched no row
+    private List<SqlParameterSource> notUpdated(List<SqlParameterSource> changes, String sql) {
+        if (changes.isEmpty()) {
+            return changes;
+        }
+        int[] counts = jdbcTemplate.batchUpdate(sql, changes.toArray(SqlParameterSource[]::new));
+        List<SqlParameterSource> rest = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                rest.add(changes.get(i));
+            }
+        }
+        return rest;
+    }
+}
@@ -1,19 +1,43 @@
 package dev.javajunior.techstars_jobs_scraper.repository;
 
+import dev.javajunior.techstars_jobs_scraper.dto.JobExportRow;
+import dev.javajunior.techstars_jobs_scraper.dto.JobFunctionRef;
+import dev.javajunior.techstars_jobs_scraper.dto.JobListingRow;
+import dev.javajunior.techstars_jobs_scraper.dto.JobSyncState;
 import dev.javajunior.techstars_jobs_scraper.model.Job;
 import dev.javajunior.techstars_jobs_scraper.model.Organization;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface JobRepository extends JpaRepository<Job, Long> {
+    /**
+     * Projection shared by the listing queries: the organization is joined and the tags are
+     * aggregated by a correlated subquery, so one statement returns the whole page.
+     */
+    String LISTING_SELECT = "SELECT new dev.javajunior.techstars_jobs_scraper.dto.JobListingRow(j.id, j.positionName, " +
+            "j.jobPageUrl, o.name, o.url, o.logoUrl, j.laborFunction, " +
+            "(SELECT listagg(f, '" + JobListingRow.TAG_SEPARATOR + "') WITHIN GROUP (ORDER BY f) FROM j.jobFunctions f), " +
+            "j.location, j.postedDate, " +
+            "(SELECT listagg(t, '" + JobListingRow.TAG_SEPARATOR + "') WITHIN GROUP (ORDER BY t) FROM j.tags t), " +
+            "j.jobType, j.experienceLevel, j.salary, j.remote, j.applicationUrl) " +
+            "FROM Job j JOIN j.organization o ";
+
     List<Job> findByLaborFunction(String laborFunction);
     boolean existsByJobPageUrl(String jobPageUrl);
     boolean existsByPositionNameAndOrganization(String positionName, Organization organization);
@@ -21,9 +45,92 @@ public interface JobRepository extends JpaRepository<Job, Long> {
     @Query("SELECT j.jobPageUrl FROM Job j WHERE j.jobPageUrl IN :urls")
     Set<String> findExistingJobUrls(@Param("urls") Set<String> urls);
 
-    @Query("SELECT j FROM Job j WHERE (:location IS NULL OR j.location LIKE %:location%)")
-    Page<Job> findByLocation(@Param("location") String location, Pageable pageable);
+    @Query("SELECT j.jobPageUrl FROM Job j")
+    List<String> findAllJobPageUrls();
+
+    @Query(value = LISTING_SELECT + "WHERE (:location IS NULL OR j.location LIKE %:location%)",
+            countQuery = "SELECT count(j) FROM Job j WHERE (:location IS NULL OR j.location LIKE %:location%)")
+    Page<JobListingRow> findListingsByLocation(@Param("location") String location, Pageable pageable);
+
+    @Query(LISTING_SELECT + "WHERE j.id IN :ids")
+    List<JobListingRow> findListingsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT count(j) FROM Job j WHERE (:location IS NULL OR j.location LIKE %:location%)")
+    long countByLocation(@Param("location") String location);
+
+    /**
+     * First page of the keyset pagination, newest jobs first.
+     */
+    @Query(LISTING_SELECT + "WHERE (:location IS NULL OR j.location LIKE %:location%) " +
+            "ORDER BY j.postedDate DESC, j.id DESC")
+    List<JobListingRow> findLatest(@Param("location") String location, Limit limit);
+
+    /**
+     * Jobs that come after ({@code postedDate}, {@code id}) in newest-first order. Seeks on
+     * idx_jobs_posted_date_id instead of skipping rows, so every page costs the same.
+     */
+    @Query(LISTING_SELECT + "WHERE (:location IS NULL OR j.location LIKE %:location%) " +
+            "AND (j.postedDate, j.id) < (:postedDate, :id) " +
+            "ORDER BY j.postedDate DESC, j.id DESC")
+    List<JobListingRow> findLatestAfter(@Param("location") String location,
+                              @Param("postedDate") Long postedDate,
+                              @Param("id") Long id,
+                              Limit limit);
+
+    @Query("SELECT new dev.javajunior.techstars_jobs_scraper.dto.JobSyncState(j.id, j.jobPageUrl, j.cardHash, " +
+            "j.contentHash, j.lastSeenAt, j.closed) FROM Job j WHERE j.jobPageUrl IN :urls")
+    List<JobSyncState> findSyncStates(@Param("urls") Collection<String> urls);
+
+    @Query("SELECT j.id FROM Job j JOIN j.jobFunctions f WHERE f = :jobFunction")
+    List<Long> findIdsByJobFunction(@Param("jobFunction") String jobFunction);
+
+    @Query("SELECT j.id FROM Job j WHERE j.id IN :ids AND j.closed = false AND j.jobFunctions IS EMPTY")
+    List<Long> findOpenIdsWithoutFunctions(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Records that the jobs are still listed, which also reopens closed ones.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Job j SET j.lastSeenAt = :seenAt, j.closed = false WHERE j.id IN :ids")
+    int markSeen(@Param("ids") Collection<Long> ids, @Param("seenAt") Long seenAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Job j SET j.cardHash = :cardHash, j.lastSeenAt = :seenAt, j.closed = false WHERE j.id = :id")
+    int updateCardHash(@Param("id") Long id, @Param("cardHash") String cardHash, @Param("seenAt") Long seenAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Job j SET j.closed = true WHERE j.id IN :ids")
+    int markClosed(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new dev.javajunior.techstars_jobs_scraper.dto.JobFunctionRef(j.id, j.jobPageUrl, f) " +
+            "FROM Job j LEFT JOIN j.jobFunctions f WHERE j.jobPageUrl IN :urls")
+    List<JobFunctionRef> findFunctionRefs(@Param("urls") Collection<String> urls);
+
+    @Modifying
+    @Query(value = "INSERT INTO job_functions (job_id, job_function) VALUES (:jobId, :jobFunction)", nativeQuery = true)
+    int addFunction(@Param("jobId") Long jobId, @Param("jobFunction") String jobFunction);
+
+    @Modifying
+    @Query(value = "DELETE FROM job_functions WHERE job_id IN (:ids) AND job_function = :jobFunction", nativeQuery = true)
+    int removeFunction(@Param("ids") Collection<Long> ids, @Param("jobFunction") String jobFunction);
+
+    /**
+     * Forward-only cursor over the export columns. Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new dev.javajunior.techstars_jobs_scraper.dto.JobExportRow(j.positionName, o.name, j.location, " +
+            "j.postedDate, j.jobType, j.experienceLevel, j.remote, j.applicationUrl) " +
+            "FROM Job j JOIN j.organization o WHERE (:location IS NULL OR j.location LIKE %:location%) ORDER BY j.id")
+    Stream<JobExportRow> streamForExport(@Param("location") String location, Limit limit);
 
-    @Query(value = "SELECT * FROM jobs WHERE (:location IS NULL OR location LIKE %:location%) FETCH FIRST :limit ROWS ONLY", nativeQuery = true)
-    List<Job> findByLocation(@Param("location") String location, @Param("limit") int limit);
-} 
\ No newline at end of file
+    /**
+     * Forward-only cursor over the listing columns in id order, for the Parquet export. Must be
+     * consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(LISTING_SELECT + "WHERE (:location IS NULL OR j.location LIKE %:location%) ORDER BY j.id")
+    Stream<JobListingRow> streamListings(@Param("location") String location, Limit limit);
+}
\ No newline at end of file
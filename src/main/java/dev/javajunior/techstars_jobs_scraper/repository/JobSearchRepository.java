@@ -0,0 +1,20 @@
+package dev.javajunior.techstars_jobs_scraper.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keyword search over position name, description, organization name and tags.
+ */
+public interface JobSearchRepository {
+
+    /**
+     * Refreshes the search data of the given jobs. Called by the ingest path after writing them.
+     */
+    void index(Collection<Long> jobIds);
+
+    /**
+     * Returns the ids of the jobs matching {@code query}, most relevant first.
+     */
+    List<Long> search(String query, long offset, int limit);
+}
@@ -0,0 +1,62 @@
+package dev.javajunior.techstars_jobs_scraper.repository;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Portable fallback used with H2. Every keyword has to match one of the searched fields, and
+ * jobs whose position name matches more keywords rank first. It scans the table, so it is only
+ * meant for tests and small databases.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "like", matchIfMissing = true)
+public class LikeJobSearchRepository implements JobSearchRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public LikeJobSearchRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void index(Collection<Long> jobIds) {
+        // Nothing to maintain, the fields are searched directly
+    }
+
+    @Override
+    public List<Long> search(String query, long offset, int limit) {
+        String[] terms = query.trim().toLowerCase(Locale.ROOT).split("\\s+");
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("limit", limit)
+                .addValue("offset", offset);
+        StringBuilder where = new StringBuilder();
+        StringBuilder titleScore = new StringBuilder("0");
+        for (int i = 0; i < terms.length; i++) {
+            String param = "term" + i;
+            params.addValue(param, "%" + escapeLike(terms[i]) + "%");
+            where.append(i == 0 ? "" : " AND ")
+                    .append("(LOWER(j.position_name) LIKE :").append(param).append(" ESCAPE '\\'")
+                    .append(" OR LOWER(j.description) LIKE :").append(param).append(" ESCAPE '\\'")
+                    .append(" OR LOWER(o.name) LIKE :").append(param).append(" ESCAPE '\\'")
+                    .append(" OR EXISTS (SELECT 1 FROM job_tags t WHERE t.job_id = j.id AND LOWER(t.tag) LIKE :")
+                    .append(param).append(" ESCAPE '\\'))");
+            titleScore.append(" + CASE WHEN LOWER(j.position_name) LIKE :").append(param)
+                    .append(" ESCAPE '\\' THEN 1 ELSE 0 END");
+        }
+
+        return jdbcTemplate.queryForList(
+                "SELECT j.id FROM jobs j JOIN organizations o ON o.id = j.organization_id WHERE " + where +
+                " ORDER BY " + titleScore + " DESC, j.id DESC LIMIT :limit OFFSET :offset",
+                params, Long.class);
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -2,7 +2,11 @@ package dev.javajunior.techstars_jobs_scraper.repository;
 
 import dev.javajunior.techstars_jobs_scraper.model.Organization;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -13,4 +17,15 @@ public interface OrganizationRepository extends JpaRepository<Organization, Long
 
     Optional<Organization> findByName(String name);
 
-} 
\ No newline at end of file
+    /**
+     * Inserts the organization unless one with the same name or URL exists. Returns the number
+     * of inserted rows, so concurrent callers never fail on the unique constraints.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO organizations (id, name, url, logo_url) " +
+            "VALUES (nextval('organizations_id_seq'), :name, :url, :logoUrl) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name, @Param("url") String url, @Param("logoUrl") String logoUrl);
+
+}
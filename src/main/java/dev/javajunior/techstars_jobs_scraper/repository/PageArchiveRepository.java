@@ -0,0 +1,77 @@
+package dev.javajunior.techstars_jobs_scraper.repository;
+
+import dev.javajunior.techstars_jobs_scraper.dto.ArchivedPage;
+import jakarta.annotation.PostConstruct;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Index of the page archive in {@code page_archive}: which blob holds a URL as fetched at a
+ * given time. The blobs themselves are kept on disk by {@code PageArchive}.
+ */
+@Repository
+public class PageArchiveRepository {
+
+    private static final String COLUMNS = "url, kind, fetched_at, content_hash, size_bytes";
+    private static final RowMapper<ArchivedPage> ROW_MAPPER = (rs, rowNum) -> new ArchivedPage(rs.getString("url"),
+            rs.getString("kind"), rs.getLong("fetched_at"), rs.getString("content_hash"), rs.getInt("size_bytes"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    public PageArchiveRepository(NamedParameterJdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/page-archive.sql")).execute(dataSource);
+    }
+
+    public void add(ArchivedPage page) {
+        jdbcTemplate.update("INSERT INTO page_archive (" + COLUMNS + ") " +
+                "VALUES (:url, :kind, :fetchedAt, :contentHash, :sizeBytes)", new MapSqlParameterSource()
+                .addValue("url", page.url())
+                .addValue("kind", page.kind())
+                .addValue("fetchedAt", page.fetchedAt())
+                .addValue("contentHash", page.contentHash())
+                .addValue("sizeBytes", page.sizeBytes()));
+    }
+
+    /**
+     * The last fetch of {@code url} at or before {@code at}.
+     */
+    public Optional<ArchivedPage> findAt(String url, long at) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM page_archive WHERE url = :url AND fetched_at <= :at " +
+                        "ORDER BY fetched_at DESC, id DESC LIMIT 1",
+                new MapSqlParameterSource()
+                        .addValue("url", url)
+                        .addValue("at", at), ROW_MAPPER).stream().findFirst();
+    }
+
+    /**
+     * Every archived page of the kind, oldest fetch first.
+     */
+    public List<ArchivedPage> findByKind(String kind) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM page_archive WHERE kind = :kind ORDER BY fetched_at, id",
+                new MapSqlParameterSource("kind", kind), ROW_MAPPER);
+    }
+
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM page_archive", new MapSqlParameterSource(), Long.class);
+        return count != null ? count : 0;
+    }
+
+    public void deleteAll() {
+        jdbcTemplate.update("DELETE FROM page_archive", new MapSqlParameterSource());
+    }
+}
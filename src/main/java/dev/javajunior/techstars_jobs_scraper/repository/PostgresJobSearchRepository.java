@@ -0,0 +1,72 @@
+package dev.javajunior.techstars_jobs_scraper.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Full-text search backed by a weighted {@code tsvector} column on {@code jobs} with a GIN index.
+ * The column is created on startup and refreshed by the ingest path.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "postgres")
+@Slf4j
+public class PostgresJobSearchRepository implements JobSearchRepository {
+
+    private static final String DOCUMENT =
+            "setweight(to_tsvector('english', coalesce(j.position_name, '')), 'A') || " +
+            "setweight(to_tsvector('english', coalesce(o.name, '')), 'B') || " +
+            "setweight(to_tsvector('english', coalesce((SELECT string_agg(t.tag, ' ') FROM job_tags t WHERE t.job_id = j.id), '')), 'B') || " +
+            "setweight(to_tsvector('english', coalesce(j.description, '')), 'C')";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    public PostgresJobSearchRepository(NamedParameterJdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/search-postgres.sql")).execute(dataSource);
+        int backfilled = jdbcTemplate.update("UPDATE jobs j SET search_vector = " + DOCUMENT +
+                " FROM organizations o WHERE o.id = j.organization_id AND j.search_vector IS NULL", new MapSqlParameterSource());
+        if (backfilled > 0) {
+            log.info("Built search vectors for {} jobs", backfilled);
+        }
+    }
+
+    @Override
+    public void index(Collection<Long> jobIds) {
+        if (jobIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("UPDATE jobs j SET search_vector = " + DOCUMENT +
+                " FROM organizations o WHERE o.id = j.organization_id AND j.id IN (:ids)",
+                new MapSqlParameterSource("ids", jobIds));
+    }
+
+    @Override
+    public List<Long> search(String query, long offset, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT j.id FROM jobs j, websearch_to_tsquery('english', :query) q " +
+                "WHERE j.search_vector @@ q " +
+                "ORDER BY ts_rank(j.search_vector, q) DESC, j.id DESC LIMIT :limit OFFSET :offset",
+                new MapSqlParameterSource()
+                        .addValue("query", query)
+                        .addValue("limit", limit)
+                        .addValue("offset", offset),
+                Long.class);
+    }
+}
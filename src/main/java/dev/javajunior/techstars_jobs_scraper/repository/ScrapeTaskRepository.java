@@ -0,0 +1,226 @@
+package dev.javajunior.techstars_jobs_scraper.repository;
+
+import dev.javajunior.techstars_jobs_scraper.dto.JobCard;
+import dev.javajunior.techstars_jobs_scraper.dto.ScrapeQueueStats;
+import dev.javajunior.techstars_jobs_scraper.dto.ScrapeTask;
+import jakarta.annotation.PostConstruct;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The {@code scrape_tasks} queue. Tasks are claimed with {@code FOR UPDATE SKIP LOCKED}, so
+ * workers on any number of instances take disjoint batches without waiting on each other. A
+ * claim is a lease: tasks whose lease expires, because their worker died, can be claimed again.
+ */
+@Repository
+public class ScrapeTaskRepository {
+
+    public static final String PENDING = "PENDING";
+    public static final String LEASED = "LEASED";
+    public static final String FAILED = "FAILED";
+
+    private static final String CLAIMABLE = "(status = 'PENDING' AND available_at <= :now) " +
+            "OR (status = 'LEASED' AND lease_expires_at < :now)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+
+    public ScrapeTaskRepository(NamedParameterJdbcTemplate jdbcTemplate,
+                                DataSource dataSource,
+                                PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void initialize() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/scrape-queue.sql")).execute(dataSource);
+    }
+
+    /**
+     * Queues the tasks. A card whose URL is already queued gets the function of its task added
+     * instead, and a failed task for it is reset to pending. Returns the number of tasks added
+     * or reset.
+     */
+    public int enqueue(Collection<ScrapeTask> tasks) {
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+        return transactionTemplate.execute(status -> {
+            long now = System.currentTimeMillis();
+            Map<String, ScrapeTask> byUrl = new LinkedHashMap<>();
+            tasks.forEach(task -> byUrl.put(task.card().jobUrl(), task));
+            // Locked, so a worker completing one of them reads the functions added below
+            Map<String, String> statuses = new HashMap<>();
+            jdbcTemplate.query("SELECT job_page_url, status FROM scrape_tasks WHERE job_page_url IN (:urls) FOR UPDATE",
+                    new MapSqlParameterSource("urls", byUrl.keySet()),
+                    rs -> {
+                        statuses.put(rs.getString("job_page_url"), rs.getString("status"));
+                    });
+
+            List<SqlParameterSource> failed = new ArrayList<>();
+            List<SqlParameterSource> missing = new ArrayList<>();
+            byUrl.forEach((url, task) -> {
+                String current = statuses.get(url);
+                if (current == null) {
+                    missing.add(paramsOf(task, now));
+                } else if (current.equals(FAILED)) {
+                    failed.add(paramsOf(task, now));
+                }
+            });
+            int added = updated(failed, "UPDATE scrape_tasks SET status = 'PENDING', job_function = :jobFunction, " +
+                    "position_name = :positionName, location = :location, posted_at = :postedAt, " +
+                    "organization_name = :organizationName, organization_url = :organizationUrl, " +
+                    "organization_logo = :organizationLogo, attempts = 0, available_at = :now, lease_owner = NULL, " +
+                    "lease_expires_at = NULL, last_error = NULL WHERE job_page_url = :jobPageUrl AND status = 'FAILED'");
+            added += updated(missing, "INSERT INTO scrape_tasks (job_page_url, job_function, position_name, " +
+                    "location, posted_at, organization_name, organization_url, organization_logo, available_at, created_at) " +
+                    "VALUES (:jobPageUrl, :jobFunction, :positionName, :location, :postedAt, :organizationName, " +
+                    ":organizationUrl, :organizationLogo, :now, :now) ON CONFLICT DO NOTHING");
+            updated(byUrl.values().stream().<SqlParameterSource>map(task -> paramsOf(task, now)).toList(),
+                    "INSERT INTO scrape_task_functions (job_page_url, job_function) " +
+                    "VALUES (:jobPageUrl, :jobFunction) ON CONFLICT DO NOTHING");
+            return added;
+        });
+    }
+
+    /**
+     * Leases up to {@code limit} tasks to {@code owner} until {@code leaseMillis} from now.
+     * Expired leases that already used up {@code maxAttempts} are marked failed instead.
+     */
+    public List<ScrapeTask> claim(String owner, int limit, long leaseMillis, int maxAttempts) {
+        return transactionTemplate.execute(status -> {
+            long now = System.currentTimeMillis();
+            jdbcTemplate.update("UPDATE scrape_tasks SET status = 'FAILED', lease_owner = NULL, " +
+                    "last_error = 'Lease expired' WHERE status = 'LEASED' AND lease_expires_at < :now " +
+                    "AND attempts >= :maxAttempts", new MapSqlParameterSource()
+                    .addValue("now", now)
+                    .addValue("maxAttempts", maxAttempts));
+
+            List<ScrapeTask> tasks = jdbcTemplate.query("SELECT id, job_page_url, job_function, position_name, " +
+                    "location, posted_at, organization_name, organization_url, organization_logo, attempts " +
+                    "FROM scrape_tasks WHERE " + CLAIMABLE + " ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+                    new MapSqlParameterSource()
+                            .addValue("now", now)
+                            .addValue("limit", limit),
+                    (rs, rowNum) -> new ScrapeTask(rs.getLong("id"), rs.getString("job_function"),
+                            new JobCard(rs.getString("job_page_url"), rs.getString("position_name"),
+                                    rs.getString("location"), null,
+                                    rs.getString("organization_name"), rs.getString("organization_url"),
+                                    rs.getString("organization_logo")),
+                            rs.getObject("posted_at", Long.class),
+                            rs.getInt("attempts") + 1));
+            if (tasks.isEmpty()) {
+                return tasks;
+            }
+
+            jdbcTemplate.update("UPDATE scrape_tasks SET status = 'LEASED', lease_owner = :owner, " +
+                    "lease_expires_at = :expiresAt, attempts = attempts + 1 WHERE id IN (:ids)",
+                    new MapSqlParameterSource()
+                            .addValue("owner", owner)
+                            .addValue("expiresAt", now + leaseMillis)
+                            .addValue("ids", tasks.stream().map(ScrapeTask::id).toList()));
+            return tasks;
+        });
+    }
+
+    /**
+     * Removes finished tasks and returns the functions their cards were queued under, by job
+     * page URL. Tasks whose lease has passed to another worker are left to it.
+     */
+    public Map<String, Set<String>> complete(Collection<Long> ids, String owner) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return transactionTemplate.execute(status -> {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("ids", ids)
+                    .addValue("owner", owner);
+            List<String> urls = jdbcTemplate.queryForList("SELECT job_page_url FROM scrape_tasks " +
+                    "WHERE id IN (:ids) AND lease_owner = :owner FOR UPDATE", params, String.class);
+            if (urls.isEmpty()) {
+                return Map.<String, Set<String>>of();
+            }
+            params.addValue("urls", urls);
+            Map<String, Set<String>> functions = new HashMap<>();
+            jdbcTemplate.query("SELECT job_page_url, job_function FROM scrape_task_functions WHERE job_page_url IN (:urls)",
+                    params, rs -> {
+                        functions.computeIfAbsent(rs.getString("job_page_url"), url -> new HashSet<>())
+                                .add(rs.getString("job_function"));
+                    });
+            jdbcTemplate.update("DELETE FROM scrape_task_functions WHERE job_page_url IN (:urls)", params);
+            jdbcTemplate.update("DELETE FROM scrape_tasks WHERE id IN (:ids) AND lease_owner = :owner", params);
+            return functions;
+        });
+    }
+
+    /**
+     * Releases a task that failed. It is retried from {@code retryAt} on, or marked failed once
+     * it has been claimed {@code maxAttempts} times.
+     */
+    public boolean fail(ScrapeTask task, String owner, String error, long retryAt, int maxAttempts) {
+        return jdbcTemplate.update("UPDATE scrape_tasks SET status = :status, lease_owner = NULL, " +
+                "lease_expires_at = NULL, available_at = :retryAt, last_error = :error " +
+                "WHERE id = :id AND lease_owner = :owner", new MapSqlParameterSource()
+                .addValue("status", task.attempts() >= maxAttempts ? FAILED : PENDING)
+                .addValue("retryAt", retryAt)
+                .addValue("error", StringUtils.abbreviate(error, 1000))
+                .addValue("id", task.id())
+                .addValue("owner", owner)) == 1;
+    }
+
+    public ScrapeQueueStats stats() {
+        Map<String, Long> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT status, count(*) AS tasks FROM scrape_tasks GROUP BY status",
+                rs -> {
+                    counts.put(rs.getString("status"), rs.getLong("tasks"));
+                });
+        return new ScrapeQueueStats(counts.getOrDefault(PENDING, 0L), counts.getOrDefault(LEASED, 0L),
+                counts.getOrDefault(FAILED, 0L));
+    }
+
+    private static MapSqlParameterSource paramsOf(ScrapeTask task, long now) {
+        JobCard card = task.card();
+        return new MapSqlParameterSource()
+                .addValue("jobPageUrl", card.jobUrl())
+                .addValue("jobFunction", task.jobFunction())
+                .addValue("positionName", card.positionName())
+                .addValue("location", card.location())
+                .addValue("postedAt", task.postedAt())
+                .addValue("organizationName", card.organizationName())
+                .addValue("organizationUrl", card.organizationUrl())
+                .addValue("organizationLogo", card.organizationLogo())
+                .addValue("now", now);
+    }
+
+    // Runs the statement for each row and returns the number of rows changed
+    private int updated(List<SqlParameterSource> rows, String sql) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        int changed = 0;
+        for (int count : jdbcTemplate.batchUpdate(sql, rows.toArray(SqlParameterSource[]::new))) {
+            changed += Math.max(count, 0);
+        }
+        return changed;
+    }
+}
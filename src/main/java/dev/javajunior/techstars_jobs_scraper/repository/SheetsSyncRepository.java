@@ -0,0 +1,90 @@
+package dev.javajunior.techstars_jobs_scraper.repository;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * State of the Google Sheets sync: one row per target sheet in {@code sheets_sync_state}, and the
+ * jobs appended to it in {@code sheets_synced_jobs}.
+ */
+@Repository
+public class SheetsSyncRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    public SheetsSyncRepository(NamedParameterJdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/sheets-sync.sql")).execute(dataSource);
+    }
+
+    /**
+     * Returns the highest job id synced to {@code target}, or null before its first sync.
+     */
+    public Long findLastJobId(String target) {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT last_job_id FROM sheets_sync_state WHERE target = :target",
+                new MapSqlParameterSource("target", target), Long.class);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    /**
+     * Ids of up to {@code limit} jobs not yet synced to {@code target}, lowest first.
+     */
+    public List<Long> findUnsyncedJobIds(String target, int limit) {
+        return jdbcTemplate.queryForList("SELECT j.id FROM jobs j WHERE NOT EXISTS (" +
+                        "SELECT 1 FROM sheets_synced_jobs s WHERE s.target = :target AND s.job_id = j.id) " +
+                        "ORDER BY j.id LIMIT :limit",
+                new MapSqlParameterSource("target", target).addValue("limit", limit), Long.class);
+    }
+
+    /**
+     * Records the jobs as synced to {@code target}. Returns the number that were not recorded
+     * yet; fewer than given means another sync sent some of them as well.
+     */
+    @Transactional
+    public int markSynced(String target, List<Long> jobIds) {
+        if (jobIds.isEmpty()) {
+            return 0;
+        }
+        SqlParameterSource[] rows = jobIds.stream()
+                .map(id -> new MapSqlParameterSource("target", target).addValue("jobId", id))
+                .toArray(SqlParameterSource[]::new);
+        int[] counts = jdbcTemplate.batchUpdate("INSERT INTO sheets_synced_jobs (target, job_id) " +
+                "VALUES (:target, :jobId) ON CONFLICT DO NOTHING", rows);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("target", target)
+                .addValue("lastJobId", Collections.max(jobIds))
+                .addValue("now", System.currentTimeMillis());
+        String update = "UPDATE sheets_sync_state SET last_job_id = GREATEST(last_job_id, :lastJobId), " +
+                "synced_at = :now WHERE target = :target";
+        if (jdbcTemplate.update(update, params) == 0
+                && jdbcTemplate.update("INSERT INTO sheets_sync_state (target, last_job_id, synced_at) " +
+                "VALUES (:target, :lastJobId, :now) ON CONFLICT DO NOTHING", params) == 0) {
+            // Inserted by a concurrent sync in the meantime
+            jdbcTemplate.update(update, params);
+        }
+        return IntStream.of(counts).map(count -> Math.max(count, 0)).sum();
+    }
+
+    public void reset(String target) {
+        MapSqlParameterSource params = new MapSqlParameterSource("target", target);
+        jdbcTemplate.update("DELETE FROM sheets_synced_jobs WHERE target = :target", params);
+        jdbcTemplate.update("DELETE FROM sheets_sync_state WHERE target = :target", params);
+    }
+}
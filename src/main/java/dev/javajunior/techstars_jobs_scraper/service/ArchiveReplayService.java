@@ -0,0 +1,196 @@
+package dev.javajunior.techstars_jobs_scraper.service;
+
+import dev.javajunior.techstars_jobs_scraper.component.AsyncJobProcessor;
+import dev.javajunior.techstars_jobs_scraper.component.JobBatchWriter;
+import dev.javajunior.techstars_jobs_scraper.component.JobCardExtractor;
+import dev.javajunior.techstars_jobs_scraper.component.ListingCrawler;
+import dev.javajunior.techstars_jobs_scraper.component.OrganizationResolver;
+import dev.javajunior.techstars_jobs_scraper.component.PageArchive;
+import dev.javajunior.techstars_jobs_scraper.dto.ArchivedPage;
+import dev.javajunior.techstars_jobs_scraper.dto.JobCard;
+import dev.javajunior.techstars_jobs_scraper.dto.JobSyncState;
+import dev.javajunior.techstars_jobs_scraper.dto.ParsedJob;
+import dev.javajunior.techstars_jobs_scraper.dto.ReplayResult;
+import dev.javajunior.techstars_jobs_scraper.model.Job;
+import dev.javajunior.techstars_jobs_scraper.model.Organization;
+import dev.javajunior.techstars_jobs_scraper.repository.JobRepository;
+import dev.javajunior.techstars_jobs_scraper.repository.PageArchiveRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Jsoup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Re-runs extraction over the page archive and updates the stored jobs, without any network
+ * I/O. Cards come from the latest archived listing page that shows them, falling back to the
+ * stored fields, and the rest from the latest archived detail page. Pages are parsed in
+ * parallel on {@code replay-parallelism} threads, all cores by default, against the stored
+ * organizations only; new organizations and logos are written with the jobs.
+ */
+@Service
+@Slf4j
+public class ArchiveReplayService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final PageArchive pageArchive;
+    private final PageArchiveRepository pageArchiveRepository;
+    private final JobCardExtractor jobCardExtractor;
+    private final AsyncJobProcessor asyncJobProcessor;
+    private final OrganizationResolver organizationResolver;
+    private final JobRepository jobRepository;
+    private final JobBatchWriter jobBatchWriter;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${app.scraping.archive.replay-parallelism:0}")
+    private int parallelism;
+
+    public ArchiveReplayService(PageArchive pageArchive,
+                                PageArchiveRepository pageArchiveRepository,
+                                JobCardExtractor jobCardExtractor,
+                                AsyncJobProcessor asyncJobProcessor,
+                                OrganizationResolver organizationResolver,
+                                JobRepository jobRepository,
+                                JobBatchWriter jobBatchWriter) {
+        this.pageArchive = pageArchive;
+        this.pageArchiveRepository = pageArchiveRepository;
+        this.jobCardExtractor = jobCardExtractor;
+        this.asyncJobProcessor = asyncJobProcessor;
+        this.organizationResolver = organizationResolver;
+        this.jobRepository = jobRepository;
+        this.jobBatchWriter = jobBatchWriter;
+    }
+
+    /**
+     * Replays the whole archive. Jobs whose re-extracted content differs from the stored one
+     * are rewritten; jobs without an archived detail page, or whose page body is missing, are
+     * left alone.
+     */
+    public ReplayResult replay() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A replay is already running");
+        }
+        long start = System.currentTimeMillis();
+        ForkJoinPool pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        try {
+            AtomicInteger missing = new AtomicInteger();
+            List<ArchivedPage> listingPages = pageArchiveRepository.findByKind(PageArchive.LISTING);
+            Map<String, JobCard> cardsByUrl = replayListings(pool, listingPages, missing);
+
+            // Oldest first, so the latest fetch of each URL wins
+            Map<String, ArchivedPage> detailPages = new LinkedHashMap<>();
+            pageArchiveRepository.findByKind(PageArchive.DETAIL).forEach(page -> detailPages.put(page.url(), page));
+
+            AtomicInteger replayed = new AtomicInteger();
+            AtomicInteger failed = new AtomicInteger();
+            int updated = 0;
+            List<String> urls = new ArrayList<>(detailPages.keySet());
+            for (int from = 0; from < urls.size(); from += CHUNK_SIZE) {
+                List<String> chunk = urls.subList(from, Math.min(from + CHUNK_SIZE, urls.size()));
+                List<Long> ids = jobRepository.findSyncStates(chunk).stream().map(JobSyncState::id).toList();
+                List<Job> stored = jobRepository.findAllById(ids);
+
+                Map<Long, ParsedJob> changes = new ConcurrentHashMap<>();
+                pool.submit(() -> stored.parallelStream().forEach(job -> {
+                    try {
+                        JobCard archived = cardsByUrl.get(job.getJobPageUrl());
+                        JobCard card = archived != null ? archived : cardOf(job);
+                        Optional<String> jobPage = pageArchive.read(detailPages.get(job.getJobPageUrl()).contentHash());
+                        if (jobPage.isEmpty()) {
+                            missing.incrementAndGet();
+                            return;
+                        }
+                        ParsedJob fresh = asyncJobProcessor.parse(card, job.getLaborFunction(), jobPage.get(),
+                                organizationOf(card));
+                        replayed.incrementAndGet();
+                        if (fresh == null) {
+                            return;
+                        }
+                        if (archived == null) {
+                            // The card was rebuilt from the stored fields, its hash would not match the board's
+                            fresh.job().setCardHash(job.getCardHash());
+                        }
+                        if (!fresh.job().getContentHash().equals(job.getContentHash())) {
+                            changes.put(job.getId(), fresh);
+                        }
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        log.warn("Failed to replay {}: {}", job.getJobPageUrl(), e.getMessage());
+                    }
+                })).join();
+                updated += jobBatchWriter.replaceContentAll(changes);
+            }
+
+            if (missing.get() > 0) {
+                log.warn("{} archived pages are missing their body, was the archive directory cleared?", missing.get());
+            }
+            ReplayResult result = new ReplayResult(listingPages.size(), detailPages.size(), missing.get(), replayed.get(),
+                    updated, failed.get(), System.currentTimeMillis() - start);
+            log.info("Archive replay finished: {}", result);
+            return result;
+        } finally {
+            pool.shutdown();
+            running.set(false);
+        }
+    }
+
+    private Map<String, JobCard> replayListings(ForkJoinPool pool, List<ArchivedPage> pages, AtomicInteger missing) {
+        // Unchanged pages share a blob, parse each blob once
+        Map<String, String> urlsByHash = new HashMap<>();
+        pages.forEach(page -> urlsByHash.putIfAbsent(page.contentHash(), page.url()));
+        Map<String, List<JobCard>> cardsByHash = new ConcurrentHashMap<>();
+        Set<String> missingHashes = ConcurrentHashMap.newKeySet();
+        pool.submit(() -> urlsByHash.entrySet().parallelStream().forEach(blob -> {
+            try {
+                Optional<String> html = pageArchive.read(blob.getKey());
+                if (html.isEmpty()) {
+                    missingHashes.add(blob.getKey());
+                    return;
+                }
+                cardsByHash.put(blob.getKey(), ListingCrawler.selectJobCards(Jsoup.parse(html.get(), blob.getValue())).stream()
+                        .map(jobCardExtractor::extract)
+                        .toList());
+            } catch (IOException e) {
+                log.warn("Failed to read archived listing {}: {}", blob.getValue(), e.getMessage());
+            }
+        })).join();
+
+        Map<String, JobCard> cardsByUrl = new HashMap<>();
+        for (ArchivedPage page : pages) {
+            if (missingHashes.contains(page.contentHash())) {
+                missing.incrementAndGet();
+            }
+            cardsByHash.getOrDefault(page.contentHash(), List.of()).forEach(card -> cardsByUrl.put(card.jobUrl(), card));
+        }
+        return cardsByUrl;
+    }
+
+    // The stored organization, or an unsaved one the writer creates
+    private Organization organizationOf(JobCard card) {
+        return organizationResolver.find(card.organizationName(), card.organizationUrl())
+                .orElseGet(() -> Organization.builder()
+                        .name(card.organizationName())
+                        .url(card.organizationUrl())
+                        .logoUrl(card.organizationLogo())
+                        .build());
+    }
+
+    // The card as it was stored; the posted date is not rewritten, so its text is not needed
+    private static JobCard cardOf(Job job) {
+        return new JobCard(job.getJobPageUrl(), job.getPositionName(), job.getLocation(), null,
+                job.getOrganization().getName(), job.getOrganization().getUrl(), job.getOrganization().getLogoUrl());
+    }
+}
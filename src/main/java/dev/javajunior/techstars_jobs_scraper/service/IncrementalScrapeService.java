@@ -0,0 +1,197 @@
+package dev.javajunior.techstars_jobs_scraper.service;
+
+import dev.javajunior.techstars_jobs_scraper.component.AsyncJobProcessor;
+import dev.javajunior.techstars_jobs_scraper.component.JobBatchWriter;
+import dev.javajunior.techstars_jobs_scraper.component.JobCardExtractor;
+import dev.javajunior.techstars_jobs_scraper.component.JobFingerprint;
+import dev.javajunior.techstars_jobs_scraper.component.ListingCrawler;
+import dev.javajunior.techstars_jobs_scraper.dto.JobCard;
+import dev.javajunior.techstars_jobs_scraper.dto.JobSyncState;
+import dev.javajunior.techstars_jobs_scraper.dto.RefreshResult;
+import dev.javajunior.techstars_jobs_scraper.exception.ScrapingException;
+import dev.javajunior.techstars_jobs_scraper.model.Job;
+import dev.javajunior.techstars_jobs_scraper.repository.JobRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.nodes.Element;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Re-scrapes the configured job functions on a schedule. A card whose hash matches the stored
+ * one costs neither a detail fetch nor a write; a changed card is read again and the row is only
+ * rewritten when the content hash differs. Jobs that dropped off a fully crawled listing are
+ * removed from its function, and closed once no function lists them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IncrementalScrapeService {
+
+    private final ListingCrawler listingCrawler;
+    private final JobCardExtractor jobCardExtractor;
+    private final AsyncJobProcessor asyncJobProcessor;
+    private final JobRepository jobRepository;
+    private final JobBatchWriter jobBatchWriter;
+
+    @Value("${app.scraping.schedule.enabled:false}")
+    private boolean scheduleEnabled;
+
+    @Value("${app.scraping.schedule.job-functions:}")
+    private List<String> jobFunctions;
+
+    // last_seen_at of unchanged jobs is refreshed at most this often, so a cycle over an
+    // unchanged listing writes nothing
+    @Value("${app.scraping.schedule.last-seen-resolution:PT24H}")
+    private Duration lastSeenResolution;
+
+    @Scheduled(fixedDelayString = "${app.scraping.schedule.interval:PT6H}",
+            initialDelayString = "${app.scraping.schedule.initial-delay:PT1M}")
+    public void refreshConfiguredFunctions() {
+        if (!scheduleEnabled) {
+            return;
+        }
+        for (String jobFunction : jobFunctions) {
+            try {
+                refresh(jobFunction);
+            } catch (ScrapingException e) {
+                log.error("Scheduled refresh of {} failed: {}", jobFunction, e.getMessage());
+            }
+        }
+    }
+
+    public RefreshResult refresh(String jobFunction) {
+        long cycleStart = System.currentTimeMillis();
+        long staleBefore = cycleStart - lastSeenResolution.toMillis();
+        Set<String> seenUrls = new HashSet<>();
+        Set<Long> seenIds = new HashSet<>();
+        AtomicInteger cardsFound = new AtomicInteger();
+        AtomicInteger jobsAdded = new AtomicInteger();
+        AtomicInteger jobsUpdated = new AtomicInteger();
+        AtomicInteger jobsUnchanged = new AtomicInteger();
+        AtomicInteger jobsFailed = new AtomicInteger();
+
+        ListingCrawler.Walk walk = listingCrawler.walk(jobFunction, (pageNumber, jobElements) -> {
+            Map<String, JobCard> cardsByUrl = new LinkedHashMap<>();
+            for (Element jobElement : jobElements) {
+                JobCard card = jobCardExtractor.extract(jobElement);
+                if (seenUrls.add(card.jobUrl())) {
+                    cardsByUrl.put(card.jobUrl(), card);
+                }
+            }
+            // A page with nothing new means the board ran out of results and repeats itself
+            if (cardsByUrl.isEmpty()) {
+                return false;
+            }
+            cardsFound.addAndGet(cardsByUrl.size());
+
+            Map<String, JobSyncState> states = jobRepository.findSyncStates(cardsByUrl.keySet()).stream()
+                    .collect(Collectors.toMap(JobSyncState::jobPageUrl, Function.identity()));
+            List<Long> touched = new ArrayList<>();
+            Map<JobCard, String> cardHashes = new HashMap<>();
+            List<JobCard> toFetch = new ArrayList<>();
+            for (JobCard card : cardsByUrl.values()) {
+                String cardHash = JobFingerprint.ofCard(card);
+                JobSyncState state = states.get(card.jobUrl());
+                if (state == null) {
+                    toFetch.add(card);
+                    continue;
+                }
+                seenIds.add(state.id());
+                if (!cardHash.equals(state.cardHash())) {
+                    cardHashes.put(card, cardHash);
+                    toFetch.add(card);
+                    continue;
+                }
+                jobsUnchanged.incrementAndGet();
+                if (state.closed() || state.lastSeenAt() == null || state.lastSeenAt() < staleBefore) {
+                    touched.add(state.id());
+                }
+            }
+            if (!touched.isEmpty()) {
+                jobRepository.markSeen(touched, cycleStart);
+            }
+            // Stored jobs are listed under this function too, also when found under another one first
+            Map<String, Set<String>> knownUrls = new HashMap<>();
+            states.keySet().forEach(url -> knownUrls.put(url, Set.of(jobFunction)));
+            jobBatchWriter.recordFunctions(knownUrls);
+
+            List<Job> added = new ArrayList<>();
+            Map<Long, Job> changed = new LinkedHashMap<>();
+            for (Map.Entry<JobCard, Job> fetched : fetchAll(toFetch, jobFunction).entrySet()) {
+                JobCard card = fetched.getKey();
+                Job job = fetched.getValue();
+                JobSyncState state = states.get(card.jobUrl());
+                if (job == null) {
+                    jobsFailed.incrementAndGet();
+                } else if (state == null) {
+                    added.add(job);
+                } else if (job.getContentHash().equals(state.contentHash())) {
+                    // Only the card moved, e.g. a new logo URL; keep the stored content
+                    jobRepository.updateCardHash(state.id(), cardHashes.get(card), cycleStart);
+                    jobsUnchanged.incrementAndGet();
+                } else {
+                    changed.put(state.id(), job);
+                }
+            }
+            List<Job> saved = jobBatchWriter.writeAll(added);
+            saved.forEach(job -> seenIds.add(job.getId()));
+            jobsAdded.addAndGet(saved.size());
+            jobsUpdated.addAndGet(jobBatchWriter.rewriteAll(changed));
+            log.debug("Page {} of {}: {} cards, {} fetched, {} new, {} changed", pageNumber, jobFunction,
+                    cardsByUrl.size(), toFetch.size(), added.size(), changed.size());
+            return true;
+        });
+
+        int closed = 0;
+        if (walk.complete()) {
+            List<Long> gone = new ArrayList<>(jobRepository.findIdsByJobFunction(jobFunction));
+            gone.removeIf(seenIds::contains);
+            closed = jobBatchWriter.delistAll(gone, jobFunction);
+        } else {
+            log.warn("Listing of {} was not read to the end, no jobs are closed this cycle", jobFunction);
+        }
+
+        RefreshResult result = new RefreshResult(jobFunction, walk.pages(), cardsFound.get(), jobsAdded.get(),
+                jobsUpdated.get(), jobsUnchanged.get(), closed, jobsFailed.get());
+        log.info("Refresh finished in {} ms: {}", System.currentTimeMillis() - cycleStart, result);
+        return result;
+    }
+
+    private Map<JobCard, Job> fetchAll(List<JobCard> cards, String jobFunction) {
+        Map<JobCard, CompletableFuture<Job>> futures = new LinkedHashMap<>();
+        for (JobCard card : cards) {
+            try {
+                futures.put(card, asyncJobProcessor.refreshJobCard(card, jobFunction));
+            } catch (Exception e) {
+                log.error("Error processing job card: {}", e.getMessage(), e);
+                futures.put(card, CompletableFuture.completedFuture(null));
+            }
+        }
+        Map<JobCard, Job> jobs = new LinkedHashMap<>();
+        futures.forEach((card, future) -> {
+            try {
+                jobs.put(card, future.join());
+            } catch (CompletionException e) {
+                log.warn("Failed to read {}: {}", card.jobUrl(), e.getCause().getMessage());
+                jobs.put(card, null);
+            }
+        });
+        return jobs;
+    }
+}
@@ -1,6 +1,14 @@
 package dev.javajunior.techstars_jobs_scraper.service;
 
+import dev.javajunior.techstars_jobs_scraper.component.ApiJobSource;
 import dev.javajunior.techstars_jobs_scraper.component.AsyncJobProcessor;
+import dev.javajunior.techstars_jobs_scraper.component.JobBatchWriter;
+import dev.javajunior.techstars_jobs_scraper.component.JobCardExtractor;
+import dev.javajunior.techstars_jobs_scraper.component.JobUrlIndex;
+import dev.javajunior.techstars_jobs_scraper.component.ListingCrawler;
+import dev.javajunior.techstars_jobs_scraper.component.ScrapingMetrics;
+import dev.javajunior.techstars_jobs_scraper.dto.CrawlResult;
+import dev.javajunior.techstars_jobs_scraper.dto.JobCard;
 import dev.javajunior.techstars_jobs_scraper.connector.JsoupWrapper;
 import dev.javajunior.techstars_jobs_scraper.exception.ScrapingException;
 import dev.javajunior.techstars_jobs_scraper.model.Job;
@@ -11,13 +19,24 @@ import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -25,13 +44,28 @@ import java.util.concurrent.ExecutionException;
 public class JobScraperService {
 
     private final AsyncJobProcessor asyncJobProcessor;
+    private final JobCardExtractor jobCardExtractor;
     private final JsoupWrapper jsoupWrapper;
+    private final JobUrlIndex jobUrlIndex;
+    private final ListingCrawler listingCrawler;
+    private final JobBatchWriter jobBatchWriter;
+    private final ApiJobSource apiJobSource;
+    private final ScrapingMetrics scrapingMetrics;
 
     @Value("${app.scraping.base-url}")
     private String baseUrl;
 
-    @Transactional
+    @Value("${app.scraping.crawl.max-in-flight-cards:50}")
+    private int maxInFlightCards;
+
+    // html: listing and detail pages, api: the board's JSON search endpoint
+    @Value("${app.scraping.source:html}")
+    private String source;
+
     public List<Job> scrapeJobsByFunction(String jobFunction) {
+        if (isApiSource()) {
+            return apiJobSource.scrape(jobFunction);
+        }
         try {
             // Direct URL to the jobs page with the function filter
             String url = baseUrl + "?q=" + jobFunction.replace(" ", "+");
@@ -40,23 +74,29 @@ public class JobScraperService {
             Document doc = jsoupWrapper.connect(url);
 
             // Find all job cards
-            Elements jobElements = doc.select("div[data-testid='job-card'], div.job-card, article.job-card");
-            if (jobElements.isEmpty()) {
-                // Try alternative selectors
-                jobElements = doc.select("div[class*='job-listing'], div[class*='job-item'], article[class*='job']");
-            }
+            Elements jobElements = ListingCrawler.selectJobCards(doc);
 
             if (jobElements.isEmpty()) {
                 return Collections.emptyList();
             }
 
-            List<CompletableFuture<Job>> jobFutures = new ArrayList<>();
+            // Drop cards that are already stored before any async work is scheduled
+            Map<String, JobCard> cardsByUrl = new LinkedHashMap<>();
             for (Element jobElement : jobElements) {
+                JobCard card = jobCardExtractor.extract(jobElement);
+                cardsByUrl.putIfAbsent(card.jobUrl(), card);
+            }
+            Set<String> newUrls = jobUrlIndex.filterUnknown(cardsByUrl.keySet());
+            scrapingMetrics.cardsSkipped(cardsByUrl.size() - newUrls.size());
+            log.debug("Found {} job cards, {} of them are new", jobElements.size(), newUrls.size());
+
+            List<CompletableFuture<Job>> jobFutures = new ArrayList<>();
+            for (String jobUrl : newUrls) {
                 try {
-                    CompletableFuture<Job> jobFuture = asyncJobProcessor.processJobElement(jobElement, jobFunction);
+                    CompletableFuture<Job> jobFuture = asyncJobProcessor.processJobCard(cardsByUrl.get(jobUrl), jobFunction);
                     jobFutures.add(jobFuture);
                 } catch (Exception e) {
-                    log.error("Error processing job element: {}", e.getMessage(), e);
+                    log.error("Error processing job card: {}", e.getMessage(), e);
                 }
             }
 
@@ -73,10 +113,203 @@ public class JobScraperService {
                 }
             }
 
-            return jobs;
+            return jobBatchWriter.writeAll(jobs);
         } catch (Exception e) {
             log.error("Error scraping jobs for function {}: {}", jobFunction, e.getMessage(), e);
             throw new ScrapingException("Failed to scrape jobs: " + e.getMessage(), e);
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Walks every result page of the function. Cards are handed to the processor as each page
+     * arrives; once {@code max-in-flight-cards} are being processed the crawl waits before
+     * fetching more pages.
+     */
+    public CrawlResult crawlJobsByFunction(String jobFunction) {
+        return crawlJobsByFunction(jobFunction, job -> { }, () -> false);
+    }
+
+    /**
+     * Crawl that reports every stored job to {@code onSaved}. Once {@code cancelled} returns
+     * true no further pages or cards are scheduled; cards already being processed are still written.
+     */
+    public CrawlResult crawlJobsByFunction(String jobFunction, Consumer<Job> onSaved, BooleanSupplier cancelled) {
+        return crawlJobsByFunctions(List.of(jobFunction), onSaved, cancelled).get(0);
+    }
+
+    public List<CrawlResult> crawlJobsByFunctions(List<String> jobFunctions) {
+        return crawlJobsByFunctions(jobFunctions, job -> { }, () -> false);
+    }
+
+    /**
+     * Crawls the listings of several functions at once. A card listed under more than one
+     * function is fetched only by the function that reaches it first; the others count it as
+     * skipped, and every function a job was seen under ends up in its {@code job_functions}.
+     * Returns one result per distinct function, in the given order.
+     */
+    public List<CrawlResult> crawlJobsByFunctions(List<String> jobFunctions, Consumer<Job> onSaved, BooleanSupplier cancelled) {
+        List<String> functions = jobFunctions.stream().map(String::trim).filter(fn -> !fn.isEmpty()).distinct().toList();
+        if (functions.isEmpty()) {
+            throw new IllegalArgumentException("No job function given");
+        }
+        if (isApiSource()) {
+            return functions.stream().map(fn -> apiJobSource.crawl(fn, onSaved, cancelled)).toList();
+        }
+
+        Semaphore inFlight = new Semaphore(maxInFlightCards);
+        // Every card seen so far, with the functions it was listed under; the first one claims the fetch
+        Map<String, Set<String>> functionsByUrl = new ConcurrentHashMap<>();
+        Map<String, FunctionCrawl> crawls = new LinkedHashMap<>();
+        functions.forEach(fn -> crawls.put(fn, new FunctionCrawl(fn)));
+        JobBatchWriter.Buffer writeBuffer = jobBatchWriter.openBuffer(job -> {
+            crawls.get(job.getLaborFunction()).jobsSaved.incrementAndGet();
+            onSaved.accept(job);
+        });
+
+        RuntimeException failure = null;
+        if (crawls.size() == 1) {
+            FunctionCrawl crawl = crawls.values().iterator().next();
+            crawl.pages = crawlFunction(crawl, functionsByUrl, inFlight, writeBuffer, cancelled);
+        } else {
+            // The walkers only wait on page fetches and in-flight permits, so a virtual thread each is enough
+            try (ExecutorService walkers = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> walks = new ArrayList<>();
+                for (FunctionCrawl crawl : crawls.values()) {
+                    walks.add(walkers.submit(() -> {
+                        crawl.pages = crawlFunction(crawl, functionsByUrl, inFlight, writeBuffer, cancelled);
+                    }));
+                }
+                for (Future<?> walk : walks) {
+                    try {
+                        walk.get();
+                    } catch (ExecutionException e) {
+                        if (failure == null) {
+                            failure = e.getCause() instanceof RuntimeException runtime ? runtime
+                                    : new ScrapingException("Crawl failed: " + e.getCause().getMessage(), e.getCause());
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new ScrapingException("Crawl interrupted", e);
+                    }
+                }
+            }
+        }
+
+        // Wait for the cards still being processed, then write what is left
+        acquire(inFlight, maxInFlightCards);
+        inFlight.release(maxInFlightCards);
+        writeBuffer.flush();
+        int functionsAdded = jobBatchWriter.recordFunctions(functionsByUrl);
+        if (failure != null) {
+            throw failure;
+        }
+
+        List<CrawlResult> results = crawls.values().stream().map(FunctionCrawl::result).toList();
+        if (results.size() > 1) {
+            long shared = functionsByUrl.values().stream().filter(fns -> fns.size() > 1).count();
+            log.info("Crawl of {} finished: {} cards listed under more than one function, {} job functions added",
+                    functions, shared, functionsAdded);
+        }
+        results.forEach(result -> log.info("Crawl finished: {}", result));
+        return results;
+    }
+
+    private int crawlFunction(FunctionCrawl crawl, Map<String, Set<String>> functionsByUrl, Semaphore inFlight,
+                              JobBatchWriter.Buffer writeBuffer, BooleanSupplier cancelled) {
+        String jobFunction = crawl.jobFunction;
+        Set<String> seenUrls = new HashSet<>();
+        return listingCrawler.crawl(jobFunction, (pageNumber, jobElements) -> {
+            if (cancelled.getAsBoolean()) {
+                log.info("Crawl of {} cancelled at page {}", jobFunction, pageNumber);
+                return false;
+            }
+            Map<String, JobCard> cardsByUrl = new LinkedHashMap<>();
+            Map<String, JobCard> claimedByUrl = new LinkedHashMap<>();
+            for (Element jobElement : jobElements) {
+                JobCard card = jobCardExtractor.extract(jobElement);
+                if (seenUrls.add(card.jobUrl())) {
+                    cardsByUrl.put(card.jobUrl(), card);
+                    Set<String> listedUnder = ConcurrentHashMap.newKeySet();
+                    listedUnder.add(jobFunction);
+                    Set<String> claimed = functionsByUrl.putIfAbsent(card.jobUrl(), listedUnder);
+                    if (claimed == null) {
+                        claimedByUrl.put(card.jobUrl(), card);
+                    } else {
+                        claimed.add(jobFunction);
+                    }
+                }
+            }
+            // A page with nothing new means the board ran out of results and repeats itself
+            if (cardsByUrl.isEmpty()) {
+                return false;
+            }
+
+            Set<String> newUrls = claimedByUrl.isEmpty() ? Set.of() : jobUrlIndex.filterUnknown(claimedByUrl.keySet());
+            crawl.cardsFound.addAndGet(cardsByUrl.size());
+            crawl.cardsSkipped.addAndGet(cardsByUrl.size() - newUrls.size());
+            scrapingMetrics.cardsSkipped(cardsByUrl.size() - newUrls.size());
+            log.debug("Page {} of {}: {} cards, {} claimed by another function, {} new", pageNumber, jobFunction,
+                    cardsByUrl.size(), cardsByUrl.size() - claimedByUrl.size(), newUrls.size());
+
+            for (String jobUrl : newUrls) {
+                if (cancelled.getAsBoolean()) {
+                    break;
+                }
+                acquire(inFlight, 1);
+                try {
+                    asyncJobProcessor.processJobCard(claimedByUrl.get(jobUrl), jobFunction)
+                            .whenComplete((job, e) -> {
+                                try {
+                                    if (e != null) {
+                                        crawl.jobsFailed.incrementAndGet();
+                                    } else if (job != null) {
+                                        job.setJobFunctions(new HashSet<>(functionsByUrl.get(jobUrl)));
+                                        writeBuffer.add(job);
+                                    }
+                                } catch (Exception writeError) {
+                                    log.error("Error saving jobs: {}", writeError.getMessage(), writeError);
+                                } finally {
+                                    inFlight.release();
+                                }
+                            });
+                } catch (Exception e) {
+                    log.error("Error processing job card: {}", e.getMessage(), e);
+                    crawl.jobsFailed.incrementAndGet();
+                    inFlight.release();
+                }
+            }
+            return true;
+        });
+    }
+
+    private boolean isApiSource() {
+        return "api".equalsIgnoreCase(source);
+    }
+
+    private void acquire(Semaphore semaphore, int permits) {
+        try {
+            semaphore.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScrapingException("Crawl interrupted", e);
+        }
+    }
+
+    private static final class FunctionCrawl {
+        private final String jobFunction;
+        private final AtomicInteger cardsFound = new AtomicInteger();
+        private final AtomicInteger cardsSkipped = new AtomicInteger();
+        private final AtomicInteger jobsSaved = new AtomicInteger();
+        private final AtomicInteger jobsFailed = new AtomicInteger();
+        private volatile int pages;
+
+        private FunctionCrawl(String jobFunction) {
+            this.jobFunction = jobFunction;
+        }
+
+        private CrawlResult result() {
+            return new CrawlResult(jobFunction, pages, cardsFound.get(), cardsSkipped.get(), jobsSaved.get(),
+                    jobsFailed.get());
+        }
+    }
+}
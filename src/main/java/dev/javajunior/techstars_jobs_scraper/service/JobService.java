@@ -1,25 +1,119 @@
 package dev.javajunior.techstars_jobs_scraper.service;
 
+import dev.javajunior.techstars_jobs_scraper.dto.CursorPage;
+import dev.javajunior.techstars_jobs_scraper.dto.FacetFilter;
+import dev.javajunior.techstars_jobs_scraper.dto.JobCursor;
+import dev.javajunior.techstars_jobs_scraper.dto.JobExportRow;
+import dev.javajunior.techstars_jobs_scraper.dto.JobFacets;
 import dev.javajunior.techstars_jobs_scraper.dto.JobFilter;
-import dev.javajunior.techstars_jobs_scraper.model.Job;
+import dev.javajunior.techstars_jobs_scraper.dto.JobListingRow;
+import dev.javajunior.techstars_jobs_scraper.repository.JobFacetRepository;
 import dev.javajunior.techstars_jobs_scraper.repository.JobRepository;
+import dev.javajunior.techstars_jobs_scraper.repository.JobSearchRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class JobService {
     private final JobRepository jobRepository;
+    private final JobSearchRepository jobSearchRepository;
+    private final JobFacetRepository jobFacetRepository;
 
-    public Page<Job> getJobs(JobFilter filter, Pageable pageable) {
-        return jobRepository.findByLocation(filter.location(), pageable);
+    public Page<JobListingRow> getJobs(JobFilter filter, Pageable pageable) {
+        return jobRepository.findListingsByLocation(filter.location(), pageable);
     }
 
-    public List<Job> getJobsForExport(String location, int limit) {
-        return jobRepository.findByLocation(location, limit);
+    /**
+     * Keyset-paginated variant of {@link #getJobs}, newest jobs first. Pass the decoded
+     * {@code nextCursor} of the previous page to continue. The total count is only queried when
+     * {@code includeTotal} is set.
+     */
+    public CursorPage<JobListingRow> getJobsAfter(String location, JobCursor after, int size, boolean includeTotal) {
+        // One extra row tells whether there is a next page
+        Limit limit = Limit.of(size + 1);
+        List<JobListingRow> jobs;
+        if (after == null) {
+            jobs = jobRepository.findLatest(location, limit);
+        } else {
+            jobs = jobRepository.findLatestAfter(location, after.postedDate(), after.id(), limit);
+        }
+
+        String nextCursor = null;
+        if (jobs.size() > size) {
+            jobs = jobs.subList(0, size);
+            JobListingRow last = jobs.get(size - 1);
+            nextCursor = new JobCursor(last.postedDate(), last.id()).encode();
+        }
+        Long total = includeTotal ? jobRepository.countByLocation(location) : null;
+        return new CursorPage<>(jobs, nextCursor, total);
+    }
+
+    /**
+     * Returns the jobs matching {@code query}, most relevant first. Ranked results have no cheap
+     * total count, so a slice is returned instead of a page.
+     */
+    public Slice<JobListingRow> searchJobs(String query, Pageable pageable) {
+        // One extra id tells whether there is a next slice
+        List<Long> ids = jobSearchRepository.search(query, pageable.getOffset(), pageable.getPageSize() + 1);
+        boolean hasNext = ids.size() > pageable.getPageSize();
+        if (hasNext) {
+            ids = ids.subList(0, pageable.getPageSize());
+        }
+
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
+        }
+        List<JobListingRow> jobs = ids.isEmpty() ? List.of() : jobRepository.findListingsByIds(ids).stream()
+                .sorted(Comparator.comparing(job -> rank.get(job.id())))
+                .toList();
+        return new SliceImpl<>(jobs, pageable, hasNext);
+    }
+
+    /**
+     * Job counts per location, job type, experience level, remote flag, organization, labor
+     * function and tag, the {@code size} largest of each. Without a filter they are read from the
+     * stored counts; with one they are grouped from the matching jobs.
+     */
+    public JobFacets getFacets(FacetFilter filter, int size) {
+        return filter.isEmpty() ? jobFacetRepository.findAll(size) : jobFacetRepository.findMatching(filter, size);
+    }
+
+    /**
+     * Streams the export rows to {@code consumer} while the cursor is open. A {@code null} limit
+     * exports every matching job.
+     */
+    @Transactional(readOnly = true)
+    public void streamJobsForExport(String location, Integer limit, Consumer<JobExportRow> consumer) {
+        try (Stream<JobExportRow> rows = jobRepository.streamForExport(location,
+                limit != null ? Limit.of(limit) : Limit.unlimited())) {
+            rows.forEach(consumer);
+        }
+    }
+
+    /**
+     * Streams the listing rows, organization and tags included, to {@code consumer} while the
+     * cursor is open. A {@code null} limit exports every matching job.
+     */
+    @Transactional(readOnly = true)
+    public void streamListingsForExport(String location, Integer limit, Consumer<JobListingRow> consumer) {
+        try (Stream<JobListingRow> rows = jobRepository.streamListings(location,
+                limit != null ? Limit.of(limit) : Limit.unlimited())) {
+            rows.forEach(consumer);
+        }
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
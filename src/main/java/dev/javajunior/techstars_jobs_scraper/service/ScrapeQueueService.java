@@ -0,0 +1,252 @@
+package dev.javajunior.techstars_jobs_scraper.service;
+
+import dev.javajunior.techstars_jobs_scraper.component.AsyncJobProcessor;
+import dev.javajunior.techstars_jobs_scraper.component.JobBatchWriter;
+import dev.javajunior.techstars_jobs_scraper.component.JobCardExtractor;
+import dev.javajunior.techstars_jobs_scraper.component.JobUrlIndex;
+import dev.javajunior.techstars_jobs_scraper.component.ListingCrawler;
+import dev.javajunior.techstars_jobs_scraper.component.ScrapingMetrics;
+import dev.javajunior.techstars_jobs_scraper.dto.EnqueueResult;
+import dev.javajunior.techstars_jobs_scraper.dto.JobCard;
+import dev.javajunior.techstars_jobs_scraper.dto.ScrapeQueueStats;
+import dev.javajunior.techstars_jobs_scraper.dto.ScrapeTask;
+import dev.javajunior.techstars_jobs_scraper.model.Job;
+import dev.javajunior.techstars_jobs_scraper.repository.ScrapeTaskRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.nodes.Element;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scrapes through the shared {@code scrape_tasks} queue instead of the in-memory executor
+ * queue. Enqueueing walks the listing and stores one task per new card; workers on every
+ * instance with {@code app.scraping.queue.enabled} claim batches of tasks, fetch and write the
+ * jobs, and remove the tasks. Queued work survives restarts and more instances drain it faster.
+ */
+@Service
+@Slf4j
+public class ScrapeQueueService {
+
+    private final ScrapeTaskRepository scrapeTaskRepository;
+    private final ListingCrawler listingCrawler;
+    private final JobCardExtractor jobCardExtractor;
+    private final JobUrlIndex jobUrlIndex;
+    private final AsyncJobProcessor asyncJobProcessor;
+    private final JobBatchWriter jobBatchWriter;
+    private final ScrapingMetrics scrapingMetrics;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    @Value("${app.scraping.queue.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.scraping.queue.workers:2}")
+    private int workerCount;
+
+    @Value("${app.scraping.queue.claim-size:10}")
+    private int claimSize;
+
+    @Value("${app.scraping.queue.lease-timeout:PT5M}")
+    private Duration leaseTimeout;
+
+    @Value("${app.scraping.queue.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.scraping.queue.retry-delay:PT30S}")
+    private Duration retryDelay;
+
+    @Value("${app.scraping.queue.poll-interval:PT5S}")
+    private Duration pollInterval;
+
+    @Value("${app.scraping.queue.instance-id:}")
+    private String instanceId;
+
+    public ScrapeQueueService(ScrapeTaskRepository scrapeTaskRepository,
+                              ListingCrawler listingCrawler,
+                              JobCardExtractor jobCardExtractor,
+                              JobUrlIndex jobUrlIndex,
+                              AsyncJobProcessor asyncJobProcessor,
+                              JobBatchWriter jobBatchWriter,
+                              ScrapingMetrics scrapingMetrics) {
+        this.scrapeTaskRepository = scrapeTaskRepository;
+        this.listingCrawler = listingCrawler;
+        this.jobCardExtractor = jobCardExtractor;
+        this.jobUrlIndex = jobUrlIndex;
+        this.asyncJobProcessor = asyncJobProcessor;
+        this.jobBatchWriter = jobBatchWriter;
+        this.scrapingMetrics = scrapingMetrics;
+    }
+
+    /**
+     * Walks the listing of the function and queues a task for every card that is not stored yet.
+     * Cards already queued under another function get this one added to their task, and failed
+     * tasks are queued again. Stored jobs get the function recorded right away.
+     */
+    public EnqueueResult enqueue(String jobFunction) {
+        Set<String> seenUrls = new HashSet<>();
+        AtomicInteger cardsFound = new AtomicInteger();
+        AtomicInteger tasksEnqueued = new AtomicInteger();
+
+        int pages = listingCrawler.crawl(jobFunction, (pageNumber, jobElements) -> {
+            Map<String, JobCard> cardsByUrl = new LinkedHashMap<>();
+            for (Element jobElement : jobElements) {
+                JobCard card = jobCardExtractor.extract(jobElement);
+                if (seenUrls.add(card.jobUrl())) {
+                    cardsByUrl.put(card.jobUrl(), card);
+                }
+            }
+            if (cardsByUrl.isEmpty()) {
+                return false;
+            }
+
+            Set<String> newUrls = jobUrlIndex.filterUnknown(cardsByUrl.keySet());
+            cardsFound.addAndGet(cardsByUrl.size());
+            scrapingMetrics.cardsSkipped(cardsByUrl.size() - newUrls.size());
+            tasksEnqueued.addAndGet(scrapeTaskRepository.enqueue(newUrls.stream()
+                    .map(url -> taskOf(jobFunction, cardsByUrl.get(url)))
+                    .toList()));
+
+            Map<String, Set<String>> knownUrls = new HashMap<>();
+            cardsByUrl.keySet().stream().filter(url -> !newUrls.contains(url))
+                    .forEach(url -> knownUrls.put(url, Set.of(jobFunction)));
+            jobBatchWriter.recordFunctions(knownUrls);
+            return true;
+        });
+
+        EnqueueResult result = new EnqueueResult(jobFunction, pages, cardsFound.get(), tasksEnqueued.get());
+        log.info("Enqueued: {}", result);
+        return result;
+    }
+
+    /**
+     * Claims one batch of tasks for {@code workerId} and processes it. Returns the number of
+     * tasks claimed, 0 when the queue has nothing to hand out.
+     */
+    public int runOnce(String workerId) {
+        List<ScrapeTask> tasks = scrapeTaskRepository.claim(workerId, claimSize, leaseTimeout.toMillis(), maxAttempts);
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+
+        Map<ScrapeTask, CompletableFuture<Job>> processing = new LinkedHashMap<>();
+        for (ScrapeTask task : tasks) {
+            try {
+                processing.put(task, asyncJobProcessor.processJobCard(task.card(), task.jobFunction()));
+            } catch (Exception e) {
+                processing.put(task, CompletableFuture.failedFuture(e));
+            }
+        }
+
+        List<Job> jobs = new ArrayList<>();
+        List<Long> done = new ArrayList<>();
+        processing.forEach((task, future) -> {
+            try {
+                Job job = future.join();
+                if (job != null) {
+                    if (task.postedAt() != null) {
+                        job.setPostedDate(task.postedAt());
+                    }
+                    jobs.add(job);
+                }
+                done.add(task.id());
+            } catch (CompletionException e) {
+                String error = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+                long retryAt = System.currentTimeMillis() + retryDelay.toMillis() * task.attempts();
+                scrapeTaskRepository.fail(task, workerId, error, retryAt, maxAttempts);
+                log.warn("Task for {} failed on attempt {}: {}", task.card().jobUrl(), task.attempts(), error);
+            }
+        });
+
+        // A crash before this point leaves the tasks leased, and another worker retries them once the lease expires
+        jobBatchWriter.writeAll(jobs);
+        // The other functions the cards were queued under; if this is lost, the next enqueue of those
+        // functions records them on the stored jobs
+        jobBatchWriter.recordFunctions(scrapeTaskRepository.complete(done, workerId));
+        log.debug("Worker {} processed {} tasks, {} jobs", workerId, tasks.size(), jobs.size());
+        return tasks.size();
+    }
+
+    public ScrapeQueueStats stats() {
+        return scrapeTaskRepository.stats();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        String instance = instanceId.isBlank() ? defaultInstanceId() : instanceId;
+        for (int i = 1; i <= workerCount; i++) {
+            String workerId = instance + "-" + i;
+            Thread worker = new Thread(() -> work(workerId), "ScrapeQueue-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Started {} scrape queue workers as {}", workerCount, instance);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        workers.clear();
+    }
+
+    private void work(String workerId) {
+        while (running) {
+            try {
+                if (runOnce(workerId) == 0) {
+                    Thread.sleep(pollInterval.toMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Scrape queue worker {} failed: {}", workerId, e.getMessage(), e);
+                try {
+                    Thread.sleep(pollInterval.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // The card shows the posted date relative to today, so it is parsed now rather than when the task runs
+    private ScrapeTask taskOf(String jobFunction, JobCard card) {
+        long postedAt = jobCardExtractor.parsePostedDate(card.postedDate())
+                .atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return new ScrapeTask(null, jobFunction, card, postedAt, 0);
+    }
+
+    private static String defaultInstanceId() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        try {
+            return InetAddress.getLocalHost().getHostName() + "-" + suffix;
+        } catch (UnknownHostException e) {
+            return suffix;
+        }
+    }
+}
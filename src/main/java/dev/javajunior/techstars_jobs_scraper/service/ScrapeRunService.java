@@ -0,0 +1,211 @@
+package dev.javajunior.techstars_jobs_scraper.service;
+
+import dev.javajunior.techstars_jobs_scraper.dto.CrawlResult;
+import dev.javajunior.techstars_jobs_scraper.dto.JobResponse;
+import dev.javajunior.techstars_jobs_scraper.dto.ScrapeRunStatus;
+import dev.javajunior.techstars_jobs_scraper.dto.ScrapeRunStatus.State;
+import dev.javajunior.techstars_jobs_scraper.exception.ScrapingException;
+import dev.javajunior.techstars_jobs_scraper.model.Job;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs scrapes in the background so the request that starts one returns at once. A run can be
+ * polled, streamed as server-sent events or cancelled, and is kept in memory for
+ * {@code app.scraping.runs.retention} after it finishes.
+ */
+@Service
+@Slf4j
+public class ScrapeRunService {
+
+    private final JobScraperService jobScraperService;
+    private final AsyncTaskExecutor scrapeRunExecutor;
+    private final Map<String, Run> runs = new ConcurrentHashMap<>();
+
+    @Value("${app.scraping.runs.retention:PT1H}")
+    private Duration retention;
+
+    @Value("${app.scraping.runs.sse-timeout:PT30M}")
+    private Duration sseTimeout;
+
+    public ScrapeRunService(JobScraperService jobScraperService,
+                            @Qualifier("scrapeRunExecutor") AsyncTaskExecutor scrapeRunExecutor) {
+        this.jobScraperService = jobScraperService;
+        this.scrapeRunExecutor = scrapeRunExecutor;
+    }
+
+    /**
+     * Queues a crawl of the function and returns its status. Throws {@link ScrapingException}
+     * when {@code max-concurrent} runs are busy and the queue is full.
+     */
+    public ScrapeRunStatus start(String jobFunction) {
+        evictFinished();
+        Run run = new Run(UUID.randomUUID().toString(), jobFunction);
+        runs.put(run.id, run);
+        try {
+            scrapeRunExecutor.execute(() -> execute(run));
+        } catch (TaskRejectedException e) {
+            runs.remove(run.id);
+            throw new ScrapingException("Too many scrape runs in progress", e);
+        }
+        log.info("Queued scrape run {} for {}", run.id, jobFunction);
+        return run.status();
+    }
+
+    public Optional<ScrapeRunStatus> getStatus(String runId) {
+        return Optional.ofNullable(runs.get(runId)).map(Run::status);
+    }
+
+    /**
+     * Asks the run to stop. It stops scheduling pages and cards; jobs already being processed
+     * are still written before the run ends as {@code CANCELLED}.
+     */
+    public Optional<ScrapeRunStatus> cancel(String runId) {
+        Run run = runs.get(runId);
+        if (run == null) {
+            return Optional.empty();
+        }
+        run.cancelRequested.set(true);
+        return Optional.of(run.status());
+    }
+
+    /**
+     * Streams a {@code job} event per stored job and a final {@code status} event. A finished
+     * run only gets the status event.
+     */
+    public Optional<SseEmitter> subscribe(String runId) {
+        Run run = runs.get(runId);
+        if (run == null) {
+            return Optional.empty();
+        }
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        emitter.onCompletion(() -> run.emitters.remove(emitter));
+        emitter.onTimeout(() -> run.emitters.remove(emitter));
+        emitter.onError(e -> run.emitters.remove(emitter));
+
+        ScrapeRunStatus finished = null;
+        synchronized (run) {
+            if (run.state.isFinished()) {
+                finished = run.status();
+            } else {
+                run.emitters.add(emitter);
+            }
+        }
+        if (finished != null) {
+            sendStatus(emitter, finished);
+        }
+        return Optional.of(emitter);
+    }
+
+    private void execute(Run run) {
+        if (run.cancelRequested.get()) {
+            run.finish(State.CANCELLED, null, null);
+            return;
+        }
+        run.start();
+        try {
+            CrawlResult result = jobScraperService.crawlJobsByFunction(run.jobFunction, run::onSaved,
+                    run.cancelRequested::get);
+            run.finish(run.cancelRequested.get() ? State.CANCELLED : State.SUCCEEDED, result, null);
+        } catch (Exception e) {
+            log.error("Scrape run {} for {} failed: {}", run.id, run.jobFunction, e.getMessage(), e);
+            run.finish(State.FAILED, null, e.getMessage());
+        }
+    }
+
+    private void evictFinished() {
+        Instant cutoff = Instant.now().minus(retention);
+        runs.values().removeIf(run -> run.finishedAt != null && run.finishedAt.isBefore(cutoff));
+    }
+
+    private static void sendStatus(SseEmitter emitter, ScrapeRunStatus status) {
+        try {
+            emitter.send(SseEmitter.event().name("status").data(status));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private final class Run {
+        private final String id;
+        private final String jobFunction;
+        private final Instant submittedAt = Instant.now();
+        private final AtomicBoolean cancelRequested = new AtomicBoolean();
+        private final AtomicInteger jobsSaved = new AtomicInteger();
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+        private volatile State state = State.QUEUED;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile CrawlResult result;
+        private volatile String error;
+
+        private Run(String id, String jobFunction) {
+            this.id = id;
+            this.jobFunction = jobFunction;
+        }
+
+        private synchronized void start() {
+            startedAt = Instant.now();
+            state = State.RUNNING;
+        }
+
+        private void onSaved(Job job) {
+            jobsSaved.incrementAndGet();
+            if (emitters.isEmpty()) {
+                return;
+            }
+            SseEmitter.SseEventBuilder event = SseEmitter.event()
+                    .name("job")
+                    .id(String.valueOf(job.getId()))
+                    .data(JobResponse.fromJob(job));
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // The client went away; the run goes on
+                    emitters.remove(emitter);
+                }
+            }
+        }
+
+        private void finish(State finalState, CrawlResult crawlResult, String errorMessage) {
+            ScrapeRunStatus status;
+            synchronized (this) {
+                result = crawlResult;
+                error = errorMessage;
+                finishedAt = Instant.now();
+                state = finalState;
+                status = status();
+            }
+            log.info("Scrape run {} finished: {}", id, status);
+            for (SseEmitter emitter : emitters) {
+                sendStatus(emitter, status);
+            }
+            emitters.clear();
+        }
+
+        private synchronized ScrapeRunStatus status() {
+            return new ScrapeRunStatus(id, jobFunction, state, jobsSaved.get(), submittedAt, startedAt, finishedAt,
+                    result, error);
+        }
+    }
+}
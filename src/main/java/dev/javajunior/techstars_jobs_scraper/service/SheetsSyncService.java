@@ -0,0 +1,150 @@
+package dev.javajunior.techstars_jobs_scraper.service;
+
+import dev.javajunior.techstars_jobs_scraper.connector.GoogleSheetsClient;
+import dev.javajunior.techstars_jobs_scraper.dto.JobListingRow;
+import dev.javajunior.techstars_jobs_scraper.dto.SheetsSyncResult;
+import dev.javajunior.techstars_jobs_scraper.repository.JobRepository;
+import dev.javajunior.techstars_jobs_scraper.repository.SheetsSyncRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Appends the jobs stored since the last sync to a Google Sheet. Every job sent is recorded in
+ * {@code sheets_synced_jobs} after its append, so a sync that fails halfway resumes where it
+ * stopped, and a job committed after a later one was synced is still sent. Rows go out
+ * {@code chunk-size} per append request.
+ */
+@Service
+@Slf4j
+public class SheetsSyncService {
+
+    public static final List<Object> HEADER = List.of("Position Name", "Organization", "Location", "Posted Date",
+            "Job Type", "Experience Level", "Remote", "Tags", "Job Page URL", "Application URL");
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd")
+            .withZone(ZoneId.systemDefault());
+
+    private final JobRepository jobRepository;
+    private final SheetsSyncRepository sheetsSyncRepository;
+    private final GoogleSheetsClient googleSheetsClient;
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    @Value("${app.sheets.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.sheets.spreadsheet-id:}")
+    private String spreadsheetId;
+
+    @Value("${app.sheets.sheet:Jobs}")
+    private String sheet;
+
+    @Value("${app.sheets.chunk-size:500}")
+    private int chunkSize;
+
+    public SheetsSyncService(JobRepository jobRepository,
+                             SheetsSyncRepository sheetsSyncRepository,
+                             GoogleSheetsClient googleSheetsClient) {
+        this.jobRepository = jobRepository;
+        this.sheetsSyncRepository = sheetsSyncRepository;
+        this.googleSheetsClient = googleSheetsClient;
+    }
+
+    @Scheduled(fixedDelayString = "${app.sheets.interval:PT1H}",
+            initialDelayString = "${app.sheets.initial-delay:PT5M}")
+    public void syncScheduled() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            sync();
+        } catch (IOException e) {
+            log.error("Scheduled Sheets sync failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Appends every job not synced yet, with a header row on the first sync of the sheet.
+     * A sync already running in this instance is not started twice.
+     */
+    public SheetsSyncResult sync() throws IOException {
+        if (spreadsheetId.isBlank()) {
+            throw new IllegalStateException("app.sheets.spreadsheet-id is not set");
+        }
+        String target = target();
+        if (!syncLock.tryLock()) {
+            log.info("Sheets sync of {} is already running", target);
+            return new SheetsSyncResult(target, 0, 0, sheetsSyncRepository.findLastJobId(target));
+        }
+        try {
+            boolean started = sheetsSyncRepository.findLastJobId(target) != null;
+            int rowsAppended = 0;
+            int requests = 0;
+            while (true) {
+                List<Long> ids = sheetsSyncRepository.findUnsyncedJobIds(target, chunkSize);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                List<JobListingRow> jobs = jobRepository.findListingsByIds(ids).stream()
+                        .sorted(Comparator.comparing(JobListingRow::id))
+                        .toList();
+                List<List<Object>> rows = new ArrayList<>(jobs.size() + 1);
+                if (!started) {
+                    rows.add(HEADER);
+                }
+                jobs.forEach(job -> rows.add(toRow(job)));
+
+                googleSheetsClient.append(spreadsheetId, sheet + "!A1", rows);
+                requests++;
+                rowsAppended += jobs.size();
+                started = true;
+
+                if (sheetsSyncRepository.markSynced(target, ids) < ids.size()) {
+                    log.warn("Jobs of {} were sent by another sync as well, stopping", target);
+                    break;
+                }
+            }
+
+            SheetsSyncResult result = new SheetsSyncResult(target, rowsAppended, requests,
+                    sheetsSyncRepository.findLastJobId(target));
+            log.info("Sheets sync finished: {}", result);
+            return result;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private String target() {
+        return spreadsheetId + "/" + sheet;
+    }
+
+    static List<Object> toRow(JobListingRow job) {
+        return Arrays.asList(
+                valueOf(job.positionName()),
+                valueOf(job.organizationName()),
+                valueOf(job.location()),
+                job.postedDate() != null ? DATE_FORMATTER.format(Instant.ofEpochMilli(job.postedDate())) : "",
+                valueOf(job.jobType()),
+                valueOf(job.experienceLevel()),
+                job.remote() != null ? job.remote() : "",
+                job.tags() != null ? job.tags().replace(JobListingRow.TAG_SEPARATOR, ", ") : "",
+                valueOf(job.jobPageUrl()),
+                valueOf(job.applicationUrl()));
+    }
+
+    // The API skips nulls, which would shift the following cells to the left
+    private static Object valueOf(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -0,0 +1,16 @@
+-- Job counts per facet value over all jobs, kept up to date by the ingest path
+CREATE TABLE IF NOT EXISTS job_facet_counts (
+    facet VARCHAR(32) NOT NULL,
+    facet_value VARCHAR(500) NOT NULL,
+    job_count BIGINT NOT NULL,
+    PRIMARY KEY (facet, facet_value)
+);
+
+-- Filtered facet counts select the matching jobs through these
+CREATE INDEX IF NOT EXISTS idx_jobs_location ON jobs(location);
+CREATE INDEX IF NOT EXISTS idx_jobs_job_type ON jobs(job_type);
+CREATE INDEX IF NOT EXISTS idx_jobs_experience_level ON jobs(experience_level);
+CREATE INDEX IF NOT EXISTS idx_jobs_remote ON jobs(remote);
+CREATE INDEX IF NOT EXISTS idx_jobs_organization ON jobs(organization_id);
+CREATE INDEX IF NOT EXISTS idx_job_functions_function ON job_functions(job_function);
+CREATE INDEX IF NOT EXISTS idx_job_tags_tag ON job_tags(tag);
@@ -0,0 +1,12 @@
+-- Every fetched listing and detail page; the bodies are gzipped files named by their SHA-256
+CREATE TABLE IF NOT EXISTS page_archive (
+    id BIGSERIAL PRIMARY KEY,
+    url VARCHAR(1000) NOT NULL,
+    kind VARCHAR(16) NOT NULL,
+    fetched_at BIGINT NOT NULL,
+    content_hash VARCHAR(64) NOT NULL,
+    size_bytes INT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_page_archive_url_fetched_at ON page_archive (url, fetched_at);
+CREATE INDEX IF NOT EXISTS idx_page_archive_kind_fetched_at ON page_archive (kind, fetched_at);
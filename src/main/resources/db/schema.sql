@@ -21,9 +21,19 @@ CREATE TABLE IF NOT EXISTS jobs (
     salary VARCHAR(100),
     remote BOOLEAN,
     application_url VARCHAR(255),
+    card_hash VARCHAR(64),
+    content_hash VARCHAR(64),
+    last_seen_at BIGINT,
+    closed BOOLEAN DEFAULT FALSE NOT NULL,
     FOREIGN KEY (organization_id) REFERENCES organizations(id)
 );
 
+-- Columns added for incremental scraping, for databases created before them
+ALTER TABLE jobs ADD COLUMN IF NOT EXISTS card_hash VARCHAR(64);
+ALTER TABLE jobs ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+ALTER TABLE jobs ADD COLUMN IF NOT EXISTS last_seen_at BIGINT;
+ALTER TABLE jobs ADD COLUMN IF NOT EXISTS closed BOOLEAN DEFAULT FALSE NOT NULL;
+
 -- Create job_tags table
 CREATE TABLE IF NOT EXISTS job_tags (
     job_id BIGINT NOT NULL,
@@ -32,11 +42,31 @@ CREATE TABLE IF NOT EXISTS job_tags (
     FOREIGN KEY (job_id) REFERENCES jobs(id) ON DELETE CASCADE
 );
 
+-- Create job_functions table, one row per function a job is listed under
+CREATE TABLE IF NOT EXISTS job_functions (
+    job_id BIGINT NOT NULL,
+    job_function VARCHAR(255) NOT NULL,
+    PRIMARY KEY (job_id, job_function),
+    FOREIGN KEY (job_id) REFERENCES jobs(id) ON DELETE CASCADE
+);
+
+-- Jobs stored before job_functions existed are listed under their labor function
+INSERT INTO job_functions (job_id, job_function)
+SELECT j.id, j.labor_function FROM jobs j
+WHERE NOT EXISTS (SELECT 1 FROM job_functions f WHERE f.job_id = j.id AND f.job_function = j.labor_function);
+
+-- Hibernate hands out ids in blocks of 50 so inserts can be batched
+ALTER SEQUENCE IF EXISTS organizations_id_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS jobs_id_seq INCREMENT BY 50;
+
 -- Create indexes
 CREATE INDEX IF NOT EXISTS idx_jobs_location ON jobs(location);
 CREATE INDEX IF NOT EXISTS idx_jobs_posted_date ON jobs(posted_date);
+CREATE INDEX IF NOT EXISTS idx_jobs_posted_date_id ON jobs(posted_date DESC, id DESC);
 CREATE INDEX IF NOT EXISTS idx_jobs_labor_function ON jobs(labor_function);
 CREATE INDEX IF NOT EXISTS idx_jobs_organization ON jobs(organization_id);
+CREATE INDEX IF NOT EXISTS idx_job_functions_function ON job_functions(job_function);
 CREATE INDEX IF NOT EXISTS idx_jobs_job_type ON jobs(job_type);
 CREATE INDEX IF NOT EXISTS idx_jobs_experience_level ON jobs(experience_level);
-CREATE INDEX IF NOT EXISTS idx_jobs_remote ON jobs(remote); 
\ No newline at end of file
+CREATE INDEX IF NOT EXISTS idx_jobs_remote ON jobs(remote); 
+CREATE INDEX IF NOT EXISTS idx_job_tags_tag ON job_tags(tag);
\ No newline at end of file
@@ -0,0 +1,31 @@
+-- Detail page fetch tasks shared by every instance, claimed with FOR UPDATE SKIP LOCKED
+CREATE TABLE IF NOT EXISTS scrape_tasks (
+    id BIGSERIAL PRIMARY KEY,
+    job_page_url VARCHAR(255) NOT NULL UNIQUE,
+    job_function VARCHAR(255) NOT NULL,
+    position_name VARCHAR(255),
+    location VARCHAR(255),
+    posted_at BIGINT,
+    organization_name VARCHAR(255),
+    organization_url VARCHAR(255),
+    organization_logo VARCHAR(255),
+    status VARCHAR(16) DEFAULT 'PENDING' NOT NULL,
+    attempts INT DEFAULT 0 NOT NULL,
+    available_at BIGINT NOT NULL,
+    lease_owner VARCHAR(255),
+    lease_expires_at BIGINT,
+    last_error VARCHAR(1000),
+    created_at BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_scrape_tasks_status ON scrape_tasks(status, available_at);
+
+-- Cards show the posted date relative to today, so it is parsed when the card is queued
+ALTER TABLE scrape_tasks ADD COLUMN IF NOT EXISTS posted_at BIGINT;
+
+-- Every function a queued card was listed under, recorded on the job when its task completes
+CREATE TABLE IF NOT EXISTS scrape_task_functions (
+    job_page_url VARCHAR(255) NOT NULL,
+    job_function VARCHAR(255) NOT NULL,
+    PRIMARY KEY (job_page_url, job_function)
+);
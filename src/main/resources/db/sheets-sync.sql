@@ -0,0 +1,15 @@
+-- Sync state of each Google Sheets target: the row exists once the header was sent, and
+-- last_job_id is the highest job id appended so far
+CREATE TABLE IF NOT EXISTS sheets_sync_state (
+    target VARCHAR(255) PRIMARY KEY,
+    last_job_id BIGINT NOT NULL,
+    synced_at BIGINT NOT NULL
+);
+
+-- Jobs appended to each target. Job ids come from a pooled sequence and batches commit in any
+-- order, so a sync looks for the jobs missing here rather than for ids above the highest one sent
+CREATE TABLE IF NOT EXISTS sheets_synced_jobs (
+    target VARCHAR(255) NOT NULL,
+    job_id BIGINT NOT NULL,
+    PRIMARY KEY (target, job_id)
+);
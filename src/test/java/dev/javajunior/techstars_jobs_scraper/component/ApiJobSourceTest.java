@@ -0,0 +1,175 @@
+package dev.javajunior.techstars_jobs_scraper.component;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.javajunior.techstars_jobs_scraper.dto.CrawlResult;
+import dev.javajunior.techstars_jobs_scraper.model.Job;
+import dev.javajunior.techstars_jobs_scraper.repository.JobRepository;
+import dev.javajunior.techstars_jobs_scraper.repository.OrganizationRepository;
+import dev.javajunior.techstars_jobs_scraper.service.JobScraperService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the API source against a local server that replays recorded search responses.
+ */
+@SpringBootTest(properties = {
+        "app.scraping.source=api",
+        "app.scraping.api.collection-id=89",
+        "app.scraping.api.hits-per-page=2"
+})
+@ActiveProfiles("test")
+class ApiJobSourceTest {
+
+    private static final Pattern PAGE = Pattern.compile("\"page\"\\s*:\\s*(\\d+)");
+
+    private static HttpServer server;
+    private static final List<String> requestBodies = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private JobScraperService jobScraperService;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private OrganizationResolver organizationResolver;
+
+    @Autowired
+    private JobUrlIndex jobUrlIndex;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v2/collections/89/search/jobs", ApiJobSourceTest::handle);
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @DynamicPropertySource
+    static void apiProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.scraping.api.base-url", () -> "http://localhost:" + server.getAddress().getPort() + "/api/v2");
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestBodies.clear();
+        jobRepository.deleteAll();
+        organizationRepository.deleteAllInBatch();
+        organizationResolver.clear();
+        jobUrlIndex.load();
+    }
+
+    @Test
+    void whenCrawlingFunction_thenStoreEveryHitWithItsOrganization() {
+        // When
+        CrawlResult result = jobScraperService.crawlJobsByFunction("Software Engineering");
+
+        // Then
+        assertEquals(new CrawlResult("Software Engineering", 2, 3, 0, 3, 0), result);
+        assertEquals(2, requestBodies.size());
+        assertTrue(requestBodies.get(0).contains("\"job_functions\":[\"Software Engineering\"]"));
+
+        Map<String, Job> jobs = jobRepository.findAll().stream()
+                .collect(Collectors.toMap(Job::getPositionName, Function.identity()));
+        assertEquals(3, jobs.size());
+        assertEquals(2, organizationRepository.count(), "Hits of one company should share its organization");
+
+        Job backend = jobs.get("Backend Engineer");
+        assertEquals("https://jobs.techstars.com/companies/acme/jobs/1001-backend-engineer", backend.getJobPageUrl());
+        assertEquals("https://acme.example.com/careers/backend-engineer", backend.getApplicationUrl());
+        assertEquals("New York, NY, USA", backend.getLocation());
+        assertEquals(1760000000L * 1000, backend.getPostedDate());
+        assertEquals(Set.of("Java", "PostgreSQL"), backend.getTags());
+        assertEquals("full_time", backend.getJobType());
+        assertEquals("mid_senior", backend.getExperienceLevel());
+        assertFalse(backend.getRemote());
+        assertEquals("Acme", backend.getOrganization().getName());
+        assertEquals("https://jobs.techstars.com/companies/acme", backend.getOrganization().getUrl());
+        assertEquals("https://cdn.example.com/acme.png", backend.getOrganization().getLogoUrl());
+
+        Job frontend = jobs.get("Frontend Engineer");
+        assertEquals("Remote", frontend.getLocation());
+        assertTrue(frontend.getRemote());
+
+        Job data = jobs.get("Data Engineer");
+        assertEquals("Berlin, Germany; Remote", data.getLocation());
+        assertTrue(data.getRemote());
+        assertEquals("Globex", data.getOrganization().getName());
+    }
+
+    @Test
+    void whenCrawlingAgain_thenSkipStoredHits() {
+        // Given
+        jobScraperService.crawlJobsByFunction("Software Engineering");
+
+        // When
+        CrawlResult result = jobScraperService.crawlJobsByFunction("Software Engineering");
+
+        // Then
+        assertEquals(new CrawlResult("Software Engineering", 2, 3, 3, 0, 0), result);
+        assertEquals(3, jobRepository.count());
+    }
+
+    @Test
+    void whenScrapingFunction_thenReturnSavedJobs() {
+        // When
+        List<Job> jobs = jobScraperService.scrapeJobsByFunction("Software Engineering");
+
+        // Then
+        assertEquals(3, jobs.size());
+        assertTrue(jobs.stream().allMatch(job -> job.getId() != null));
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        requestBodies.add(request);
+        Matcher page = PAGE.matcher(request);
+        ClassPathResource payload = new ClassPathResource("api/search-page-" + (page.find() ? page.group(1) : "0") + ".json");
+
+        byte[] body;
+        if (payload.exists()) {
+            try (InputStream in = payload.getInputStream()) {
+                body = in.readAllBytes();
+            }
+        } else {
+            body = "{\"results\":{\"count\":3,\"jobs\":[]}}".getBytes(StandardCharsets.UTF_8);
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
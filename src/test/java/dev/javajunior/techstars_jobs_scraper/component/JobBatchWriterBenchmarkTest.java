@@ -0,0 +1,96 @@
+package dev.javajunior.techstars_jobs_scraper.component;
+
+import dev.javajunior.techstars_jobs_scraper.model.Job;
+import dev.javajunior.techstars_jobs_scraper.model.Organization;
+import dev.javajunior.techstars_jobs_scraper.repository.JobRepository;
+import dev.javajunior.techstars_jobs_scraper.repository.OrganizationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures insert throughput of the write stage for batch sizes from 1 to 500.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.dev.javajunior.techstars_jobs_scraper=INFO"
+})
+@Tag("benchmark")
+@Slf4j
+class JobBatchWriterBenchmarkTest {
+
+    private static final int JOB_COUNT = 5_000;
+    private static final int[] BATCH_SIZES = {1, 10, 50, 100, 250, 500};
+
+    @Autowired
+    private JobBatchWriter jobBatchWriter;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(jobBatchWriter, "batchSize", 50);
+        jobRepository.deleteAll();
+        organizationRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void insertThroughputByBatchSize() {
+        Organization organization = organizationRepository.save(Organization.builder()
+                .name("Benchmark Org")
+                .url("https://benchmark.example.com")
+                .build());
+
+        // Warm up the persistence path before measuring
+        writeJobs(organization, 50, "warmup");
+
+        for (int batchSize : BATCH_SIZES) {
+            ReflectionTestUtils.setField(jobBatchWriter, "batchSize", batchSize);
+
+            long start = System.nanoTime();
+            int saved = writeJobs(organization, batchSize, "batch-" + batchSize);
+            long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+            assertEquals(JOB_COUNT, saved);
+            log.info("Batch size {}: {} jobs in {} ms ({} jobs/s)", batchSize, JOB_COUNT, elapsedMs,
+                    JOB_COUNT * 1000L / elapsedMs);
+        }
+    }
+
+    private int writeJobs(Organization organization, int batchSize, String run) {
+        List<Job> jobs = new ArrayList<>(JOB_COUNT);
+        for (int i = 0; i < JOB_COUNT; i++) {
+            jobs.add(Job.builder()
+                    .positionName("Engineer " + i)
+                    .jobPageUrl("https://jobs.techstars.com/jobs/" + run + "-" + i)
+                    .organization(organization)
+                    .laborFunction("Software Engineering")
+                    .location("Remote")
+                    .postedDate(System.currentTimeMillis())
+                    .description("Build things")
+                    .tags(Set.of("java", "spring", "postgres"))
+                    .build());
+        }
+        return jobBatchWriter.writeAll(jobs).size();
+    }
+}
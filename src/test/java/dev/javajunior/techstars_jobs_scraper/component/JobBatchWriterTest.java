@@ -0,0 +1,173 @@
+package dev.javajunior.techstars_jobs_scraper.component;
+
+import dev.javajunior.techstars_jobs_scraper.dto.FacetCount;
+import dev.javajunior.techstars_jobs_scraper.dto.JobFacets;
+import dev.javajunior.techstars_jobs_scraper.model.Job;
+import dev.javajunior.techstars_jobs_scraper.model.Organization;
+import dev.javajunior.techstars_jobs_scraper.repository.JobFacetRepository;
+import dev.javajunior.techstars_jobs_scraper.repository.JobRepository;
+import dev.javajunior.techstars_jobs_scraper.repository.OrganizationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@RecordApplicationEvents
+class JobBatchWriterTest {
+
+    @Autowired
+    private JobBatchWriter jobBatchWriter;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private JobUrlIndex jobUrlIndex;
+
+    @Autowired
+    private JobFacetRepository jobFacetRepository;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    private Organization organization;
+
+    @BeforeEach
+    void setUp() {
+        organization = organizationRepository.save(Organization.builder()
+                .name("Writer Org")
+                .url("https://writer.example.com")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobRepository.deleteAll();
+        organizationRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void whenWritingManyJobs_thenStoreAllWithTags() {
+        // Given
+        List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            jobs.add(job("https://jobs.techstars.com/jobs/writer-" + i));
+        }
+
+        // When
+        List<Job> saved = jobBatchWriter.writeAll(jobs);
+
+        // Then
+        assertEquals(120, saved.size());
+        assertTrue(saved.stream().allMatch(job -> job.getId() != null));
+        assertEquals(120, jobRepository.count());
+        assertEquals(Set.of("java", "spring"), jobRepository.findById(saved.get(0).getId()).orElseThrow().getTags());
+        assertTrue(jobUrlIndex.isKnown("https://jobs.techstars.com/jobs/writer-0"));
+    }
+
+    @Test
+    void whenBatchIsWritten_thenPublishTheStoredIds() {
+        // When
+        List<Job> saved = jobBatchWriter.writeAll(List.of(
+                job("https://jobs.techstars.com/jobs/event-1"),
+                job("https://jobs.techstars.com/jobs/event-2")));
+
+        // Then
+        assertEquals(List.of(new JobsPersistedEvent(saved.stream().map(Job::getId).toList())),
+                applicationEvents.stream(JobsPersistedEvent.class).toList());
+    }
+
+    @Test
+    void whenBatchContainsStoredJob_thenWriteTheOthers() {
+        // Given
+        jobBatchWriter.writeAll(List.of(job("https://jobs.techstars.com/jobs/duplicate")));
+        List<Job> jobs = List.of(
+                job("https://jobs.techstars.com/jobs/new-1"),
+                job("https://jobs.techstars.com/jobs/duplicate"),
+                job("https://jobs.techstars.com/jobs/new-2"));
+
+        // When
+        List<Job> saved = jobBatchWriter.writeAll(jobs);
+
+        // Then
+        assertEquals(2, saved.size());
+        assertEquals(3, jobRepository.count());
+    }
+
+    @Test
+    void whenRecordingFunctions_thenAddOnlyMissingOnes() {
+        // Given
+        Job stored = jobBatchWriter.writeAll(List.of(job("https://jobs.techstars.com/jobs/shared"))).get(0);
+
+        // When
+        int added = jobBatchWriter.recordFunctions(Map.of(
+                "https://jobs.techstars.com/jobs/shared", Set.of("Software Engineering", "Data Science"),
+                "https://jobs.techstars.com/jobs/unknown", Set.of("Design")));
+
+        // Then
+        assertEquals(1, added);
+        assertEquals(Set.of("Software Engineering", "Data Science"),
+                jobRepository.findById(stored.getId()).orElseThrow().getJobFunctions());
+    }
+
+    @Test
+    void whenJobsAreWrittenAndRewritten_thenMoveTheFacetCounts() {
+        // Given: counts of an empty table
+        jobFacetRepository.rebuild();
+        jobBatchWriter.writeAll(List.of(job("https://jobs.techstars.com/jobs/facet-1")));
+
+        // When: a batch that rolls back and is written again row by row, a rewrite and a new function
+        List<Job> saved = jobBatchWriter.writeAll(List.of(
+                job("https://jobs.techstars.com/jobs/facet-2"),
+                job("https://jobs.techstars.com/jobs/facet-1"),
+                job("https://jobs.techstars.com/jobs/facet-3")));
+        Job moved = job("https://jobs.techstars.com/jobs/facet-2");
+        moved.setLocation("Berlin");
+        moved.setTags(Set.of("java"));
+        jobBatchWriter.rewriteAll(Map.of(saved.get(0).getId(), moved));
+        jobBatchWriter.recordFunctions(Map.of("https://jobs.techstars.com/jobs/facet-3", Set.of("Data Science")));
+
+        // Then: the stored counts match a recount
+        JobFacets facets = jobFacetRepository.findAll(10);
+        assertEquals(3, facets.total());
+        assertEquals(List.of(new FacetCount("Remote", 2), new FacetCount("Berlin", 1)),
+                facets.facets().get(JobFacets.LOCATION));
+        assertEquals(List.of(new FacetCount("java", 3), new FacetCount("spring", 2)),
+                facets.facets().get(JobFacets.TAG));
+        assertEquals(List.of(new FacetCount("Software Engineering", 3), new FacetCount("Data Science", 1)),
+                facets.facets().get(JobFacets.LABOR_FUNCTION));
+        assertEquals(List.of(new FacetCount("Writer Org", 3)), facets.facets().get(JobFacets.ORGANIZATION));
+        jobFacetRepository.rebuild();
+        assertEquals(facets, jobFacetRepository.findAll(10));
+    }
+
+    private Job job(String url) {
+        return Job.builder()
+                .positionName("Engineer")
+                .jobPageUrl(url)
+                .organization(organization)
+                .laborFunction("Software Engineering")
+                .jobFunctions(new HashSet<>(Set.of("Software Engineering")))
+                .location("Remote")
+                .postedDate(System.currentTimeMillis())
+                .tags(Set.of("java", "spring"))
+                .build();
+    }
+}
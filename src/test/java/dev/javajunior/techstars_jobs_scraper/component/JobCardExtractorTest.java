@@ -0,0 +1,116 @@
+package dev.javajunior.techstars_jobs_scraper.component;
+
+import dev.javajunior.techstars_jobs_scraper.dto.JobCard;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobCardExtractorTest {
+
+    private final JobCardExtractor extractor = new JobCardExtractor();
+
+    @Test
+    void whenCardHasCompanyElements_thenExtractAllFields() throws IOException {
+        // Given
+        Element card = listingCards().get(0);
+
+        // When
+        JobCard jobCard = extractor.extract(card);
+
+        // Then
+        assertEquals("https://jobs.techstars.com/apply/123", jobCard.jobUrl());
+        assertEquals("Senior Software Engineer 1", jobCard.positionName());
+        assertEquals("Remote", jobCard.location());
+        assertEquals("Test Company 1", jobCard.organizationName());
+        assertEquals("https://jobs.techstars.com/company/test-company-1", jobCard.organizationUrl());
+        assertEquals("https://example.com/logo1.png", jobCard.organizationLogo());
+    }
+
+    @Test
+    void whenExtractingListing_thenMatchSelectorQueries() throws IOException {
+        for (Element card : listingCards()) {
+            JobCard jobCard = extractor.extract(card);
+
+            assertEquals(card.selectFirst("[itemprop='title'], .job-title, h3").text(), jobCard.positionName());
+            assertEquals(card.selectFirst("[itemprop='jobLocation'], .location").text(), jobCard.location());
+            assertEquals("https://jobs.techstars.com" + card.selectFirst("a[href*='jobs'], a[href*='apply']").attr("href"),
+                    jobCard.jobUrl());
+            assertEquals(card.selectFirst(".company-info, .company-name, [itemprop='hiringOrganization']").text(),
+                    jobCard.organizationName());
+        }
+    }
+
+    @Test
+    void whenCardHasNoCompanyElement_thenUseFirstLinkThatIsNotATitle() {
+        // Given
+        Element card = Jsoup.parse("""
+                <div data-testid="job-card">
+                    <a href="/jobs/1">Staff Engineer</a>
+                    <a href="/c/globex">Globex</a>
+                </div>
+                """).selectFirst("div");
+
+        // When
+        JobCard jobCard = extractor.extract(card);
+
+        // Then
+        assertEquals("Globex", jobCard.organizationName());
+        assertEquals("https://jobs.techstars.com/jobs/1", jobCard.jobUrl());
+        assertTrue(jobCard.organizationUrl().startsWith("https://jobs.techstars.com/company/unknown_"));
+        assertEquals("", jobCard.postedDate());
+    }
+
+    @Test
+    void whenCardHasNoCompanyLink_thenHashTheSameOnEveryExtraction() {
+        // Given
+        String html = """
+                <div data-testid="job-card">
+                    <a href="/jobs/1">Staff Engineer</a>
+                    <a href="/c/globex">Globex</a>
+                </div>
+                """;
+
+        // When
+        JobCard first = extractor.extract(Jsoup.parse(html).selectFirst("div"));
+        JobCard second = extractor.extract(Jsoup.parse(html).selectFirst("div"));
+
+        // Then
+        assertEquals(first.organizationUrl(), second.organizationUrl());
+        assertEquals(JobFingerprint.ofCard(first), JobFingerprint.ofCard(second));
+    }
+
+    @Test
+    void whenParsingPostedDates_thenSupportCardFormats() {
+        LocalDate today = LocalDate.now();
+
+        assertEquals(today.minusDays(3), extractor.parsePostedDate("3 days ago"));
+        assertEquals(today.minusDays(1), extractor.parsePostedDate("1 day ago"));
+        assertEquals(today.minusDays(1), extractor.parsePostedDate("a day ago"));
+        assertEquals(LocalDate.of(2024, 3, 15), extractor.parsePostedDate("2024-03-15"));
+        assertEquals(LocalDate.of(2024, 3, 15), extractor.parsePostedDate("Mar 15, 2024"));
+        assertEquals(LocalDate.of(2024, 4, 1), extractor.parsePostedDate("Apr 1, 2024"));
+        assertEquals(LocalDate.of(2024, 3, 5), extractor.parsePostedDate("05 Mar 2024"));
+        assertEquals(LocalDate.of(2024, 3, 15), extractor.parsePostedDate("15 бер. 2024"));
+        assertEquals(LocalDate.of(2024, 11, 2), extractor.parsePostedDate("лист. 2, 2024"));
+    }
+
+    @Test
+    void whenDateIsMissingOrUnreadable_thenUseToday() {
+        assertEquals(LocalDate.now(), extractor.parsePostedDate(""));
+        assertEquals(LocalDate.now(), extractor.parsePostedDate("sometime last spring"));
+        assertEquals(LocalDate.now(), extractor.parsePostedDate("2024-13-45"));
+    }
+
+    private Elements listingCards() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/test-job-listing.html")) {
+            return ListingCrawler.selectJobCards(Jsoup.parse(in, "UTF-8", "https://jobs.techstars.com/jobs"));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package dev.javajunior.techstars_jobs_scraper.component;
+
+import dev.javajunior.techstars_jobs_scraper.connector.JsoupWrapper;
+import dev.javajunior.techstars_jobs_scraper.model.Job;
+import dev.javajunior.techstars_jobs_scraper.model.Organization;
+import dev.javajunior.techstars_jobs_scraper.repository.JobRepository;
+import dev.javajunior.techstars_jobs_scraper.repository.OrganizationRepository;
+import dev.javajunior.techstars_jobs_scraper.service.JobScraperService;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.when;
+
+/**
+ * Re-scrapes a 10k-job function where every card is already stored, once with the URL index
+ * replaced by one existsByJobPageUrl lookup per card as before it existed, and once with the
+ * index. Both arms time the whole crawl path. Run with {@code mvn test -Pbenchmark}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("benchmark")
+@Slf4j
+class JobUrlIndexBenchmarkTest {
+
+    private static final int JOB_COUNT = 10_000;
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private JobScraperService jobScraperService;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @MockitoSpyBean
+    private JobUrlIndex jobUrlIndex;
+
+    @MockitoBean
+    private JsoupWrapper jsoupWrapper;
+
+    private final List<String> jobUrls = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Organization organization = organizationRepository.save(Organization.builder()
+                .name("Benchmark Org")
+                .url("https://benchmark.example.com")
+                .build());
+
+        List<Job> jobs = new ArrayList<>(JOB_COUNT);
+        StringBuilder listing = new StringBuilder("<html><body>");
+        for (int i = 0; i < JOB_COUNT; i++) {
+            String url = "https://jobs.techstars.com/jobs/benchmark-" + i;
+            jobUrls.add(url);
+            jobs.add(Job.builder()
+                    .positionName("Engineer " + i)
+                    .jobPageUrl(url)
+                    .organization(organization)
+                    .laborFunction("Software Engineering")
+                    .location("Remote")
+                    .postedDate(System.currentTimeMillis())
+                    .build());
+            listing.append("<div data-testid=\"job-card\"><h3>Engineer ").append(i)
+                    .append("</h3><a href=\"").append(url).append("\">Apply</a></div>");
+        }
+        listing.append("</body></html>");
+        jobRepository.saveAll(jobs);
+        jobUrlIndex.load();
+
+        when(jsoupWrapper.connect(anyString())).thenReturn(Jsoup.parse(listing.toString()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobRepository.deleteAllInBatch();
+        organizationRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void rescrapeKnownFunction() {
+        assertEquals(JOB_COUNT, jobUrls.size());
+        for (int round = 1; round <= ROUNDS; round++) {
+            disableIndex();
+            long start = System.nanoTime();
+            List<Job> scraped = jobScraperService.scrapeJobsByFunction("Software Engineering");
+            long withoutIndexMs = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(scraped.isEmpty());
+
+            enableIndex();
+            start = System.nanoTime();
+            scraped = jobScraperService.scrapeJobsByFunction("Software Engineering");
+            long withIndexMs = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(scraped.isEmpty());
+
+            log.info("Round {}: re-scrape of {} known cards - per-card lookups {} ms, with index {} ms",
+                    round, JOB_COUNT, withoutIndexMs, withIndexMs);
+        }
+    }
+
+    // The de-duplication the crawl did before the index: one query per card
+    private void disableIndex() {
+        doAnswer(invocation -> {
+            Set<String> unknown = new LinkedHashSet<>();
+            for (String url : invocation.<Collection<String>>getArgument(0)) {
+                if (!jobRepository.existsByJobPageUrl(url)) {
+                    unknown.add(url);
+                }
+            }
+            return unknown;
+        }).when(jobUrlIndex).filterUnknown(any());
+        doAnswer(invocation -> jobRepository.existsByJobPageUrl(invocation.getArgument(0)))
+                .when(jobUrlIndex).isKnown(anyString());
+    }
+
+    private void enableIndex() {
+        doCallRealMethod().when(jobUrlIndex).filterUnknown(any());
+        doCallRealMethod().when(jobUrlIndex).isKnown(anyString());
+    }
+}
@@ -0,0 +1,113 @@
+package dev.javajunior.techstars_jobs_scraper.component;
+
+import dev.javajunior.techstars_jobs_scraper.connector.JsoupWrapper;
+import dev.javajunior.techstars_jobs_scraper.exception.ScrapingException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ListingCrawlerTest {
+
+    @Mock
+    private JsoupWrapper jsoupWrapper;
+
+    @Mock
+    private PageArchive pageArchive;
+
+    private ListingCrawler listingCrawler;
+
+    @BeforeEach
+    void setUp() {
+        listingCrawler = new ListingCrawler(jsoupWrapper, new SyncTaskExecutor(), new ScrapingMetrics(new SimpleMeterRegistry()),
+                pageArchive);
+        ReflectionTestUtils.setField(listingCrawler, "baseUrl", "https://jobs.techstars.com/jobs");
+        ReflectionTestUtils.setField(listingCrawler, "maxPages", 10);
+        ReflectionTestUtils.setField(listingCrawler, "pageConcurrency", 2);
+    }
+
+    @Test
+    void whenCrawling_thenWalkPagesUntilEmpty() throws IOException {
+        // Given
+        when(jsoupWrapper.connect(endsWith("q=Data+Science"))).thenReturn(listingPage(1, 2));
+        when(jsoupWrapper.connect(endsWith("&page=2"))).thenReturn(listingPage(3, 4));
+        when(jsoupWrapper.connect(endsWith("&page=3"))).thenReturn(listingPage(5, 5));
+        when(jsoupWrapper.connect(endsWith("&page=4"))).thenReturn(Jsoup.parse("<html><body></body></html>"));
+        lenient().when(jsoupWrapper.connect(endsWith("&page=5"))).thenReturn(Jsoup.parse("<html><body></body></html>"));
+        List<Integer> pages = new ArrayList<>();
+        List<Integer> cardCounts = new ArrayList<>();
+
+        // When
+        int handled = listingCrawler.crawl("Data Science", (pageNumber, jobCards) -> {
+            pages.add(pageNumber);
+            cardCounts.add(jobCards.size());
+            return true;
+        });
+
+        // Then
+        assertEquals(3, handled);
+        assertEquals(List.of(1, 2, 3), pages);
+        assertEquals(List.of(2, 2, 1), cardCounts);
+    }
+
+    @Test
+    void whenHandlerStops_thenNoFurtherPagesAreHandled() throws IOException {
+        // Given
+        when(jsoupWrapper.connect(anyString())).thenReturn(listingPage(1, 3));
+
+        // When
+        int handled = listingCrawler.crawl("Data Science", (pageNumber, jobCards) -> pageNumber < 2);
+
+        // Then
+        assertEquals(2, handled);
+        verify(jsoupWrapper, never()).connect(contains("&page=4"));
+    }
+
+    @Test
+    void whenEveryPageHasCards_thenStopAtMaxPages() throws IOException {
+        // Given
+        when(jsoupWrapper.connect(anyString())).thenReturn(listingPage(1, 1));
+
+        // When
+        int handled = listingCrawler.crawl("Data Science", (pageNumber, jobCards) -> true);
+
+        // Then
+        assertEquals(10, handled);
+        verify(jsoupWrapper, times(10)).connect(anyString());
+    }
+
+    @Test
+    void whenFirstPageFails_thenThrowScrapingException() throws IOException {
+        // Given
+        when(jsoupWrapper.connect(anyString())).thenThrow(new IOException("connection reset"));
+
+        // When / Then
+        assertThrows(ScrapingException.class, () -> listingCrawler.crawl("Data Science", (pageNumber, jobCards) -> true));
+    }
+
+    private Document listingPage(int firstJob, int lastJob) {
+        StringBuilder html = new StringBuilder("<html><body>");
+        for (int i = firstJob; i <= lastJob; i++) {
+            html.append("<div data-testid=\"job-card\"><h3>Job ").append(i)
+                .append("</h3><a href=\"https://jobs.techstars.com/apply/").append(i).append("\">Apply</a></div>");
+        }
+        return Jsoup.parse(html.append("</body></html>").toString());
+    }
+}
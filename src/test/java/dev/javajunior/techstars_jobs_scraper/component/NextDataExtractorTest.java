@@ -0,0 +1,80 @@
+package dev.javajunior.techstars_jobs_scraper.component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.javajunior.techstars_jobs_scraper.dto.JobDetails;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NextDataExtractorTest {
+
+    private final NextDataExtractor extractor = new NextDataExtractor(new ObjectMapper());
+
+    @Test
+    void whenPageHasNextData_thenReadJobFields() {
+        // Given
+        String html = page("""
+                {"buildId": "abc", "props": {"pageProps": {"company": {"name": "Acme", "jobs": [1, 2]},
+                  "job": {"title": "Data Engineer", "description": "<p>Build pipelines</p>",
+                          "tags": ["kafka", "java"], "jobType": "Full-time", "experienceLevel": "Senior",
+                          "salary": null, "remote": true, "applicationUrl": "https://acme.example.com/apply",
+                          "locations": [{"city": "NYC"}],
+                          "organization": {"name": "Acme", "logoUrl": "https://acme.example.com/logo.png"}}}},
+                 "page": "/jobs/[id]"}
+                """);
+
+        // When
+        JobDetails details = extractor.extract(html).orElseThrow();
+
+        // Then
+        assertEquals("<p>Build pipelines</p>", details.description());
+        assertEquals(Set.of("kafka", "java"), details.tags());
+        assertEquals("Full-time", details.jobType());
+        assertEquals("Senior", details.experienceLevel());
+        assertEquals("", details.salary());
+        assertTrue(details.remote());
+        assertEquals("https://acme.example.com/apply", details.applicationUrl());
+        assertEquals("https://acme.example.com/logo.png", details.organizationLogoUrl());
+    }
+
+    @Test
+    void whenJobIsUnderInitialState_thenUseItUnlessPagePropsHaveOne() {
+        String legacy = page("""
+                {"initialState": {"jobs": {"currentJob": {"description": "Legacy", "remote": "true"}}}}
+                """);
+        String both = page("""
+                {"initialState": {"jobs": {"currentJob": {"description": "Legacy"}}},
+                 "props": {"pageProps": {"job": {"description": "Current"}}}}
+                """);
+
+        JobDetails legacyDetails = extractor.extract(legacy).orElseThrow();
+        assertEquals("Legacy", legacyDetails.description());
+        assertTrue(legacyDetails.remote());
+        assertNull(legacyDetails.tags());
+        assertNull(legacyDetails.organizationLogoUrl());
+        assertEquals("Current", extractor.extract(both).orElseThrow().description());
+    }
+
+    @Test
+    void whenPageHasNoUsableNextData_thenReturnEmpty() {
+        assertEquals(Optional.empty(), extractor.extract("<html><body><div class=\"job-description\">Hi</div></body></html>"));
+        assertEquals(Optional.empty(), extractor.extract(page("{\"props\": {\"pageProps\": {}}}")));
+        assertEquals(Optional.empty(), extractor.extract(page("{\"props\": {\"pageProps\": {\"job\": ")));
+    }
+
+    @Test
+    void whenScriptIdIsSingleQuoted_thenStillFindIt() {
+        String html = "<script type='application/json' id='__NEXT_DATA__'>" +
+                "{\"props\": {\"pageProps\": {\"job\": {\"description\": \"Quoted\"}}}}</script>";
+
+        assertEquals("Quoted", extractor.extract(html).orElseThrow().description());
+    }
+
+    private static String page(String json) {
+        return "<html><head><title>Job</title></head><body><div id=\"__next\"></div>" +
+                "<script id=\"__NEXT_DATA__\" type=\"application/json\">" + json + "</script></body></html>";
+    }
+}
@@ -0,0 +1,118 @@
+package dev.javajunior.techstars_jobs_scraper.component;
+
+import dev.javajunior.techstars_jobs_scraper.model.Organization;
+import dev.javajunior.techstars_jobs_scraper.repository.OrganizationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrganizationResolverTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private OrganizationResolver organizationResolver;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private JobResponseCache jobResponseCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        organizationResolver.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        organizationResolver.clear();
+        organizationRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void whenManyThreadsResolveSameOrganization_thenExactlyOneRowIsCreated() throws Exception {
+        // Given: a second resolver stands in for another application instance with its own cache
+        OrganizationResolver otherInstance = new OrganizationResolver(organizationRepository, eventPublisher);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Organization>> results = new ArrayList<>();
+
+        // When
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < THREADS; i++) {
+                OrganizationResolver resolver = i % 2 == 0 ? organizationResolver : otherInstance;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return resolver.resolve("Acme", "https://acme.example.com", "https://acme.example.com/logo.png");
+                }));
+            }
+            start.countDown();
+
+            // Then
+            Long id = null;
+            for (Future<Organization> result : results) {
+                Organization organization = result.get();
+                assertNotNull(organization.getId());
+                if (id == null) {
+                    id = organization.getId();
+                }
+                assertEquals(id, organization.getId());
+            }
+        }
+        assertEquals(1, organizationRepository.count());
+        assertEquals("https://acme.example.com/logo.png", organizationRepository.findByName("Acme").orElseThrow().getLogoUrl());
+    }
+
+    @Test
+    void whenOrganizationIsCached_thenNoFurtherRowsOrLookups() {
+        // Given
+        Organization first = organizationResolver.resolve("Globex", "https://globex.example.com", null);
+        organizationRepository.deleteAllInBatch();
+
+        // When
+        Organization second = organizationResolver.resolve("Globex", "https://globex.example.com", null);
+
+        // Then
+        assertSame(first, second);
+        assertEquals(0, organizationRepository.count());
+    }
+
+    @Test
+    void whenLogoIsStored_thenDropCachedListings() {
+        // Given
+        Organization organization = organizationResolver.resolve("Initech", "https://initech.example.com", null);
+        jobResponseCache.invalidate();
+        jobResponseCache.get("page", () -> "[]");
+
+        // When
+        organizationResolver.updateLogoIfMissing(organization, "https://initech.example.com/logo.png");
+
+        // Then
+        assertEquals(0, jobResponseCache.size());
+        assertEquals("https://initech.example.com/logo.png",
+                organizationRepository.findByName("Initech").orElseThrow().getLogoUrl());
+
+        // A logo that is already stored changes nothing
+        jobResponseCache.get("page", () -> "[]");
+        organizationResolver.updateLogoIfMissing(organization, "https://initech.example.com/other.png");
+        assertEquals(1, jobResponseCache.size());
+    }
+}
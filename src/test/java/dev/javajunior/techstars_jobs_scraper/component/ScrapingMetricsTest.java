@@ -0,0 +1,102 @@
+package dev.javajunior.techstars_jobs_scraper.component;
+
+import dev.javajunior.techstars_jobs_scraper.connector.JsoupWrapper;
+import dev.javajunior.techstars_jobs_scraper.repository.JobRepository;
+import dev.javajunior.techstars_jobs_scraper.repository.OrganizationRepository;
+import dev.javajunior.techstars_jobs_scraper.service.JobScraperService;
+import org.jsoup.HttpStatusException;
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class ScrapingMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JobScraperService jobScraperService;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private OrganizationResolver organizationResolver;
+
+    @Autowired
+    private JobUrlIndex jobUrlIndex;
+
+    @MockitoBean
+    private JsoupWrapper jsoupWrapper;
+
+    @AfterEach
+    void tearDown() {
+        jobRepository.deleteAll();
+        organizationRepository.deleteAllInBatch();
+        organizationResolver.clear();
+        jobUrlIndex.load();
+    }
+
+    @Test
+    void whenJobsAreScraped_thenStagesAndFailuresAreExported() throws Exception {
+        // Given: one card whose detail page loads and one whose detail page answers 429
+        when(jsoupWrapper.connect(anyString())).thenReturn(Jsoup.parse("""
+                <html><body>
+                    <div class="job-card">
+                        <a class="company-link" href="https://metrics.example.com">Metrics Org</a>
+                        <div itemprop="title">Engineer</div>
+                        <a href="https://jobs.techstars.com/companies/metrics/jobs/1">Apply</a>
+                    </div>
+                    <div class="job-card">
+                        <a class="company-link" href="https://metrics.example.com">Metrics Org</a>
+                        <div itemprop="title">Designer</div>
+                        <a href="https://jobs.techstars.com/companies/metrics/jobs/2">Apply</a>
+                    </div>
+                </body></html>
+                """));
+        when(jsoupWrapper.fetch(contains("/jobs/1"))).thenReturn("<html><body><div class=\"job-description\">Build</div></body></html>");
+        when(jsoupWrapper.fetch(contains("/jobs/2"))).thenThrow(new HttpStatusException("HTTP error", 429, "https://jobs.techstars.com/companies/metrics/jobs/2"));
+
+        // When
+        jobScraperService.scrapeJobsByFunction("Metrics");
+        jobScraperService.scrapeJobsByFunction("Metrics");
+
+        // Then
+        mockMvc.perform(get("/actuator/metrics/scraper.stage.detail.fetch"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[?(@.statistic == 'COUNT')].value").value(hasItem(3.0)));
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("scraper_stage_listing_fetch_seconds_bucket")))
+                .andExpect(content().string(containsString("scraper_stage_parse_seconds_count{source=\"html\"")))
+                .andExpect(content().string(containsString("scraper_stage_job_persist_seconds_count")))
+                .andExpect(content().string(containsString("scraper_failures_total{cause=\"http_429\",stage=\"detail\"")))
+                .andExpect(content().string(containsString("scraper_cards_skipped_total 1.0")))
+                .andExpect(content().string(containsString("executor_queued_tasks{name=\"taskExecutor\"")))
+                .andExpect(content().string(containsString("executor_active_threads{name=\"taskExecutor\"")));
+    }
+}
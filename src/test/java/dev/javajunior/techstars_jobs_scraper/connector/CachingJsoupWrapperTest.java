@@ -0,0 +1,144 @@
+package dev.javajunior.techstars_jobs_scraper.connector;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingJsoupWrapperTest {
+
+    @TempDir
+    Path cacheDir;
+
+    private HttpServer server;
+    private String baseUrl;
+    private final List<String> ifNoneMatchHeaders = new CopyOnWriteArrayList<>();
+    private int fullResponses;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/jobs/", this::handle);
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void whenPageIsUnchanged_thenServeItFromCacheAfter304() throws IOException {
+        // Given
+        CachingJsoupWrapper wrapper = newWrapper(256);
+        String url = baseUrl + "/jobs/1";
+
+        // When
+        Document first = wrapper.connect(url);
+        Document second = wrapper.connect(url);
+
+        // Then
+        assertEquals("Job 1", first.title());
+        assertEquals("Job 1", second.title());
+        assertEquals(1, fullResponses, "Body should only be downloaded once");
+        assertEquals(List.of("\"v1\""), ifNoneMatchHeaders);
+        assertEquals(1, wrapper.missCount());
+        assertEquals(1, wrapper.hitCount());
+        assertEquals(1, wrapper.revalidationCount());
+    }
+
+    @Test
+    void whenFetchingText_thenShareCacheWithDocuments() throws IOException {
+        // Given
+        CachingJsoupWrapper wrapper = newWrapper(256);
+        String url = baseUrl + "/jobs/3";
+        wrapper.connect(url);
+
+        // When
+        String body = wrapper.fetch(url);
+
+        // Then
+        assertTrue(body.contains("<title>Job 3</title>"));
+        assertEquals(1, fullResponses);
+        assertEquals(1, wrapper.hitCount());
+    }
+
+    @Test
+    void whenCacheIsReopened_thenEntriesSurviveOnDisk() throws IOException {
+        // Given
+        String url = baseUrl + "/jobs/2";
+        newWrapper(256).connect(url);
+
+        // When
+        CachingJsoupWrapper reopened = newWrapper(256);
+        Document document = reopened.connect(url);
+
+        // Then
+        assertEquals("Job 2", document.title());
+        assertEquals(1, fullResponses);
+        assertEquals(1, reopened.hitCount());
+    }
+
+    @Test
+    void whenSizeBudgetIsExceeded_thenEvictLeastRecentlyUsed() throws IOException {
+        // Given: each page is a little over 600 KB, the budget is 1 MB
+        CachingJsoupWrapper wrapper = newWrapper(1);
+        wrapper.connect(baseUrl + "/jobs/large-1");
+        wrapper.connect(baseUrl + "/jobs/large-2");
+
+        // When
+        wrapper.connect(baseUrl + "/jobs/large-1");
+
+        // Then
+        assertEquals(3, fullResponses, "Evicted page should be downloaded again");
+        assertTrue(wrapper.sizeBytes() <= 1024 * 1024);
+    }
+
+    private CachingJsoupWrapper newWrapper(long maxSizeMb) throws IOException {
+        HostConcurrencyLimiter limiter = new HostConcurrencyLimiter();
+        ReflectionTestUtils.setField(limiter, "maxRequestsPerHost", 4);
+        return new CachingJsoupWrapper(new DefaultJsoupWrapper(limiter), new SimpleMeterRegistry(), cacheDir, maxSizeMb);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String id = exchange.getRequestURI().getPath().substring("/jobs/".length());
+        String etag = "\"v" + id + "\"";
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch != null) {
+            ifNoneMatchHeaders.add(ifNoneMatch);
+        }
+
+        if (etag.equals(ifNoneMatch)) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        String padding = id.startsWith("large") ? "x".repeat(600 * 1024) : "";
+        byte[] body = ("<html><head><title>Job " + id + "</title></head><body>" + padding + "</body></html>")
+                .getBytes(StandardCharsets.UTF_8);
+        fullResponses++;
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+        exchange.getResponseHeaders().add("ETag", etag);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package dev.javajunior.techstars_jobs_scraper.connector;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.jsoup.HttpStatusException;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the wrapper against a local server that answers with a scripted sequence of statuses.
+ */
+class DefaultJsoupWrapperTest {
+
+    private HttpServer server;
+    private String url;
+    private final Deque<Integer> statuses = new ConcurrentLinkedDeque<>();
+    private final List<Long> requestTimes = new CopyOnWriteArrayList<>();
+    private String retryAfter;
+
+    private HostConcurrencyLimiter limiter;
+    private DefaultJsoupWrapper wrapper;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/jobs", this::handle);
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/jobs";
+
+        limiter = new HostConcurrencyLimiter();
+        wrapper = new DefaultJsoupWrapper(limiter);
+        ReflectionTestUtils.setField(wrapper, "maxAttempts", 3);
+        ReflectionTestUtils.setField(wrapper, "initialBackoff", Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void whenServerFailsTransiently_thenRetryUntilItAnswers() throws IOException {
+        // Given
+        statuses.addAll(List.of(503, 502));
+
+        // When
+        Document document = wrapper.connect(url);
+
+        // Then
+        assertEquals("Jobs", document.title());
+        assertEquals(3, requestTimes.size());
+    }
+
+    @Test
+    void whenServerAsksToRetryLater_thenWaitForRetryAfter() throws IOException {
+        // Given
+        statuses.add(429);
+        retryAfter = "1";
+
+        // When
+        wrapper.fetch(url);
+
+        // Then
+        assertEquals(2, requestTimes.size());
+        assertTrue(requestTimes.get(1) - requestTimes.get(0) >= 950, "Retry should wait for Retry-After");
+        assertTrue(limiter.currentLimit(url) < 4, "A 429 should shrink the host limit");
+    }
+
+    @Test
+    void whenServerKeepsFailing_thenThrowAfterLastAttempt() {
+        // Given
+        statuses.addAll(List.of(500, 500, 500, 500));
+
+        // When
+        HttpStatusException e = assertThrows(HttpStatusException.class, () -> wrapper.connect(url));
+
+        // Then
+        assertEquals(500, e.getStatusCode());
+        assertEquals(3, requestTimes.size());
+    }
+
+    @Test
+    void whenPageIsMissing_thenFailWithoutRetrying() {
+        // Given
+        statuses.add(404);
+
+        // When
+        HttpStatusException e = assertThrows(HttpStatusException.class, () -> wrapper.fetch(url));
+
+        // Then
+        assertEquals(404, e.getStatusCode());
+        assertEquals(1, requestTimes.size());
+    }
+
+    @Test
+    void whenRetryAfterIsHttpDate_thenParseDelayUntilThen() {
+        String inTenSeconds = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(10));
+
+        Duration delay = DefaultJsoupWrapper.parseRetryAfter(inTenSeconds);
+
+        assertTrue(delay.toSeconds() >= 8 && delay.toSeconds() <= 10, delay.toString());
+        assertEquals(Duration.ofSeconds(5), DefaultJsoupWrapper.parseRetryAfter("5"));
+        assertNull(DefaultJsoupWrapper.parseRetryAfter("soon"));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestTimes.add(System.currentTimeMillis());
+        Integer status = statuses.poll();
+        if (status != null) {
+            if (retryAfter != null) {
+                exchange.getResponseHeaders().add("Retry-After", retryAfter);
+            }
+            byte[] body = "<html><head><title>Error</title></head></html>".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+            return;
+        }
+        byte[] body = "<html><head><title>Jobs</title></head><body></body></html>".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package dev.javajunior.techstars_jobs_scraper.connector;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HostConcurrencyLimiterTest {
+
+    private HostConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new HostConcurrencyLimiter();
+        ReflectionTestUtils.setField(limiter, "maxRequestsPerHost", 3);
+    }
+
+    @Test
+    void whenManyRequestsHitOneHost_thenAtMostTheLimitRunConcurrently() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String url = "https://jobs.techstars.com/companies/job-" + i;
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return limiter.execute(url, () -> {
+                            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                            LockSupport.parkNanos(2_000_000);
+                            running.decrementAndGet();
+                            return url;
+                        });
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }, executor));
+            }
+            futures.forEach(CompletableFuture::join);
+        }
+
+        assertEquals(3, maxRunning.get());
+    }
+
+    @Test
+    void whenHostThrottles_thenHalveLimitAndGrowItBackOnSuccess() throws Exception {
+        ReflectionTestUtils.setField(limiter, "maxRequestsPerHost", 8);
+        String url = "https://jobs.techstars.com/jobs";
+
+        limiter.execute(url, () -> 429, status -> status == 429);
+        limiter.execute(url, () -> 429, status -> status == 429);
+        double throttled = limiter.currentLimit(url);
+        for (int i = 0; i < 50; i++) {
+            limiter.execute(url, () -> 200, status -> status == 429);
+        }
+
+        assertEquals(1.0, throttled);
+        assertTrue(limiter.currentLimit(url) > 4, "Successes should raise the limit again");
+        assertTrue(limiter.currentLimit(url) <= 8);
+    }
+}
@@ -1,66 +1,360 @@
 package dev.javajunior.techstars_jobs_scraper.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.javajunior.techstars_jobs_scraper.component.JobResponseCache;
+import dev.javajunior.techstars_jobs_scraper.component.JobsPersistedEvent;
+import dev.javajunior.techstars_jobs_scraper.dto.CursorPage;
+import dev.javajunior.techstars_jobs_scraper.dto.FacetCount;
+import dev.javajunior.techstars_jobs_scraper.dto.FacetFilter;
+import dev.javajunior.techstars_jobs_scraper.dto.JobCursor;
+import dev.javajunior.techstars_jobs_scraper.dto.JobExportRow;
+import dev.javajunior.techstars_jobs_scraper.dto.JobFacets;
 import dev.javajunior.techstars_jobs_scraper.dto.JobFilter;
+import dev.javajunior.techstars_jobs_scraper.dto.JobListingRow;
 import dev.javajunior.techstars_jobs_scraper.dto.JobResponse;
-import dev.javajunior.techstars_jobs_scraper.model.Job;
-import dev.javajunior.techstars_jobs_scraper.model.Organization;
 import dev.javajunior.techstars_jobs_scraper.service.JobService;
+import dev.javajunior.techstars_jobs_scraper.service.SheetsSyncService;
+import dev.javajunior.techstars_jobs_scraper.export.JobParquetWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.DelegatingSeekableInputStream;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.io.SeekableInputStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class JobControllerTest {
 
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
     @Mock
     private JobService jobService;
 
-    @InjectMocks
+    @Mock
+    private SheetsSyncService sheetsSyncService;
+
+    private JobResponseCache jobResponseCache;
     private JobController jobController;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        jobResponseCache = new JobResponseCache(new SimpleMeterRegistry());
+        jobController = new JobController(jobService, jobResponseCache, objectMapper, sheetsSyncService);
     }
 
     @Test
-    void getJobs_returnsPageOfJobResponses() {
+    void getJobs_returnsPageOfJobResponses() throws IOException {
         // Given
-        Organization organization = Organization.builder().id(1L).name("Test Org").build();
-        Job job = Job.builder()
-                .id(1L)
-                .positionName("Test Job")
-                .jobPageUrl("http://example.com")
-                .organization(organization)
-                .build();
+        JobListingRow job = row(1L, "Test Job", 1_700_000_000_000L, "java" + JobListingRow.TAG_SEPARATOR + "kotlin");
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Job> jobPage = new PageImpl<>(Collections.singletonList(job), pageable, 1);
+        Page<JobListingRow> jobPage = new PageImpl<>(Collections.singletonList(job), pageable, 1);
 
         when(jobService.getJobs(any(JobFilter.class), any(Pageable.class))).thenReturn(jobPage);
 
         // When
-        ResponseEntity<Page<JobResponse>> response = jobController.getJobs("Test Location", "postedDate", "desc", pageable);
+        ResponseEntity<byte[]> response = jobController.getJobs("Test Location", "postedDate", "desc", pageable, null);
 
         // Then
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(1, response.getBody().getTotalElements());
-        assertEquals("Test Job", response.getBody().getContent().get(0).getPositionName());
-        assertEquals("Test Org", response.getBody().getContent().get(0).getOrganizationName());
+        assertNotNull(response.getHeaders().getETag());
+        JsonNode body = objectMapper.readTree(response.getBody());
+        assertEquals(1, body.get("totalElements").asInt());
+        JsonNode first = body.get("content").get(0);
+        assertEquals("Test Job", first.get("positionName").asText());
+        assertEquals("Test Org", first.get("organizationName").asText());
+        assertEquals(Set.of("java", "kotlin"), objectMapper.convertValue(first.get("tags"), Set.class));
+    }
+
+    @Test
+    void getJobs_servesRepeatsFromCacheAndAnswersMatchingEtagWith304() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        when(jobService.getJobs(any(JobFilter.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(row(1L, "Test Job", 1000L, null)), pageable, 1));
+        ResponseEntity<byte[]> first = jobController.getJobs(null, null, null, pageable, null);
+
+        // When
+        ResponseEntity<byte[]> repeated = jobController.getJobs(null, null, null, pageable, null);
+        ResponseEntity<byte[]> revalidated = jobController.getJobs(null, null, null, pageable, first.getHeaders().getETag());
+
+        // Then
+        assertArrayEquals(first.getBody(), repeated.getBody());
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidated.getStatusCode());
+        assertEquals(first.getHeaders().getETag(), revalidated.getHeaders().getETag());
+        verify(jobService, times(1)).getJobs(any(JobFilter.class), any(Pageable.class));
+        assertEquals(2, jobResponseCache.hitCount());
+        assertEquals(1, jobResponseCache.missCount());
+    }
+
+    @Test
+    void getJobs_queriesAgainOnceJobsArePersisted() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        when(jobService.getJobs(any(JobFilter.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(row(1L, "Test Job", 1000L, null)), pageable, 1))
+                .thenReturn(new PageImpl<>(List.of(row(2L, "New Job", 2000L, null), row(1L, "Test Job", 1000L, null)), pageable, 2));
+        ResponseEntity<byte[]> before = jobController.getJobs(null, null, null, pageable, null);
+
+        // When
+        jobResponseCache.onJobsPersisted(new JobsPersistedEvent(List.of(2L)));
+        ResponseEntity<byte[]> after = jobController.getJobs(null, null, null, pageable, before.getHeaders().getETag());
+
+        // Then
+        assertEquals(HttpStatus.OK, after.getStatusCode());
+        assertNotEquals(before.getHeaders().getETag(), after.getHeaders().getETag());
+        verify(jobService, times(2)).getJobs(any(JobFilter.class), any(Pageable.class));
+    }
+
+    @Test
+    void getJobsByCursor_decodesCursorAndReturnsNextToken() {
+        // Given
+        JobListingRow job = row(7L, "Test Job", 1000L, null);
+        String next = new JobCursor(1000L, 7L).encode();
+        when(jobService.getJobsAfter("NYC", new JobCursor(2000L, 9L), 1, false))
+                .thenReturn(new CursorPage<>(Collections.singletonList(job), next, null));
+
+        // When
+        ResponseEntity<CursorPage<JobResponse>> response =
+                jobController.getJobsByCursor("NYC", new JobCursor(2000L, 9L).encode(), 1, false);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Test Job", response.getBody().content().get(0).getPositionName());
+        assertEquals(new JobCursor(1000L, 7L), JobCursor.decode(response.getBody().nextCursor()));
+    }
+
+    @Test
+    void getJobsByCursor_rejectsMalformedCursor() {
+        ResponseEntity<CursorPage<JobResponse>> response = jobController.getJobsByCursor(null, "not-a-cursor", 10, false);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void searchJobs_returnsSliceOfJobResponses() {
+        // Given
+        JobListingRow job = row(1L, "Kafka Engineer", 1000L, null);
+        Pageable pageable = PageRequest.of(0, 10);
+        when(jobService.searchJobs("kafka", pageable)).thenReturn(new SliceImpl<>(Collections.singletonList(job), pageable, false));
+
+        // When
+        ResponseEntity<Slice<JobResponse>> response = jobController.searchJobs("kafka", pageable);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Kafka Engineer", response.getBody().getContent().get(0).getPositionName());
+    }
+
+    @Test
+    void searchJobs_rejectsBlankQuery() {
+        ResponseEntity<Slice<JobResponse>> response = jobController.searchJobs("  ", PageRequest.of(0, 10));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void getFacets_passesSelectedValuesAsFilter() {
+        // Given
+        JobFacets facets = new JobFacets(2, Map.of(JobFacets.LOCATION, List.of(new FacetCount("Remote", 2))));
+        when(jobService.getFacets(new FacetFilter("Remote", null, null, true, null, null, "java"), 5)).thenReturn(facets);
+
+        // When
+        ResponseEntity<JobFacets> response = jobController.getFacets("Remote", null, null, true, null, null, "java", 5);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(facets, response.getBody());
+    }
+
+    @Test
+    void getFacets_rejectsSizeOutOfRange() {
+        ResponseEntity<JobFacets> response = jobController.getFacets(null, null, null, null, null, null, null, 0);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void exportJobsToCsv_streamsRows() throws IOException {
+        // Given
+        stubExportRows();
+
+        // When
+        ResponseEntity<StreamingResponseBody> response = jobController.exportJobsToCsv("NYC", null, false);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Position Name,Organization,Location,Posted Date,Job Type,Experience Level,Remote,Application URL\n" +
+                "\"Engineer, Backend\",Test Org,NYC,,Full-time,,true,https://apply.example.com\n" +
+                "\"Says \"\"hi\"\"\",,NYC,,,,,\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportJobsToCsv_gzipsWhenRequested() throws IOException {
+        // Given
+        stubExportRows();
+
+        // When
+        ResponseEntity<StreamingResponseBody> response = jobController.exportJobsToCsv("NYC", null, true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        // Then
+        assertEquals("application/gzip", response.getHeaders().getContentType().toString());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            String csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertEquals(3, csv.lines().count());
+        }
+    }
+
+    @Test
+    void exportJobsToParquet_writesTypedColumns() throws IOException {
+        // Given
+        doAnswer(invocation -> {
+            Consumer<JobListingRow> consumer = invocation.getArgument(2);
+            consumer.accept(new JobListingRow(1L, "Engineer, Backend", "http://example.com/1", "Test Org",
+                    "https://org.example.com", null, "Software Engineering",
+                    "Data Science" + JobListingRow.TAG_SEPARATOR + "Software Engineering", "NYC", 1_700_000_000_000L,
+                    "java" + JobListingRow.TAG_SEPARATOR + "kotlin", "Full-time", "Senior", null, true,
+                    "https://apply.example.com"));
+            consumer.accept(row(2L, "Says \"hi\"", null, null));
+            return null;
+        }).when(jobService).streamListingsForExport(eq("NYC"), isNull(), any());
+
+        // When
+        ResponseEntity<StreamingResponseBody> response = jobController.exportJobsToParquet("NYC", null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        // Then
+        List<Group> rows = new ArrayList<>();
+        try (ParquetFileReader reader = ParquetFileReader.open(inputFile(out.toByteArray()))) {
+            assertEquals(JobParquetWriter.SCHEMA, reader.getFileMetaData().getSchema());
+            // Parquet falls back to plain encoding where a dictionary does not pay off, so only
+            // the columns repeated in both rows are sure to keep theirs
+            for (ColumnChunkMetaData column : reader.getRowGroups().get(0).getColumns()) {
+                String path = column.getPath().toDotString();
+                if (Set.of("organization_name", "labor_functions.list.element", "location").contains(path)) {
+                    assertTrue(column.hasDictionaryPage(), path);
+                } else if (!JobParquetWriter.DICTIONARY_COLUMNS.contains(path)) {
+                    assertFalse(column.hasDictionaryPage(), path);
+                }
+            }
+            PageReadStore rowGroup;
+            while ((rowGroup = reader.readNextRowGroup()) != null) {
+                RecordReader<Group> records = new ColumnIOFactory().getColumnIO(JobParquetWriter.SCHEMA)
+                        .getRecordReader(rowGroup, new GroupRecordConverter(JobParquetWriter.SCHEMA));
+                for (long i = 0; i < rowGroup.getRowCount(); i++) {
+                    rows.add(records.read());
+                }
+            }
+        }
+        assertEquals(2, rows.size());
+        Group first = rows.get(0);
+        assertEquals(1L, first.getLong("id", 0));
+        assertEquals("Engineer, Backend", first.getString("position_name", 0));
+        assertEquals(1_700_000_000_000L, first.getLong("posted_date", 0));
+        assertEquals("kotlin", first.getGroup("tags", 0).getGroup("list", 1).getString("element", 0));
+        Group functions = first.getGroup("labor_functions", 0);
+        assertEquals(2, functions.getFieldRepetitionCount("list"));
+        assertEquals("Data Science", functions.getGroup("list", 0).getString("element", 0));
+        assertEquals("Software Engineering", functions.getGroup("list", 1).getString("element", 0));
+        assertTrue(first.getBoolean("remote", 0));
+        Group second = rows.get(1);
+        assertEquals("Says \"hi\"", second.getString("position_name", 0));
+        assertEquals(0, second.getFieldRepetitionCount("posted_date"));
+        assertEquals(0, second.getFieldRepetitionCount("tags"));
+        assertEquals("Software Engineering",
+                second.getGroup("labor_functions", 0).getGroup("list", 0).getString("element", 0));
+        assertEquals("techstars_jobs.parquet", response.getHeaders().getContentDisposition().getFilename());
+    }
+
+    private static JobListingRow row(Long id, String positionName, Long postedDate, String tags) {
+        return new JobListingRow(id, positionName, "http://example.com/" + id, "Test Org", null, null,
+                "Software Engineering", "Software Engineering", "NYC", postedDate, tags, null, null, null, null, null);
+    }
+
+    private void stubExportRows() {
+        doAnswer(invocation -> {
+            Consumer<JobExportRow> consumer = invocation.getArgument(2);
+            consumer.accept(new JobExportRow("Engineer, Backend", "Test Org", "NYC", null, "Full-time", null, true,
+                    "https://apply.example.com"));
+            consumer.accept(new JobExportRow("Says \"hi\"", null, "NYC", null, null, null, null, null));
+            return null;
+        }).when(jobService).streamJobsForExport(eq("NYC"), isNull(), any());
+    }
+
+    private static InputFile inputFile(byte[] bytes) {
+        return new InputFile() {
+            @Override
+            public long getLength() {
+                return bytes.length;
+            }
+
+            @Override
+            public SeekableInputStream newStream() {
+                ByteArrayInputStream in = new ByteArrayInputStream(bytes);
+                return new DelegatingSeekableInputStream(in) {
+                    @Override
+                    public long getPos() {
+                        return bytes.length - in.available();
+                    }
+
+                    @Override
+                    public void seek(long newPos) {
+                        in.reset();
+                        in.skip(newPos);
+                    }
+                };
+            }
+        };
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,136 @@
+package dev.javajunior.techstars_jobs_scraper.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import dev.javajunior.techstars_jobs_scraper.component.PageArchive;
+import dev.javajunior.techstars_jobs_scraper.dto.CrawlResult;
+import dev.javajunior.techstars_jobs_scraper.model.Job;
+import dev.javajunior.techstars_jobs_scraper.model.Organization;
+import dev.javajunior.techstars_jobs_scraper.service.ArchiveReplayService;
+import dev.javajunior.techstars_jobs_scraper.service.IncrementalScrapeService;
+import dev.javajunior.techstars_jobs_scraper.service.JobScraperService;
+import dev.javajunior.techstars_jobs_scraper.service.ScrapeQueueService;
+import dev.javajunior.techstars_jobs_scraper.service.ScrapeRunService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class JobScraperControllerTest {
+
+    @Mock
+    private JobScraperService jobScraperService;
+
+    @Mock
+    private IncrementalScrapeService incrementalScrapeService;
+
+    @Mock
+    private ScrapeQueueService scrapeQueueService;
+
+    @Mock
+    private ArchiveReplayService archiveReplayService;
+
+    @Mock
+    private PageArchive pageArchive;
+
+    private ThreadPoolTaskExecutor executor;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.initialize();
+        ScrapeRunService scrapeRunService = new ScrapeRunService(jobScraperService, executor);
+        ReflectionTestUtils.setField(scrapeRunService, "retention", Duration.ofHours(1));
+        ReflectionTestUtils.setField(scrapeRunService, "sseTimeout", Duration.ofMinutes(1));
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                new JobScraperController(jobScraperService, incrementalScrapeService, scrapeRunService,
+                        scrapeQueueService, archiveReplayService, pageArchive)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void whenScrapeIsStarted_thenStreamJobsAndFinalStatus() throws Exception {
+        // Given: the crawl only saves its job once a client is subscribed
+        CountDownLatch subscribed = new CountDownLatch(1);
+        when(jobScraperService.crawlJobsByFunction(eq("Software Engineering"), any(), any())).thenAnswer(invocation -> {
+            Consumer<Job> onSaved = invocation.getArgument(1);
+            assertTrue(subscribed.await(5, TimeUnit.SECONDS));
+            onSaved.accept(Job.builder()
+                    .id(42L)
+                    .positionName("Backend Engineer")
+                    .organization(Organization.builder().name("Acme").url("https://acme.example.com").build())
+                    .postedDate(1_700_000_000_000L)
+                    .build());
+            return new CrawlResult("Software Engineering", 1, 1, 0, 1, 0);
+        });
+
+        // When
+        MvcResult started = mockMvc.perform(post("/api/jobs/scrape").param("jobFunction", "Software Engineering"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.runId").exists())
+                .andReturn();
+        String runId = JsonPath.read(started.getResponse().getContentAsString(), "$.runId");
+        MvcResult events = mockMvc.perform(get("/api/jobs/scrape/{runId}/events", runId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        subscribed.countDown();
+        events.getAsyncResult(5000);
+
+        // Then
+        String stream = events.getResponse().getContentAsString();
+        assertTrue(stream.contains("event:job"), stream);
+        assertTrue(stream.contains("\"positionName\":\"Backend Engineer\""), stream);
+        assertTrue(stream.contains("event:status"), stream);
+        assertTrue(stream.contains("\"state\":\"SUCCEEDED\""), stream);
+        mockMvc.perform(get("/api/jobs/scrape/{runId}", runId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jobsSaved").value(1));
+    }
+
+    @Test
+    void whenRunIsUnknown_thenAnswerNotFound() throws Exception {
+        mockMvc.perform(get("/api/jobs/scrape/{runId}", "missing")).andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/jobs/scrape/{runId}", "missing")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/jobs/scrape/{runId}/events", "missing")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void whenScrapeIsStarted_thenLocationPointsToRun() throws Exception {
+        when(jobScraperService.crawlJobsByFunction(eq("Design"), any(), any()))
+                .thenReturn(new CrawlResult("Design", 0, 0, 0, 0, 0));
+
+        mockMvc.perform(post("/api/jobs/scrape").param("jobFunction", "Design"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", startsWith("/api/jobs/scrape/")));
+    }
+}
@@ -0,0 +1,250 @@
+package dev.javajunior.techstars_jobs_scraper.service;
+
+import dev.javajunior.techstars_jobs_scraper.component.JobUrlIndex;
+import dev.javajunior.techstars_jobs_scraper.component.OrganizationResolver;
+import dev.javajunior.techstars_jobs_scraper.component.PageArchive;
+import dev.javajunior.techstars_jobs_scraper.connector.JsoupWrapper;
+import dev.javajunior.techstars_jobs_scraper.dto.ReplayResult;
+import dev.javajunior.techstars_jobs_scraper.model.Job;
+import dev.javajunior.techstars_jobs_scraper.repository.JobRepository;
+import dev.javajunior.techstars_jobs_scraper.repository.OrganizationRepository;
+import dev.javajunior.techstars_jobs_scraper.repository.PageArchiveRepository;
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ArchiveReplayServiceTest {
+
+    private static final String FUNCTION = "Software Engineering";
+    private static final String JOB_URL = "https://jobs.techstars.com/companies/acme/jobs/";
+    private static final Path ARCHIVE_DIRECTORY;
+
+    static {
+        try {
+            ARCHIVE_DIRECTORY = Files.createTempDirectory("page-archive");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Autowired
+    private ArchiveReplayService archiveReplayService;
+
+    @Autowired
+    private JobScraperService jobScraperService;
+
+    @Autowired
+    private PageArchive pageArchive;
+
+    @Autowired
+    private PageArchiveRepository pageArchiveRepository;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private OrganizationResolver organizationResolver;
+
+    @Autowired
+    private JobUrlIndex jobUrlIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private JsoupWrapper jsoupWrapper;
+
+    @DynamicPropertySource
+    static void archiveProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.scraping.archive.enabled", () -> true);
+        registry.add("app.scraping.archive.directory", ARCHIVE_DIRECTORY::toString);
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(jsoupWrapper.connect(anyString())).thenAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            return Jsoup.parse(url.contains("&page=") ? "<html><body></body></html>" : listing(), url);
+        });
+        when(jsoupWrapper.fetch(anyString())).thenAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            return "<html><body><div class=\"job-description\">Build things " + url.substring(JOB_URL.length()) +
+                    "</div></body></html>";
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        pageArchiveRepository.deleteAll();
+        deleteArchivedFiles();
+        jobRepository.deleteAll();
+        organizationRepository.deleteAllInBatch();
+        organizationResolver.clear();
+        jobUrlIndex.load();
+    }
+
+    @Test
+    void whenReplayed_thenRestoreContentFromArchiveWithoutNetwork() {
+        // Given: a scrape archived its pages, then the stored content went bad
+        jobScraperService.crawlJobsByFunction(FUNCTION);
+        jdbcTemplate.update("UPDATE jobs SET description = NULL, content_hash = 'stale'");
+        Long closedId = jobRepository.findAll().get(0).getId();
+        jdbcTemplate.update("UPDATE jobs SET closed = TRUE WHERE id = ?", closedId);
+        clearInvocations(jsoupWrapper);
+
+        // When
+        ReplayResult result = archiveReplayService.replay();
+
+        // Then
+        verifyNoInteractions(jsoupWrapper);
+        assertEquals(3, result.detailPages());
+        assertEquals(3, result.jobsReplayed());
+        assertEquals(3, result.jobsUpdated());
+        assertEquals(0, result.jobsFailed());
+        List<Job> jobs = jobRepository.findAll();
+        for (Job job : jobs) {
+            assertEquals("Build things " + job.getJobPageUrl().substring(JOB_URL.length()), job.getDescription());
+        }
+        // Replay does not see the board, so it does not reopen jobs
+        assertTrue(jobRepository.findById(closedId).orElseThrow().isClosed());
+
+        // Nothing left to fix
+        assertEquals(0, archiveReplayService.replay().jobsUpdated());
+    }
+
+    @Test
+    void whenListingIsNotArchived_thenKeepTheStoredCardHash() {
+        // Given
+        jobScraperService.crawlJobsByFunction(FUNCTION);
+        jdbcTemplate.update("DELETE FROM page_archive WHERE kind = ?", PageArchive.LISTING);
+        jdbcTemplate.update("UPDATE jobs SET description = NULL, content_hash = 'stale', card_hash = 'stored'");
+
+        // When
+        ReplayResult result = archiveReplayService.replay();
+
+        // Then
+        assertEquals(3, result.jobsUpdated());
+        for (Job job : jobRepository.findAll()) {
+            assertEquals("stored", job.getCardHash());
+            assertNotNull(job.getDescription());
+        }
+    }
+
+    @Test
+    void whenCardNamesUnknownOrganization_thenCreateItOnceWithTheJobs() {
+        // Given: the stored organization no longer matches the archived cards
+        jobScraperService.crawlJobsByFunction(FUNCTION);
+        jdbcTemplate.update("UPDATE organizations SET name = 'Acme (old)', url = 'https://old.example.com'");
+        jdbcTemplate.update("UPDATE jobs SET content_hash = 'stale'");
+        organizationResolver.clear();
+
+        // When
+        ReplayResult result = archiveReplayService.replay();
+
+        // Then
+        assertEquals(3, result.jobsUpdated());
+        assertEquals(2, organizationRepository.count());
+        Long acmeId = organizationRepository.findByName("Acme").orElseThrow().getId();
+        for (Job job : jobRepository.findAll()) {
+            assertEquals(acmeId, job.getOrganization().getId());
+        }
+    }
+
+    @Test
+    void whenBodiesAreGone_thenReportThemMissingInsteadOfFailed() throws IOException {
+        // Given: the index rows survived, the archive directory did not
+        jobScraperService.crawlJobsByFunction(FUNCTION);
+        jdbcTemplate.update("UPDATE jobs SET content_hash = 'stale'");
+        deleteArchivedFiles();
+
+        // When
+        ReplayResult result = archiveReplayService.replay();
+
+        // Then
+        assertEquals(result.listingPages() + 3, result.pagesMissing());
+        assertEquals(0, result.jobsReplayed());
+        assertEquals(0, result.jobsUpdated());
+        assertEquals(0, result.jobsFailed());
+        assertEquals(Optional.empty(), pageArchive.find(JOB_URL + "1", Long.MAX_VALUE));
+    }
+
+    @Test
+    void whenSamePageIsFetchedTwice_thenStoreOneBlobAndIndexBothFetches() throws IOException, InterruptedException {
+        // Given
+        String url = JOB_URL + "1";
+        pageArchive.store(PageArchive.DETAIL, url, "<html>v1</html>");
+        long firstFetch = System.currentTimeMillis();
+        Thread.sleep(5);
+        pageArchive.store(PageArchive.DETAIL, url, "<html>v1</html>");
+        Thread.sleep(5);
+        pageArchive.store(PageArchive.DETAIL, url, "<html>v2</html>");
+
+        // When
+        Optional<String> beforeFirst = pageArchive.find(url, 0);
+        Optional<String> atFirst = pageArchive.find(url, firstFetch);
+        Optional<String> latest = pageArchive.find(url, Long.MAX_VALUE);
+
+        // Then
+        assertEquals(3, pageArchiveRepository.count());
+        try (Stream<Path> files = Files.walk(ARCHIVE_DIRECTORY)) {
+            assertEquals(2, files.filter(path -> path.toString().endsWith(".html.gz")).count());
+        }
+        assertTrue(beforeFirst.isEmpty());
+        assertEquals(Optional.of("<html>v1</html>"), atFirst);
+        assertEquals(Optional.of("<html>v2</html>"), latest);
+    }
+
+    private static void deleteArchivedFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(ARCHIVE_DIRECTORY)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                if (!path.equals(ARCHIVE_DIRECTORY)) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    private static String listing() {
+        StringBuilder html = new StringBuilder("<html><body>");
+        for (int id = 1; id <= 3; id++) {
+            html.append("""
+                    <div class="job-card">
+                        <div class="company-info">
+                            <a class="company-link" href="https://acme.example.com">Acme</a>
+                        </div>
+                        <div itemprop="title">Engineer %d</div>
+                        <div itemprop="jobLocation">Remote</div>
+                        <div class="posted-date">1 day ago</div>
+                        <a href="%s%d">Apply</a>
+                    </div>
+                    """.formatted(id, JOB_URL, id));
+        }
+        return html.append("</body></html>").toString();
+    }
+}
@@ -0,0 +1,218 @@
+package dev.javajunior.techstars_jobs_scraper.service;
+
+import dev.javajunior.techstars_jobs_scraper.component.JobBatchWriter;
+import dev.javajunior.techstars_jobs_scraper.component.JobUrlIndex;
+import dev.javajunior.techstars_jobs_scraper.component.OrganizationResolver;
+import dev.javajunior.techstars_jobs_scraper.connector.JsoupWrapper;
+import dev.javajunior.techstars_jobs_scraper.dto.RefreshResult;
+import dev.javajunior.techstars_jobs_scraper.model.Job;
+import dev.javajunior.techstars_jobs_scraper.repository.JobRepository;
+import dev.javajunior.techstars_jobs_scraper.repository.OrganizationRepository;
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IncrementalScrapeServiceTest {
+
+    private static final String FUNCTION = "Software Engineering";
+    private static final String JOB_URL = "https://jobs.techstars.com/companies/acme/jobs/";
+
+    @Autowired
+    private IncrementalScrapeService incrementalScrapeService;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private OrganizationResolver organizationResolver;
+
+    @Autowired
+    private JobUrlIndex jobUrlIndex;
+
+    @Autowired
+    private JobBatchWriter jobBatchWriter;
+
+    @MockitoBean
+    private JsoupWrapper jsoupWrapper;
+
+    // Card title and detail description per job id, as currently shown by the board
+    private final Map<String, String> titles = new LinkedHashMap<>();
+    private final Map<String, String> descriptions = new ConcurrentHashMap<>();
+    private String logoUrl = "https://logo.example.com/acme.png";
+
+    @BeforeEach
+    void setUp() throws IOException {
+        titles.put("1", "Backend Engineer");
+        titles.put("2", "Frontend Engineer");
+        descriptions.put("1", "Build APIs");
+        descriptions.put("2", "Build UIs");
+
+        when(jsoupWrapper.connect(anyString())).thenAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            return Jsoup.parse(url.contains("&page=") ? "<html><body></body></html>" : listing());
+        });
+        when(jsoupWrapper.fetch(anyString())).thenAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            return detail(descriptions.get(url.substring(JOB_URL.length())));
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobRepository.deleteAll();
+        organizationRepository.deleteAllInBatch();
+        organizationResolver.clear();
+        jobUrlIndex.load();
+    }
+
+    @Test
+    void whenNothingChanged_thenSkipDetailFetchesAndWrites() throws IOException {
+        // Given
+        RefreshResult first = incrementalScrapeService.refresh(FUNCTION);
+        Job stored = jobRepository.findAll().get(0);
+        clearInvocations(jsoupWrapper);
+
+        // When
+        RefreshResult second = incrementalScrapeService.refresh(FUNCTION);
+
+        // Then
+        assertEquals(new RefreshResult(FUNCTION, 1, 2, 2, 0, 0, 0, 0), first);
+        assertEquals(new RefreshResult(FUNCTION, 1, 2, 0, 0, 2, 0, 0), second);
+        verify(jsoupWrapper, never()).fetch(anyString());
+        Job reloaded = jobRepository.findById(stored.getId()).orElseThrow();
+        assertEquals(stored.getLastSeenAt(), reloaded.getLastSeenAt(), "Unchanged jobs should not be written");
+        assertNotNull(reloaded.getCardHash());
+        assertNotNull(reloaded.getContentHash());
+    }
+
+    @Test
+    void whenCardAndContentChanged_thenRewriteOnlyThatJob() throws IOException {
+        // Given
+        incrementalScrapeService.refresh(FUNCTION);
+        titles.put("1", "Senior Backend Engineer");
+        descriptions.put("1", "Build and own APIs");
+        clearInvocations(jsoupWrapper);
+
+        // When
+        RefreshResult result = incrementalScrapeService.refresh(FUNCTION);
+
+        // Then
+        assertEquals(new RefreshResult(FUNCTION, 1, 2, 0, 1, 1, 0, 0), result);
+        verify(jsoupWrapper, times(1)).fetch(anyString());
+        Job job = jobRepository.findAll().stream()
+                .filter(candidate -> candidate.getJobPageUrl().equals(JOB_URL + "1"))
+                .findFirst().orElseThrow();
+        assertEquals("Senior Backend Engineer", job.getPositionName());
+        assertEquals("Build and own APIs", job.getDescription());
+        assertEquals(2, jobRepository.count());
+    }
+
+    @Test
+    void whenOnlyCardChanged_thenKeepStoredContent() throws IOException {
+        // Given: the logo is part of the card but not of the content
+        incrementalScrapeService.refresh(FUNCTION);
+        logoUrl = "https://logo.example.com/acme-v2.png";
+        clearInvocations(jsoupWrapper);
+
+        // When
+        RefreshResult changed = incrementalScrapeService.refresh(FUNCTION);
+        RefreshResult settled = incrementalScrapeService.refresh(FUNCTION);
+
+        // Then: both cards are read once more, then the new card hash is stored
+        assertEquals(new RefreshResult(FUNCTION, 1, 2, 0, 0, 2, 0, 0), changed);
+        assertEquals(new RefreshResult(FUNCTION, 1, 2, 0, 0, 2, 0, 0), settled);
+        verify(jsoupWrapper, times(2)).fetch(anyString());
+    }
+
+    @Test
+    void whenJobDropsOffListing_thenCloseAndReopenIt() {
+        // Given
+        incrementalScrapeService.refresh(FUNCTION);
+        String removed = titles.remove("2");
+
+        // When
+        RefreshResult closing = incrementalScrapeService.refresh(FUNCTION);
+        titles.put("2", removed);
+        RefreshResult reopening = incrementalScrapeService.refresh(FUNCTION);
+
+        // Then
+        assertEquals(1, closing.jobsClosed());
+        assertEquals(0, reopening.jobsClosed());
+        assertEquals(0, reopening.jobsAdded());
+        assertTrue(jobRepository.findAll().stream().noneMatch(Job::isClosed));
+    }
+
+    @Test
+    void whenJobDropsOffOneOfItsFunctions_thenCloseItOnlyOnceNoFunctionListsIt() {
+        // Given: job 2 is also listed under Data Science
+        incrementalScrapeService.refresh(FUNCTION);
+        jobBatchWriter.recordFunctions(Map.of(JOB_URL + "2", Set.of("Data Science")));
+        titles.remove("2");
+
+        // When
+        RefreshResult first = incrementalScrapeService.refresh(FUNCTION);
+        Job stillListed = job("2");
+        RefreshResult second = incrementalScrapeService.refresh("Data Science");
+
+        // Then
+        assertEquals(0, first.jobsClosed());
+        assertFalse(stillListed.isClosed());
+        assertEquals(Set.of("Data Science"), stillListed.getJobFunctions());
+        assertEquals(1, second.jobsClosed());
+        assertTrue(job("2").isClosed());
+        // Job 1 is shown by the Data Science listing too, so it is recorded under it
+        assertEquals(Set.of(FUNCTION, "Data Science"), job("1").getJobFunctions());
+        assertFalse(job("1").isClosed());
+    }
+
+    private Job job(String id) {
+        return jobRepository.findAll().stream()
+                .filter(candidate -> candidate.getJobPageUrl().equals(JOB_URL + id))
+                .findFirst().orElseThrow();
+    }
+
+    private String listing() {
+        StringBuilder html = new StringBuilder("<html><body>");
+        titles.forEach((id, title) -> html.append("""
+                <div class="job-card">
+                    <div class="company-info">
+                        <a class="company-link" href="https://acme.example.com">Acme</a>
+                        <img class="company-logo" src="%s">
+                    </div>
+                    <div itemprop="title">%s</div>
+                    <div itemprop="jobLocation">New York, NY</div>
+                    <div class="posted-date">1 day ago</div>
+                    <a href="%s%s">Apply</a>
+                </div>
+                """.formatted(logoUrl, title, JOB_URL, id)));
+        return html.append("</body></html>").toString();
+    }
+
+    private static String detail(String description) {
+        return """
+                <html><head><script id="__NEXT_DATA__" type="application/json">
+                {"props": {"pageProps": {"job": {"description": "%s", "tags": ["java"], "remote": false}}}}
+                </script></head></html>
+                """.formatted(description);
+    }
+}
@@ -18,6 +18,7 @@ import org.jsoup.nodes.Document;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -94,7 +95,6 @@ class JobScraperServiceIntegrationTest {
 
         // 2. Создание моков документов
         Document mockListingDoc = Jsoup.parse(jobListingHtml);
-        Document mockJobDetailDoc = Jsoup.parse(jobDetailHtml);
 
         // 3. Настройка моков
         reset(jsoupWrapper);
@@ -102,8 +102,8 @@ class JobScraperServiceIntegrationTest {
         when(jsoupWrapper.connect(contains("jobs?q=Software+Engineer")))
                 .thenReturn(mockListingDoc);
 
-        when(jsoupWrapper.connect(contains("/apply/123")))
-                .thenReturn(mockJobDetailDoc);
+        when(jsoupWrapper.fetch(contains("/apply/123")))
+                .thenReturn(jobDetailHtml);
 
         // 4. Вызов тестируемого метода
         List<Job> jobs = jobScraperService.scrapeJobsByFunction("Software Engineer");
@@ -117,6 +117,10 @@ class JobScraperServiceIntegrationTest {
         assertNotNull(job.getOrganization(), "Organization should not be null");
         assertEquals("Company 1", job.getOrganization().getName());
         assertEquals("New York, NY", job.getLocation());
+        assertEquals("Job description", job.getDescription());
+        assertEquals(Set.of("java"), job.getTags());
+        assertEquals("https://apply.com/123", job.getApplicationUrl());
+        verify(jsoupWrapper, never()).connect(contains("/apply/123"));
     }
 
     @Test
@@ -1,25 +1,37 @@
 package dev.javajunior.techstars_jobs_scraper.service;
 
 import dev.javajunior.techstars_jobs_scraper.component.AsyncJobProcessor;
+import dev.javajunior.techstars_jobs_scraper.component.JobBatchWriter;
+import dev.javajunior.techstars_jobs_scraper.component.JobCardExtractor;
+import dev.javajunior.techstars_jobs_scraper.component.JobUrlIndex;
+import dev.javajunior.techstars_jobs_scraper.component.ListingCrawler;
+import dev.javajunior.techstars_jobs_scraper.component.ScrapingMetrics;
 import dev.javajunior.techstars_jobs_scraper.connector.JsoupWrapper;
+import dev.javajunior.techstars_jobs_scraper.dto.CrawlResult;
+import dev.javajunior.techstars_jobs_scraper.dto.JobCard;
 import dev.javajunior.techstars_jobs_scraper.model.Job;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -29,15 +41,31 @@ class JobScraperServiceTest {
     @Mock
     private AsyncJobProcessor asyncJobProcessor;
 
+    @Spy
+    private JobCardExtractor jobCardExtractor = new JobCardExtractor();
+
     @Mock
     private JsoupWrapper jsoupWrapper;
 
+    @Mock
+    private JobUrlIndex jobUrlIndex;
+
+    @Mock
+    private ListingCrawler listingCrawler;
+
+    @Mock
+    private JobBatchWriter jobBatchWriter;
+
+    @Spy
+    private ScrapingMetrics scrapingMetrics = new ScrapingMetrics(new SimpleMeterRegistry());
+
     @InjectMocks
     private JobScraperService jobScraperService;
 
     @BeforeEach
     void setUp() {
         ReflectionTestUtils.setField(jobScraperService, "baseUrl", "https://jobs.techstars.com");
+        ReflectionTestUtils.setField(jobScraperService, "maxInFlightCards", 2);
     }
 
     @Test
@@ -75,9 +103,14 @@ class JobScraperServiceTest {
         // Mock the JsoupWrapper
         when(jsoupWrapper.connect(anyString())).thenReturn(mockDoc);
 
-        // Mock the behavior of asyncJobProcessor.processJobElement()
-        when(asyncJobProcessor.processJobElement(any(Element.class), eq(jobFunction)))
+        // Both cards are unknown to the URL index
+        when(jobUrlIndex.filterUnknown(any()))
+            .thenAnswer(invocation -> new LinkedHashSet<>(invocation.<Set<String>>getArgument(0)));
+
+        // Mock the behavior of asyncJobProcessor.processJobCard()
+        when(asyncJobProcessor.processJobCard(any(JobCard.class), eq(jobFunction)))
             .thenReturn(CompletableFuture.completedFuture(mock(Job.class)));
+        when(jobBatchWriter.writeAll(any())).thenAnswer(invocation -> List.copyOf(invocation.<List<Job>>getArgument(0)));
 
         // When
         List<Job> jobs = jobScraperService.scrapeJobsByFunction(jobFunction);
@@ -85,7 +118,125 @@ class JobScraperServiceTest {
         // Then
         assertNotNull(jobs, "Jobs list should not be null");
         assertFalse(jobs.isEmpty(), "Jobs list should not be empty");
-        verify(asyncJobProcessor, times(2)).processJobElement(any(Element.class), eq(jobFunction));
+        verify(asyncJobProcessor).processJobCard(argThat(card -> card.jobUrl().endsWith("/apply/123")
+                && card.organizationName().equals("Company 1")), eq(jobFunction));
+        verify(asyncJobProcessor).processJobCard(argThat(card -> card.jobUrl().endsWith("/apply/456")), eq(jobFunction));
+    }
+
+    @Test
+    void whenCardsAreAlreadyKnown_thenSkipProcessing() throws IOException {
+        // Given
+        String jobFunction = "Software Engineer";
+        String testHtml = """
+            <html>
+                <body>
+                    <div data-testid="job-card">
+                        <div itemprop="title">Software Engineer</div>
+                        <a href="https://jobs.techstars.com/apply/123">Apply</a>
+                    </div>
+                </body>
+            </html>
+            """;
+        when(jsoupWrapper.connect(anyString())).thenReturn(Jsoup.parse(testHtml));
+        when(jobUrlIndex.filterUnknown(any())).thenReturn(Set.of());
+
+        // When
+        List<Job> jobs = jobScraperService.scrapeJobsByFunction(jobFunction);
+
+        // Then
+        assertTrue(jobs.isEmpty());
+        verify(asyncJobProcessor, never()).processJobCard(any(), any());
+    }
+
+    @Test
+    void whenCrawling_thenProcessNewCardsOfEveryPage() throws IOException {
+        // Given
+        String jobFunction = "Software Engineer";
+        Document page = Jsoup.parse("""
+            <html>
+                <body>
+                    <div data-testid="job-card"><a href="https://jobs.techstars.com/apply/123">Apply</a></div>
+                    <div data-testid="job-card"><a href="https://jobs.techstars.com/apply/456">Apply</a></div>
+                </body>
+            </html>
+            """);
+        when(listingCrawler.crawl(eq(jobFunction), any())).thenAnswer(invocation -> {
+            ListingCrawler.PageHandler handler = invocation.getArgument(1);
+            int pages = 0;
+            // The second page repeats the first one, which ends the crawl
+            while (handler.onPage(pages + 1, ListingCrawler.selectJobCards(page))) {
+                pages++;
+            }
+            return pages + 1;
+        });
+        when(jobUrlIndex.filterUnknown(any())).thenReturn(Set.of("https://jobs.techstars.com/apply/456"));
+        when(asyncJobProcessor.processJobCard(any(JobCard.class), eq(jobFunction)))
+            .thenReturn(CompletableFuture.completedFuture(Job.builder().laborFunction(jobFunction).build()));
+        JobBatchWriter.Buffer writeBuffer = mock(JobBatchWriter.Buffer.class);
+        when(jobBatchWriter.openBuffer(any())).thenAnswer(invocation -> {
+            Consumer<Job> onSaved = invocation.getArgument(0);
+            doAnswer(add -> {
+                onSaved.accept(add.getArgument(0));
+                return null;
+            }).when(writeBuffer).add(any());
+            return writeBuffer;
+        });
+
+        // When
+        CrawlResult result = jobScraperService.crawlJobsByFunction(jobFunction);
+
+        // Then
+        assertEquals(2, result.pagesProcessed());
+        assertEquals(2, result.cardsFound());
+        assertEquals(1, result.cardsSkipped());
+        assertEquals(1, result.jobsSaved());
+        verify(asyncJobProcessor, times(1)).processJobCard(any(JobCard.class), eq(jobFunction));
+        verify(writeBuffer).flush();
+    }
+
+    @Test
+    void whenFunctionsShareCards_thenFetchEachJobOnceAndRecordEveryFunction() throws IOException {
+        // Given: both listings have the shared card, each has one card of its own
+        Document engineering = Jsoup.parse("""
+            <html>
+                <body>
+                    <div data-testid="job-card"><a href="https://jobs.techstars.com/apply/shared">Apply</a></div>
+                    <div data-testid="job-card"><a href="https://jobs.techstars.com/apply/engineering">Apply</a></div>
+                </body>
+            </html>
+            """);
+        Document data = Jsoup.parse("""
+            <html>
+                <body>
+                    <div data-testid="job-card"><a href="https://jobs.techstars.com/apply/shared">Apply</a></div>
+                    <div data-testid="job-card"><a href="https://jobs.techstars.com/apply/data">Apply</a></div>
+                </body>
+            </html>
+            """);
+        when(listingCrawler.crawl(any(), any())).thenAnswer(invocation -> {
+            ListingCrawler.PageHandler handler = invocation.getArgument(1);
+            Document page = invocation.getArgument(0).equals("Data Science") ? data : engineering;
+            handler.onPage(1, ListingCrawler.selectJobCards(page));
+            return 1;
+        });
+        when(jobUrlIndex.filterUnknown(any()))
+            .thenAnswer(invocation -> new LinkedHashSet<>(invocation.<Set<String>>getArgument(0)));
+        when(asyncJobProcessor.processJobCard(any(JobCard.class), any())).thenAnswer(invocation ->
+            CompletableFuture.completedFuture(Job.builder().laborFunction(invocation.getArgument(1)).build()));
+        when(jobBatchWriter.openBuffer(any())).thenReturn(mock(JobBatchWriter.Buffer.class));
+
+        // When
+        List<CrawlResult> results = jobScraperService.crawlJobsByFunctions(List.of("Software Engineering", "Data Science"));
+
+        // Then
+        assertEquals(List.of("Software Engineering", "Data Science"), results.stream().map(CrawlResult::jobFunction).toList());
+        assertEquals(4, results.stream().mapToInt(CrawlResult::cardsFound).sum());
+        assertEquals(1, results.stream().mapToInt(CrawlResult::cardsSkipped).sum());
+        verify(asyncJobProcessor, times(3)).processJobCard(any(JobCard.class), any());
+        verify(asyncJobProcessor, times(1)).processJobCard(argThat(card -> card.jobUrl().endsWith("/shared")), any());
+        verify(jobBatchWriter).recordFunctions(argThat(functionsByUrl ->
+            functionsByUrl.get("https://jobs.techstars.com/apply/shared").equals(Set.of("Software Engineering", "Data Science"))
+                && functionsByUrl.get("https://jobs.techstars.com/apply/data").equals(Set.of("Data Science"))));
     }
 
     @Test
@@ -104,7 +255,7 @@ class JobScraperServiceTest {
         // Then
         assertNotNull(jobs);
         assertTrue(jobs.isEmpty());
-        verify(asyncJobProcessor, never()).processJobElement(any(), any());
+        verify(asyncJobProcessor, never()).processJobCard(any(), any());
     }
 
     private String loadTestHtml(String filename) throws IOException {
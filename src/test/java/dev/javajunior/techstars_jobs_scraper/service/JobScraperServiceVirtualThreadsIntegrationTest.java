@@ -0,0 +1,29 @@
+package dev.javajunior.techstars_jobs_scraper.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the scraper integration tests with the virtual-thread executor.
+ */
+@TestPropertySource(properties = "app.scraping.executor.mode=virtual")
+class JobScraperServiceVirtualThreadsIntegrationTest extends JobScraperServiceIntegrationTest {
+
+    @Autowired
+    @Qualifier("taskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Test
+    void whenVirtualModeIsSelected_thenTasksRunOnVirtualThreads() {
+        Boolean virtual = CompletableFuture.supplyAsync(() -> Thread.currentThread().isVirtual(), taskExecutor).join();
+
+        assertTrue(virtual, "Scraper tasks should run on virtual threads");
+    }
+}
@@ -0,0 +1,248 @@
+package dev.javajunior.techstars_jobs_scraper.service;
+
+import dev.javajunior.techstars_jobs_scraper.dto.CursorPage;
+import dev.javajunior.techstars_jobs_scraper.dto.FacetCount;
+import dev.javajunior.techstars_jobs_scraper.dto.FacetFilter;
+import dev.javajunior.techstars_jobs_scraper.dto.JobCursor;
+import dev.javajunior.techstars_jobs_scraper.dto.JobExportRow;
+import dev.javajunior.techstars_jobs_scraper.dto.JobFacets;
+import dev.javajunior.techstars_jobs_scraper.dto.JobFilter;
+import dev.javajunior.techstars_jobs_scraper.dto.JobListingRow;
+import dev.javajunior.techstars_jobs_scraper.model.Job;
+import dev.javajunior.techstars_jobs_scraper.model.Organization;
+import dev.javajunior.techstars_jobs_scraper.repository.JobFacetRepository;
+import dev.javajunior.techstars_jobs_scraper.repository.JobRepository;
+import dev.javajunior.techstars_jobs_scraper.repository.OrganizationRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class JobServiceIntegrationTest {
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private JobFacetRepository jobFacetRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        Organization acme = organizationRepository.save(Organization.builder()
+                .name("Acme").url("https://acme.example.com").logoUrl("https://acme.example.com/logo.png").build());
+        Organization globex = organizationRepository.save(Organization.builder()
+                .name("Globex").url("https://globex.example.com").build());
+
+        List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            jobs.add(Job.builder()
+                    .positionName("Engineer " + i)
+                    .jobPageUrl("https://jobs.techstars.com/jobs/service-" + i)
+                    .organization(i % 2 == 0 ? acme : globex)
+                    .laborFunction("Software Engineering")
+                    .location(i < 3 ? "New York, NY" : "Remote")
+                    .postedDate(1_700_000_000_000L + i * 86_400_000L)
+                    .description(i == 4 ? "Description 4, mentors Engineer 0" : "Description " + i)
+                    .tags(Set.of("java", "tag-" + i))
+                    .jobType("Full-time")
+                    .remote(i >= 3)
+                    .build());
+        }
+        jobRepository.saveAll(jobs);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobRepository.deleteAll();
+        organizationRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void streamJobsForExport_returnsMatchingRowsInIdOrder() {
+        List<JobExportRow> rows = new ArrayList<>();
+
+        jobService.streamJobsForExport("New York", null, rows::add);
+
+        assertEquals(3, rows.size());
+        assertEquals("Engineer 0", rows.get(0).positionName());
+        assertEquals("Acme", rows.get(0).organizationName());
+        assertEquals("Globex", rows.get(1).organizationName());
+    }
+
+    @Test
+    void streamJobsForExport_honorsLimit() {
+        List<JobExportRow> rows = new ArrayList<>();
+
+        jobService.streamJobsForExport(null, 2, rows::add);
+
+        assertEquals(2, rows.size());
+    }
+
+    @Test
+    void streamListingsForExport_returnsListingRowsInIdOrder() {
+        List<JobListingRow> rows = new ArrayList<>();
+
+        jobService.streamListingsForExport("Remote", 1, rows::add);
+
+        assertEquals(1, rows.size());
+        assertEquals("Engineer 3", rows.get(0).positionName());
+        assertEquals("https://globex.example.com", rows.get(0).organizationUrl());
+        assertEquals("java" + JobListingRow.TAG_SEPARATOR + "tag-3", rows.get(0).tags());
+    }
+
+    @Test
+    void getJobs_readsPageWithTagsInOneStatementPlusCount() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<JobListingRow> page = jobService.getJobs(new JobFilter(null, null, null),
+                PageRequest.of(0, 2, Sort.by("positionName")));
+
+        assertEquals(2, statistics.getPrepareStatementCount(), "One listing query and one count query");
+        assertEquals(5, page.getTotalElements());
+        JobListingRow first = page.getContent().get(0);
+        assertEquals("Engineer 0", first.positionName());
+        assertEquals("Acme", first.organizationName());
+        assertEquals("java" + JobListingRow.TAG_SEPARATOR + "tag-0", first.tags());
+    }
+
+    @Test
+    void getJobsAfter_readsPageInOneStatement() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CursorPage<JobListingRow> page = jobService.getJobsAfter(null, null, 5, false);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(5, page.content().size());
+    }
+
+    @Test
+    void getJobsAfter_walksAllPagesNewestFirst() {
+        // Same posted date as Engineer 4, ordered by id
+        jobRepository.save(Job.builder()
+                .positionName("Engineer 5")
+                .jobPageUrl("https://jobs.techstars.com/jobs/service-5")
+                .organization(organizationRepository.findByName("Acme").orElseThrow())
+                .laborFunction("Software Engineering")
+                .location("Remote")
+                .postedDate(1_700_000_000_000L + 4 * 86_400_000L)
+                .build());
+
+        List<String> names = new ArrayList<>();
+        JobCursor cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<JobListingRow> page = jobService.getJobsAfter(null, cursor, 2, false);
+            page.content().forEach(job -> names.add(job.positionName()));
+            assertNull(page.totalElements());
+            cursor = page.nextCursor() != null ? JobCursor.decode(page.nextCursor()) : null;
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(List.of("Engineer 5", "Engineer 4", "Engineer 3", "Engineer 2", "Engineer 1", "Engineer 0"), names);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void getJobsAfter_filtersByLocationAndCountsOnRequest() {
+        CursorPage<JobListingRow> page = jobService.getJobsAfter("New York", null, 10, true);
+
+        assertEquals(List.of("Engineer 2", "Engineer 1", "Engineer 0"),
+                page.content().stream().map(JobListingRow::positionName).toList());
+        assertNull(page.nextCursor());
+        assertEquals(3L, page.totalElements());
+    }
+
+    @Test
+    void searchJobs_matchesTitleOrganizationAndTags() {
+        assertEquals(List.of("Engineer 3", "Engineer 1"), positionNames(jobService.searchJobs("globex", PageRequest.of(0, 10))));
+        assertEquals(List.of("Engineer 2"), positionNames(jobService.searchJobs("TAG-2", PageRequest.of(0, 10))));
+        assertTrue(jobService.searchJobs("kotlin", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void searchJobs_ranksTitleMatchesFirst() {
+        Slice<JobListingRow> result = jobService.searchJobs("engineer 0", PageRequest.of(0, 10));
+
+        assertEquals(List.of("Engineer 0", "Engineer 4"), positionNames(result));
+    }
+
+    @Test
+    void searchJobs_reportsNextSlice() {
+        Slice<JobListingRow> first = jobService.searchJobs("java", PageRequest.of(0, 2));
+        Slice<JobListingRow> last = jobService.searchJobs("java", PageRequest.of(2, 2));
+
+        assertEquals(2, first.getNumberOfElements());
+        assertTrue(first.hasNext());
+        assertEquals(1, last.getNumberOfElements());
+        assertFalse(last.hasNext());
+    }
+
+    private static List<String> positionNames(Slice<JobListingRow> jobs) {
+        return jobs.getContent().stream().map(JobListingRow::positionName).toList();
+    }
+
+    @Test
+    void getFacets_withFilter_countsOnlyMatchingJobs() {
+        // When
+        JobFacets facets = jobService.getFacets(new FacetFilter("Remote", null, null, true, null, null, "java"), 10);
+
+        // Then
+        assertEquals(2, facets.total());
+        assertEquals(List.of(new FacetCount("Remote", 2)), facets.facets().get(JobFacets.LOCATION));
+        assertEquals(List.of(new FacetCount("Acme", 1), new FacetCount("Globex", 1)),
+                facets.facets().get(JobFacets.ORGANIZATION));
+        assertEquals(List.of(new FacetCount("java", 2), new FacetCount("tag-3", 1), new FacetCount("tag-4", 1)),
+                facets.facets().get(JobFacets.TAG));
+        assertEquals(List.of(new FacetCount("true", 2)), facets.facets().get(JobFacets.REMOTE));
+        assertTrue(facets.facets().get(JobFacets.EXPERIENCE_LEVEL).isEmpty());
+
+        // A filter nothing matches
+        assertEquals(0, jobService.getFacets(new FacetFilter(null, null, null, null, "Initech", null, null), 10).total());
+    }
+
+    @Test
+    void getFacets_withoutFilter_readsStoredCountsLargestFirst() {
+        // Given: the jobs were saved around the ingest path
+        jobFacetRepository.rebuild();
+
+        // When
+        JobFacets facets = jobService.getFacets(new FacetFilter(null, null, null, null, null, null, null), 2);
+
+        // Then
+        assertEquals(5, facets.total());
+        assertEquals(List.of(new FacetCount("New York, NY", 3), new FacetCount("Remote", 2)),
+                facets.facets().get(JobFacets.LOCATION));
+        assertEquals(List.of(new FacetCount("java", 5), new FacetCount("tag-0", 1)), facets.facets().get(JobFacets.TAG));
+        assertEquals(List.of(new FacetCount("Full-time", 5)), facets.facets().get(JobFacets.JOB_TYPE));
+        assertEquals(List.of(new FacetCount("false", 3), new FacetCount("true", 2)), facets.facets().get(JobFacets.REMOTE));
+        assertEquals(JobFacets.NAMES, List.copyOf(facets.facets().keySet()));
+    }
+}
@@ -1,7 +1,7 @@
 package dev.javajunior.techstars_jobs_scraper.service;
 
 import dev.javajunior.techstars_jobs_scraper.dto.JobFilter;
-import dev.javajunior.techstars_jobs_scraper.model.Job;
+import dev.javajunior.techstars_jobs_scraper.dto.JobListingRow;
 import dev.javajunior.techstars_jobs_scraper.repository.JobRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -36,12 +36,12 @@ class JobServiceTest {
     void getJobs_returnsPageOfJobs() {
         JobFilter filter = new JobFilter("NYC", null, null);
         Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "postedDate"));
-        Page<Job> jobPage = new PageImpl<>(Collections.emptyList(), pageable, 0);
-        when(jobRepository.findByLocation(eq("NYC"), any(Pageable.class))).thenReturn(jobPage);
+        Page<JobListingRow> jobPage = new PageImpl<>(Collections.emptyList(), pageable, 0);
+        when(jobRepository.findListingsByLocation(eq("NYC"), any(Pageable.class))).thenReturn(jobPage);
 
-        Page<Job> result = jobService.getJobs(filter, pageable);
+        Page<JobListingRow> result = jobService.getJobs(filter, pageable);
         assertNotNull(result);
         assertEquals(0, result.getTotalElements());
-        verify(jobRepository, times(1)).findByLocation(eq("NYC"), any(Pageable.class));
+        verify(jobRepository, times(1)).findListingsByLocation(eq("NYC"), any(Pageable.class));
     }
 } 
\ No newline at end of file
@@ -0,0 +1,268 @@
+package dev.javajunior.techstars_jobs_scraper.service;
+
+import dev.javajunior.techstars_jobs_scraper.component.JobUrlIndex;
+import dev.javajunior.techstars_jobs_scraper.component.OrganizationResolver;
+import dev.javajunior.techstars_jobs_scraper.connector.JsoupWrapper;
+import dev.javajunior.techstars_jobs_scraper.dto.EnqueueResult;
+import dev.javajunior.techstars_jobs_scraper.dto.ScrapeQueueStats;
+import dev.javajunior.techstars_jobs_scraper.dto.ScrapeTask;
+import dev.javajunior.techstars_jobs_scraper.repository.JobRepository;
+import dev.javajunior.techstars_jobs_scraper.repository.OrganizationRepository;
+import dev.javajunior.techstars_jobs_scraper.repository.ScrapeTaskRepository;
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ScrapeQueueServiceTest {
+
+    private static final String FUNCTION = "Software Engineering";
+    private static final String JOB_URL = "https://jobs.techstars.com/companies/acme/jobs/";
+    private static final int JOB_COUNT = 60;
+
+    @Autowired
+    private ScrapeQueueService scrapeQueueService;
+
+    @Autowired
+    private ScrapeTaskRepository scrapeTaskRepository;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private OrganizationResolver organizationResolver;
+
+    @Autowired
+    private JobUrlIndex jobUrlIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private JsoupWrapper jsoupWrapper;
+
+    private final Map<String, AtomicInteger> detailFetches = new ConcurrentHashMap<>();
+    // Adds a card whose detail page always times out
+    private boolean brokenJob;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ReflectionTestUtils.setField(scrapeQueueService, "retryDelay", Duration.ZERO);
+        when(jsoupWrapper.connect(anyString())).thenAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            return Jsoup.parse(url.contains("&page=") ? "<html><body></body></html>" : listing());
+        });
+        when(jsoupWrapper.fetch(anyString())).thenAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            detailFetches.computeIfAbsent(url, key -> new AtomicInteger()).incrementAndGet();
+            if (url.endsWith("/broken")) {
+                throw new SocketTimeoutException("Read timed out");
+            }
+            return "<html><body><div class=\"job-description\">Build things</div></body></html>";
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM scrape_tasks");
+        jdbcTemplate.update("DELETE FROM scrape_task_functions");
+        jobRepository.deleteAll();
+        organizationRepository.deleteAllInBatch();
+        organizationResolver.clear();
+        jobUrlIndex.load();
+    }
+
+    @Test
+    void whenSeveralWorkersDrainTheQueue_thenEveryJobIsFetchedOnce() throws Exception {
+        // Given
+        EnqueueResult enqueued = scrapeQueueService.enqueue(FUNCTION);
+
+        // When: three workers, as if on three instances, claim until the queue is empty
+        List<Integer> claimedPerWorker = new ArrayList<>();
+        try (ExecutorService workers = Executors.newFixedThreadPool(3)) {
+            List<Future<Integer>> runs = new ArrayList<>();
+            for (int i = 1; i <= 3; i++) {
+                String workerId = "instance-" + i;
+                runs.add(workers.submit(() -> {
+                    int claimed = 0;
+                    for (int batch = scrapeQueueService.runOnce(workerId); batch > 0; batch = scrapeQueueService.runOnce(workerId)) {
+                        claimed += batch;
+                    }
+                    return claimed;
+                }));
+            }
+            for (Future<Integer> run : runs) {
+                claimedPerWorker.add(run.get());
+            }
+        }
+
+        // Then
+        assertEquals(JOB_COUNT, enqueued.tasksEnqueued());
+        assertEquals(JOB_COUNT, claimedPerWorker.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(JOB_COUNT, jobRepository.count());
+        assertEquals(JOB_COUNT, detailFetches.size());
+        assertTrue(detailFetches.values().stream().allMatch(count -> count.get() == 1));
+        assertEquals(new ScrapeQueueStats(0, 0, 0), scrapeQueueService.stats());
+    }
+
+    @Test
+    void whenEnqueuedAgain_thenSkipQueuedAndStoredJobs() {
+        // Given
+        scrapeQueueService.enqueue(FUNCTION);
+
+        // When
+        EnqueueResult again = scrapeQueueService.enqueue(FUNCTION);
+
+        // Then
+        assertEquals(JOB_COUNT, again.cardsFound());
+        assertEquals(0, again.tasksEnqueued());
+        assertEquals(new ScrapeQueueStats(JOB_COUNT, 0, 0), scrapeQueueService.stats());
+    }
+
+    @Test
+    void whenLeaseExpires_thenAnotherWorkerTakesTheTasks() throws InterruptedException {
+        // Given: a worker claims a batch and dies before finishing it
+        scrapeQueueService.enqueue(FUNCTION);
+        List<ScrapeTask> abandoned = scrapeTaskRepository.claim("crashed", 5, 0, 3);
+        Thread.sleep(5);
+
+        // When
+        while (scrapeQueueService.runOnce("survivor") > 0) {
+            // drain
+        }
+
+        // Then
+        assertEquals(5, abandoned.size());
+        assertEquals(JOB_COUNT, jobRepository.count());
+        assertTrue(scrapeTaskRepository.complete(abandoned.stream().map(ScrapeTask::id).toList(), "crashed").isEmpty());
+        assertEquals(new ScrapeQueueStats(0, 0, 0), scrapeQueueService.stats());
+    }
+
+    @Test
+    void whenTaskKeepsFailing_thenMarkItFailedAfterMaxAttempts() {
+        // Given
+        brokenJob = true;
+        scrapeQueueService.enqueue(FUNCTION);
+
+        // When
+        while (scrapeQueueService.runOnce("worker") > 0) {
+            // drain, failed tasks come back until they run out of attempts
+        }
+
+        // Then
+        assertEquals(3, detailFetches.get(JOB_URL + "broken").get());
+        assertEquals(JOB_COUNT, jobRepository.count());
+        assertEquals(new ScrapeQueueStats(0, 0, 1), scrapeQueueService.stats());
+    }
+
+    @Test
+    void whenFailedTaskIsEnqueuedAgain_thenQueueItAgain() {
+        // Given
+        brokenJob = true;
+        scrapeQueueService.enqueue(FUNCTION);
+        while (scrapeQueueService.runOnce("worker") > 0) {
+            // drain until the broken task fails for good
+        }
+
+        // When
+        EnqueueResult again = scrapeQueueService.enqueue(FUNCTION);
+
+        // Then
+        assertEquals(1, again.tasksEnqueued());
+        assertEquals(new ScrapeQueueStats(1, 0, 0), scrapeQueueService.stats());
+        assertEquals(1, scrapeQueueService.runOnce("worker"));
+        assertEquals(4, detailFetches.get(JOB_URL + "broken").get());
+    }
+
+    @Test
+    void whenCardIsQueuedUnderTwoFunctions_thenRecordBothOnTheJob() {
+        // Given: the cards are still pending under the first function when the second lists them
+        scrapeQueueService.enqueue(FUNCTION);
+        EnqueueResult second = scrapeQueueService.enqueue("Data Science");
+
+        // When
+        while (scrapeQueueService.runOnce("worker") > 0) {
+            // drain
+        }
+
+        // Then
+        assertEquals(0, second.tasksEnqueued());
+        assertEquals(JOB_COUNT, jobRepository.count());
+        jobRepository.findAll().forEach(job -> assertEquals(Set.of(FUNCTION, "Data Science"), job.getJobFunctions()));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM scrape_task_functions", Integer.class));
+    }
+
+    @Test
+    void whenTaskRunsLater_thenKeepThePostedDateOfTheCard() {
+        // Given: posted dates are parsed when the cards are queued
+        scrapeQueueService.enqueue(FUNCTION);
+        assertEquals(JOB_COUNT, jdbcTemplate.queryForObject("SELECT count(*) FROM scrape_tasks WHERE posted_at IS NOT NULL",
+                Integer.class));
+        // As if queued a week ago
+        long queuedDate = LocalDate.now().minusDays(7).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        jdbcTemplate.update("UPDATE scrape_tasks SET posted_at = ?", queuedDate);
+
+        // When
+        while (scrapeQueueService.runOnce("worker") > 0) {
+            // drain
+        }
+
+        // Then
+        jobRepository.findAll().forEach(job -> assertEquals(queuedDate, job.getPostedDate()));
+    }
+
+    private String listing() {
+        StringBuilder html = new StringBuilder("<html><body>");
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < JOB_COUNT; i++) {
+            ids.add(String.valueOf(i));
+        }
+        if (brokenJob) {
+            ids.add("broken");
+        }
+        for (String id : ids) {
+            html.append("""
+                    <div class="job-card">
+                        <div class="company-info">
+                            <a class="company-link" href="https://acme.example.com">Acme</a>
+                        </div>
+                        <div itemprop="title">Engineer %s</div>
+                        <div itemprop="jobLocation">Remote</div>
+                        <div class="posted-date">1 day ago</div>
+                        <a href="%s%s">Apply</a>
+                    </div>
+                    """.formatted(id, JOB_URL, id));
+        }
+        return html.append("</body></html>").toString();
+    }
+}
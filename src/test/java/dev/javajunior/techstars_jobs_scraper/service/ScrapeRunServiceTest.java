@@ -0,0 +1,132 @@
+package dev.javajunior.techstars_jobs_scraper.service;
+
+import dev.javajunior.techstars_jobs_scraper.dto.CrawlResult;
+import dev.javajunior.techstars_jobs_scraper.dto.ScrapeRunStatus;
+import dev.javajunior.techstars_jobs_scraper.dto.ScrapeRunStatus.State;
+import dev.javajunior.techstars_jobs_scraper.exception.ScrapingException;
+import dev.javajunior.techstars_jobs_scraper.model.Job;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ScrapeRunServiceTest {
+
+    @Mock
+    private JobScraperService jobScraperService;
+
+    private ThreadPoolTaskExecutor executor;
+    private ScrapeRunService scrapeRunService;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+        scrapeRunService = new ScrapeRunService(jobScraperService, executor);
+        ReflectionTestUtils.setField(scrapeRunService, "retention", Duration.ofHours(1));
+        ReflectionTestUtils.setField(scrapeRunService, "sseTimeout", Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void whenRunFinishes_thenStatusCarriesResult() throws InterruptedException {
+        // Given
+        CrawlResult crawlResult = new CrawlResult("Software Engineering", 1, 2, 0, 2, 0);
+        when(jobScraperService.crawlJobsByFunction(eq("Software Engineering"), any(), any())).thenAnswer(invocation -> {
+            Consumer<Job> onSaved = invocation.getArgument(1);
+            onSaved.accept(Job.builder().id(1L).build());
+            onSaved.accept(Job.builder().id(2L).build());
+            return crawlResult;
+        });
+
+        // When
+        ScrapeRunStatus started = scrapeRunService.start("Software Engineering");
+        ScrapeRunStatus finished = awaitFinished(started.runId());
+
+        // Then
+        assertNotNull(started.runId());
+        assertEquals(State.SUCCEEDED, finished.state());
+        assertEquals(2, finished.jobsSaved());
+        assertEquals(crawlResult, finished.result());
+        assertNotNull(finished.finishedAt());
+    }
+
+    @Test
+    void whenRunIsCancelled_thenCrawlSeesItAndRunEndsCancelled() throws InterruptedException {
+        // Given
+        CountDownLatch running = new CountDownLatch(1);
+        when(jobScraperService.crawlJobsByFunction(eq("Design"), any(), any())).thenAnswer(invocation -> {
+            BooleanSupplier cancelled = invocation.getArgument(2);
+            running.countDown();
+            while (!cancelled.getAsBoolean()) {
+                Thread.sleep(5);
+            }
+            return new CrawlResult("Design", 1, 0, 0, 0, 0);
+        });
+        ScrapeRunStatus started = scrapeRunService.start("Design");
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        // When
+        scrapeRunService.cancel(started.runId());
+
+        // Then
+        assertEquals(State.CANCELLED, awaitFinished(started.runId()).state());
+    }
+
+    @Test
+    void whenCrawlFails_thenRunEndsFailedWithMessage() throws InterruptedException {
+        // Given
+        when(jobScraperService.crawlJobsByFunction(eq("Sales"), any(), any()))
+                .thenThrow(new ScrapingException("Failed to fetch listing: timeout"));
+
+        // When
+        ScrapeRunStatus finished = awaitFinished(scrapeRunService.start("Sales").runId());
+
+        // Then
+        assertEquals(State.FAILED, finished.state());
+        assertEquals("Failed to fetch listing: timeout", finished.error());
+    }
+
+    @Test
+    void whenRunIsUnknown_thenNothingIsReturned() {
+        assertTrue(scrapeRunService.getStatus("missing").isEmpty());
+        assertTrue(scrapeRunService.cancel("missing").isEmpty());
+        assertTrue(scrapeRunService.subscribe("missing").isEmpty());
+    }
+
+    private ScrapeRunStatus awaitFinished(String runId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            ScrapeRunStatus status = scrapeRunService.getStatus(runId).orElseThrow();
+            if (status.state().isFinished()) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        fail("Run " + runId + " did not finish");
+        return null;
+    }
+}
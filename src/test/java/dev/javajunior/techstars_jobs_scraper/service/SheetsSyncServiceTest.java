@@ -0,0 +1,289 @@
+package dev.javajunior.techstars_jobs_scraper.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.javajunior.techstars_jobs_scraper.dto.SheetsSyncResult;
+import dev.javajunior.techstars_jobs_scraper.model.Job;
+import dev.javajunior.techstars_jobs_scraper.model.Organization;
+import dev.javajunior.techstars_jobs_scraper.repository.JobRepository;
+import dev.javajunior.techstars_jobs_scraper.repository.OrganizationRepository;
+import dev.javajunior.techstars_jobs_scraper.repository.SheetsSyncRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SheetsSyncServiceTest {
+
+    private static final String SPREADSHEET_ID = "sheet-1";
+    private static final String TARGET = SPREADSHEET_ID + "/Jobs";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    // Local stand-in for the Sheets REST API: records every append, answers queued error statuses first
+    private static final HttpServer SHEETS_STUB;
+    private static final List<JsonNode> APPENDS = new CopyOnWriteArrayList<>();
+    private static final Deque<Integer> ERROR_STATUSES = new ConcurrentLinkedDeque<>();
+    private static final List<Integer> ANSWERED = new CopyOnWriteArrayList<>();
+
+    static {
+        try {
+            SHEETS_STUB = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        SHEETS_STUB.createContext("/v4/spreadsheets/", SheetsSyncServiceTest::handleAppend);
+        SHEETS_STUB.start();
+    }
+
+    @Autowired
+    private SheetsSyncService sheetsSyncService;
+
+    @Autowired
+    private SheetsSyncRepository sheetsSyncRepository;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Organization acme;
+
+    @DynamicPropertySource
+    static void sheetsProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.sheets.root-url", () -> "http://localhost:" + SHEETS_STUB.getAddress().getPort() + "/");
+        registry.add("app.sheets.spreadsheet-id", () -> SPREADSHEET_ID);
+        registry.add("app.sheets.chunk-size", () -> 2);
+        registry.add("app.sheets.retry.initial-backoff", () -> "PT0.01S");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        SHEETS_STUB.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        acme = organizationRepository.save(Organization.builder()
+                .name("Acme").url("https://acme.example.com").build());
+        saveJobs(0, 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        APPENDS.clear();
+        ERROR_STATUSES.clear();
+        ANSWERED.clear();
+        sheetsSyncRepository.reset(TARGET);
+        jobRepository.deleteAll();
+        organizationRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void whenFirstSync_thenAppendHeaderAndAllJobsInChunks() throws IOException {
+        // When
+        SheetsSyncResult result = sheetsSyncService.sync();
+
+        // Then
+        assertEquals(5, result.rowsAppended());
+        assertEquals(3, result.appendRequests());
+        assertEquals(3, APPENDS.size());
+        List<String> firstColumn = firstColumn();
+        assertEquals(List.of("Position Name", "Engineer 0", "Engineer 1", "Engineer 2", "Engineer 3", "Engineer 4"),
+                firstColumn);
+        assertEquals(maxJobId(), result.lastJobId());
+        assertEquals(maxJobId(), sheetsSyncRepository.findLastJobId(TARGET));
+    }
+
+    @Test
+    void whenSyncedAgain_thenAppendOnlyJobsAddedSince() throws IOException {
+        // Given
+        sheetsSyncService.sync();
+        APPENDS.clear();
+        saveJobs(5, 2);
+
+        // When
+        SheetsSyncResult result = sheetsSyncService.sync();
+
+        // Then
+        assertEquals(2, result.rowsAppended());
+        assertEquals(1, APPENDS.size());
+        assertEquals(List.of("Engineer 5", "Engineer 6"), firstColumn());
+
+        // Nothing new, no request
+        APPENDS.clear();
+        assertEquals(0, sheetsSyncService.sync().appendRequests());
+        assertTrue(APPENDS.isEmpty());
+    }
+
+    @Test
+    void whenQuotaIsExceeded_thenBackOffAndRetry() throws IOException {
+        // Given
+        ERROR_STATUSES.add(429);
+        ERROR_STATUSES.add(429);
+
+        // When
+        SheetsSyncResult result = sheetsSyncService.sync();
+
+        // Then
+        assertEquals(5, result.rowsAppended());
+        assertEquals(List.of(429, 429, 200, 200, 200), ANSWERED);
+        assertEquals(6, firstColumn().size());
+    }
+
+    @Test
+    void whenAppendFails_thenKeepSyncedJobsAndResumeAfterThem() throws IOException {
+        // Given: an earlier sync sent the first two jobs, and the next append is rejected
+        List<Long> ids = jobRepository.findAll().stream().map(Job::getId).sorted().toList();
+        sheetsSyncRepository.markSynced(TARGET, ids.subList(0, 2));
+        ERROR_STATUSES.add(400);
+
+        // When
+        GoogleJsonResponseException e = assertThrows(GoogleJsonResponseException.class, () -> sheetsSyncService.sync());
+
+        // Then: a 400 is not retried, and the next sync picks up after the synced jobs
+        assertEquals(400, e.getStatusCode());
+        assertEquals(List.of(400), ANSWERED);
+        assertEquals(ids.get(1), sheetsSyncRepository.findLastJobId(TARGET));
+        assertEquals(3, sheetsSyncService.sync().rowsAppended());
+        assertEquals(List.of("Engineer 2", "Engineer 3", "Engineer 4"), firstColumn());
+    }
+
+    @Test
+    void whenLowerIdCommitsAfterSync_thenAppendItOnTheNextSync() throws Exception {
+        // Given: a batch took its id first but commits only after later jobs were synced
+        CountDownLatch saved = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        Long[] lateId = new Long[1];
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> late;
+        try {
+            late = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                lateId[0] = jobRepository.saveAndFlush(job(5)).getId();
+                saved.countDown();
+                try {
+                    commit.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(saved.await(10, TimeUnit.SECONDS));
+            saveJobs(6, 1);
+            sheetsSyncService.sync();
+            commit.countDown();
+            late.get(10, TimeUnit.SECONDS);
+        } finally {
+            commit.countDown();
+            executor.shutdown();
+        }
+        assertTrue(lateId[0] < maxJobId());
+        APPENDS.clear();
+
+        // When
+        SheetsSyncResult result = sheetsSyncService.sync();
+
+        // Then
+        assertEquals(1, result.rowsAppended());
+        assertEquals(List.of("Engineer 5"), firstColumn());
+    }
+
+    private void saveJobs(int from, int count) {
+        List<Job> jobs = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            jobs.add(job(i));
+        }
+        // One by one, so ids grow in the order of the names
+        jobs.forEach(jobRepository::save);
+    }
+
+    private Job job(int i) {
+        return Job.builder()
+                .positionName("Engineer " + i)
+                .jobPageUrl("https://jobs.techstars.com/jobs/sheets-" + i)
+                .organization(acme)
+                .laborFunction("Software Engineering")
+                .location("Remote")
+                .postedDate(1_700_000_000_000L)
+                .tags(Set.of("java"))
+                .build();
+    }
+
+    private Long maxJobId() {
+        return jobRepository.findAll().stream().map(Job::getId).max(Long::compare).orElseThrow();
+    }
+
+    private static List<String> firstColumn() {
+        List<String> values = new ArrayList<>();
+        for (JsonNode append : APPENDS) {
+            append.get("values").forEach(row -> values.add(row.get(0).asText()));
+        }
+        return values;
+    }
+
+    private static void handleAppend(HttpExchange exchange) throws IOException {
+        byte[] body;
+        int status;
+        Integer error = ERROR_STATUSES.poll();
+        if (!exchange.getRequestURI().getPath().endsWith(":append")) {
+            status = 404;
+            body = "{}".getBytes(StandardCharsets.UTF_8);
+        } else if (error != null) {
+            status = error;
+            body = ("{\"error\":{\"code\":" + error + ",\"message\":\"Rejected\",\"errors\":[{\"reason\":\"" +
+                    (error == 429 ? "rateLimitExceeded" : "badRequest") + "\"}]}}").getBytes(StandardCharsets.UTF_8);
+        } else {
+            InputStream in = exchange.getRequestBody();
+            // The client gzips larger request bodies
+            if ("gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+                in = new GZIPInputStream(in);
+            }
+            JsonNode request = OBJECT_MAPPER.readTree(in);
+            APPENDS.add(request);
+            status = 200;
+            body = ("{\"spreadsheetId\":\"" + SPREADSHEET_ID + "\",\"updates\":{\"updatedRows\":" +
+                    request.get("values").size() + "}}").getBytes(StandardCharsets.UTF_8);
+        }
+        ANSWERED.add(status);
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}